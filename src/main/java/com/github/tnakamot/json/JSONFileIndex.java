@@ -0,0 +1,759 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json;
+
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerIndexOutOfBoundsException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerMemberNotExistException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerReachedPrimitiveException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerWithTokenException;
+import com.github.tnakamot.json.pointer.JSONPointer;
+import com.github.tnakamot.json.pointer.JSONPointerReferenceToken;
+import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A sparse index of the structure of a large JSON text file, which allows evaluating JSON Pointers
+ * without parsing the whole file.
+ *
+ * <p>The index records the byte offsets of the beginning and the end of large JSON arrays and
+ * objects, and the byte offset of every N-th element of them. To evaluate a JSON Pointer, {@link
+ * #evaluate(JSONPointer)} reads the file from the beginning of the root value, jumps over the
+ * indexed arrays and objects which are not on the way to the target value, starts searching an
+ * element of an indexed array from the nearest recorded element, and finally parses only the
+ * target value. Small arrays and objects are not indexed, and are scanned (not parsed) instead.
+ *
+ * <pre>
+ * File source = new File("archive.json");
+ * JSONFileIndex index = JSONFileIndex.load(source, new File("archive.json.index"));
+ * JSONValue value = index.evaluate(new JSONPointer("/records/123456/name"));
+ * </pre>
+ *
+ * <p>Building the index requires reading the whole file once, but it does not build any JSON
+ * value, so the memory usage depends only on the size of the index. The index can be saved to a
+ * file and loaded later. The index remembers the size and the last modified time of the source
+ * file, and refuses to evaluate JSON Pointers once the source file is changed.
+ *
+ * <p>The source file must be a valid JSON text encoded using UTF-8. Building the index detects only
+ * unbalanced brackets and unterminated strings. Use {@link JSONText} to validate the file if
+ * needed.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ */
+public final class JSONFileIndex {
+  /** Default minimum size in bytes of JSON arrays and objects to index. */
+  public static final int DEFAULT_MIN_CONTAINER_SIZE = 64 * 1024;
+
+  /** Default interval of the recorded elements of JSON arrays. */
+  public static final int DEFAULT_INTERVAL = 1024;
+
+  private static final int MAGIC = 0x4A534958; // "JSIX"
+  private static final int VERSION = 1;
+
+  private final File source;
+  private final long sourceSize;
+  private final long sourceLastModified;
+  private final int minContainerSize;
+  private final int interval;
+
+  /** Beginning offsets of the indexed arrays and objects in ascending order. */
+  private final long[] starts;
+
+  /** End offsets (exclusive) of the indexed arrays and objects. */
+  private final long[] ends;
+
+  /**
+   * The recorded elements of the i-th indexed array are {@code checkpoints[checkpointFrom[i]]} to
+   * {@code checkpoints[checkpointFrom[i + 1] - 1]}, which are the offsets of the elements at
+   * interval, 2 * interval, 3 * interval, and so on.
+   */
+  private final int[] checkpointFrom;
+
+  private final long[] checkpoints;
+
+  private JSONFileIndex(
+      @NotNull File source,
+      long sourceSize,
+      long sourceLastModified,
+      int minContainerSize,
+      int interval,
+      @NotNull long[] starts,
+      @NotNull long[] ends,
+      @NotNull int[] checkpointFrom,
+      @NotNull long[] checkpoints) {
+    this.source = source;
+    this.sourceSize = sourceSize;
+    this.sourceLastModified = sourceLastModified;
+    this.minContainerSize = minContainerSize;
+    this.interval = interval;
+    this.starts = starts;
+    this.ends = ends;
+    this.checkpointFrom = checkpointFrom;
+    this.checkpoints = checkpoints;
+  }
+
+  /**
+   * Build the index of the given JSON text file with the default parameters.
+   *
+   * @param source JSON text file
+   * @return the index of the JSON text file
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   */
+  @NotNull
+  public static JSONFileIndex build(@NotNull File source) throws IOException {
+    return build(source, DEFAULT_MIN_CONTAINER_SIZE, DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Build the index of the given JSON text file.
+   *
+   * <p>Smaller minContainerSize and interval make evaluation of JSON Pointers faster, and the index
+   * larger.
+   *
+   * @param source JSON text file
+   * @param minContainerSize minimum size in bytes of JSON arrays and objects to index
+   * @param interval interval of the recorded elements of JSON arrays
+   * @return the index of the JSON text file
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   * @throws IllegalArgumentException if minContainerSize or interval is not positive
+   */
+  @NotNull
+  public static JSONFileIndex build(@NotNull File source, int minContainerSize, int interval)
+      throws IOException {
+    if (source == null) {
+      throw new NullPointerException("source cannot be null");
+    } else if (minContainerSize <= 0) {
+      throw new IllegalArgumentException("minContainerSize must be positive");
+    } else if (interval <= 0) {
+      throw new IllegalArgumentException("interval must be positive");
+    }
+
+    Path path = source.toPath();
+    long size = Files.size(path);
+    long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+    Builder builder = new Builder(minContainerSize, interval);
+    try (InputStream in = Files.newInputStream(path)) {
+      builder.scan(in);
+    }
+    return builder.build(source, size, lastModified);
+  }
+
+  /**
+   * Load the index of the given JSON text file from the given index file. If the index file does
+   * not exist, or the source file has changed since the index was built, the index is built with
+   * the default parameters and saved to the index file.
+   *
+   * @param source JSON text file
+   * @param indexFile index file of the JSON text file
+   * @return the index of the JSON text file
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   */
+  @NotNull
+  public static JSONFileIndex load(@NotNull File source, @NotNull File indexFile)
+      throws IOException {
+    Path path = source.toPath();
+    long size = Files.size(path);
+    long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+      if (in.readInt() == MAGIC
+          && in.readInt() == VERSION
+          && in.readLong() == size
+          && in.readLong() == lastModified) {
+        return read(in, source, size, lastModified);
+      }
+    } catch (NoSuchFileException ex) {
+      // build the index below
+    } catch (IOException ex) {
+      // broken index file; rebuild it below
+    }
+
+    JSONFileIndex index = build(source);
+    index.save(indexFile);
+    return index;
+  }
+
+  @NotNull
+  private static JSONFileIndex read(
+      @NotNull DataInputStream in, @NotNull File source, long size, long lastModified)
+      throws IOException {
+    int minContainerSize = in.readInt();
+    int interval = in.readInt();
+    int count = in.readInt();
+    int checkpointCount = in.readInt();
+    if (minContainerSize <= 0 || interval <= 0 || count < 0 || checkpointCount < 0) {
+      throw new IOException("broken index file");
+    }
+
+    long[] starts = new long[count];
+    long[] ends = new long[count];
+    int[] checkpointFrom = new int[count + 1];
+    long[] checkpoints = new long[checkpointCount];
+    for (int i = 0; i < count; i++) {
+      starts[i] = in.readLong();
+      ends[i] = in.readLong();
+      checkpointFrom[i + 1] = in.readInt();
+    }
+    for (int i = 0; i < checkpointCount; i++) {
+      checkpoints[i] = in.readLong();
+    }
+    if (checkpointFrom[count] != checkpointCount || in.read() >= 0) {
+      throw new IOException("broken index file");
+    }
+
+    return new JSONFileIndex(
+        source,
+        size,
+        lastModified,
+        minContainerSize,
+        interval,
+        starts,
+        ends,
+        checkpointFrom,
+        checkpoints);
+  }
+
+  /**
+   * Save this index to the given file. The file is replaced atomically if the file system supports
+   * it.
+   *
+   * @param indexFile destination
+   * @throws IOException if an I/O error occurs
+   */
+  public void save(@NotNull File indexFile) throws IOException {
+    Path target = indexFile.toPath();
+    Path directory = target.toAbsolutePath().getParent();
+    Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceSize);
+        out.writeLong(sourceLastModified);
+        out.writeInt(minContainerSize);
+        out.writeInt(interval);
+        out.writeInt(starts.length);
+        out.writeInt(checkpoints.length);
+        for (int i = 0; i < starts.length; i++) {
+          out.writeLong(starts[i]);
+          out.writeLong(ends[i]);
+          out.writeInt(checkpointFrom[i + 1]);
+        }
+        for (long checkpoint : checkpoints) {
+          out.writeLong(checkpoint);
+        }
+      }
+
+      try {
+        Files.move(
+            temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * The number of indexed JSON arrays and objects.
+   *
+   * @return the number of indexed JSON arrays and objects
+   */
+  public int containerCount() {
+    return starts.length;
+  }
+
+  /**
+   * Evaluate the given JSON Pointer against the source JSON text file, and parse only the JSON
+   * value which the pointer points to.
+   *
+   * @param pointer a string representation of a JSON Pointer
+   * @return the JSON value of the pointer evaluation result
+   * @throws InvalidJSONPointerException when the JSON Pointer has an error
+   * @throws IOException if an I/O error occurs, the source file has been changed since this index
+   *     was built, or the JSON text is malformed
+   * @throws JSONParserException if the target JSON value is malformed
+   */
+  @NotNull
+  public JSONValue evaluate(@NotNull String pointer)
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    return evaluate(JSONPointer.of(pointer));
+  }
+
+  /**
+   * Evaluate the given JSON Pointer against the source JSON text file, and parse only the JSON
+   * value which the pointer points to.
+   *
+   * @param pointer JSON pointer
+   * @return the JSON value of the pointer evaluation result
+   * @throws InvalidJSONPointerWithTokenException when the JSON Pointer does not point to an
+   *     existing JSON value
+   * @throws IOException if an I/O error occurs, the source file has been changed since this index
+   *     was built, or the JSON text is malformed
+   * @throws JSONParserException if the target JSON value is malformed
+   */
+  @NotNull
+  public JSONValue evaluate(@NotNull JSONPointer pointer)
+      throws InvalidJSONPointerWithTokenException, IOException, JSONParserException {
+    Path path = source.toPath();
+    if (Files.size(path) != sourceSize
+        || Files.getLastModifiedTime(path).toMillis() != sourceLastModified) {
+      throw new IOException(source + " has been changed since the index was built");
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      Reader reader = new Reader(channel);
+      long pos = reader.skipWhitespaces(0);
+      for (JSONPointerReferenceToken token : pointer.tokens()) {
+        int c = reader.byteAt(pos);
+        if (c == '{') {
+          pos = findMember(reader, pos, token);
+        } else if (c == '[') {
+          pos = findElement(reader, pos, token);
+        } else {
+          throw new InvalidJSONPointerReachedPrimitiveException(token);
+        }
+      }
+
+      long end = skipValue(reader, pos);
+      if (end - pos > Integer.MAX_VALUE) {
+        throw new IOException("the JSON value is too large to parse");
+      }
+      String text = new String(reader.read(pos, (int) (end - pos)), StandardCharsets.UTF_8);
+      return JSONText.fromString(text).parse().root();
+    }
+  }
+
+  /**
+   * Returns the offset of the value of the member of the JSON object at the given offset. If the
+   * JSON object has more than one member of the name, the last one is used as {@link
+   * com.github.tnakamot.json.parser.JSONParser} does.
+   */
+  private long findMember(
+      @NotNull Reader reader, long pos, @NotNull JSONPointerReferenceToken token)
+      throws IOException, InvalidJSONPointerWithTokenException {
+    String name = token.name();
+    long p = reader.skipWhitespaces(pos + 1);
+    if (reader.byteAt(p) == '}') {
+      throw new InvalidJSONPointerMemberNotExistException(token);
+    }
+
+    long found = -1;
+    while (true) {
+      if (reader.byteAt(p) != '"') {
+        throw malformed(p);
+      }
+      long keyEnd = reader.skipString(p);
+      boolean matches = name.equals(reader.readString(p, keyEnd));
+
+      p = reader.skipWhitespaces(keyEnd);
+      if (reader.byteAt(p) != ':') {
+        throw malformed(p);
+      }
+      p = reader.skipWhitespaces(p + 1);
+      if (matches) {
+        found = p;
+      }
+
+      p = reader.skipWhitespaces(skipValue(reader, p));
+      int c = reader.byteAt(p);
+      if (c == '}') {
+        if (found < 0) {
+          throw new InvalidJSONPointerMemberNotExistException(token);
+        }
+        return found;
+      } else if (c != ',') {
+        throw malformed(p);
+      }
+      p = reader.skipWhitespaces(p + 1);
+    }
+  }
+
+  /** Returns the offset of the element of the JSON array at the given offset. */
+  private long findElement(
+      @NotNull Reader reader, long pos, @NotNull JSONPointerReferenceToken token)
+      throws IOException, InvalidJSONPointerWithTokenException {
+    int index = token.index();
+
+    long p;
+    int count;
+    int container = Arrays.binarySearch(starts, pos);
+    int recorded = container >= 0 ? checkpointFrom[container + 1] - checkpointFrom[container] : 0;
+    int k = Math.min(index / interval, recorded);
+    if (k > 0) {
+      p = checkpoints[checkpointFrom[container] + k - 1];
+      count = k * interval;
+    } else {
+      p = reader.skipWhitespaces(pos + 1);
+      if (reader.byteAt(p) == ']') {
+        throw new InvalidJSONPointerIndexOutOfBoundsException(token, 0);
+      }
+      count = 0;
+    }
+
+    while (count < index) {
+      p = reader.skipWhitespaces(skipValue(reader, p));
+      int c = reader.byteAt(p);
+      if (c == ']') {
+        throw new InvalidJSONPointerIndexOutOfBoundsException(token, count + 1);
+      } else if (c != ',') {
+        throw malformed(p);
+      }
+      p = reader.skipWhitespaces(p + 1);
+      count++;
+    }
+    return p;
+  }
+
+  /** Returns the offset next to the end of the JSON value at the given offset. */
+  private long skipValue(@NotNull Reader reader, long pos) throws IOException {
+    int c = reader.byteAt(pos);
+    if (c == '{' || c == '[') {
+      int container = Arrays.binarySearch(starts, pos);
+      if (container >= 0) {
+        return ends[container];
+      }
+
+      int depth = 0;
+      long p = pos;
+      while (true) {
+        c = reader.byteAt(p);
+        if (c == '"') {
+          p = reader.skipString(p);
+          continue;
+        } else if (c == '{' || c == '[') {
+          depth++;
+        } else if (c == '}' || c == ']') {
+          if (--depth == 0) {
+            return p + 1;
+          }
+        } else if (c < 0) {
+          throw malformed(p);
+        }
+        p++;
+      }
+    } else if (c == '"') {
+      return reader.skipString(pos);
+    } else if (c < 0) {
+      throw malformed(pos);
+    } else {
+      long p = pos;
+      while (true) {
+        c = reader.byteAt(p);
+        if (c < 0 || c == ',' || c == ']' || c == '}' || isWhitespace(c)) {
+          return p;
+        }
+        p++;
+      }
+    }
+  }
+
+  private static boolean isWhitespace(int c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+
+  @NotNull
+  private static IOException malformed(long pos) {
+    return new IOException("malformed JSON text at byte offset " + pos);
+  }
+
+  /** Reads the source JSON text file at random offsets through a buffer. */
+  private static final class Reader {
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final byte[] window = new byte[WINDOW_SIZE];
+    private long windowStart = 0;
+    private int windowLength = 0;
+
+    private Reader(@NotNull FileChannel channel) {
+      this.channel = channel;
+    }
+
+    /** Returns the byte at the given offset, or -1 if the offset is at the end of the file. */
+    private int byteAt(long pos) throws IOException {
+      if (pos < windowStart || pos >= windowStart + windowLength) {
+        windowStart = pos;
+        windowLength = 0;
+        ByteBuffer dst = ByteBuffer.wrap(window);
+        while (dst.hasRemaining()) {
+          int n = channel.read(dst, pos + dst.position());
+          if (n < 0) {
+            break;
+          }
+        }
+        windowLength = dst.position();
+        if (windowLength == 0) {
+          return -1;
+        }
+      }
+      return window[(int) (pos - windowStart)] & 0xFF;
+    }
+
+    private long skipWhitespaces(long pos) throws IOException {
+      while (isWhitespace(byteAt(pos))) {
+        pos++;
+      }
+      return pos;
+    }
+
+    /** Returns the offset next to the closing quotation mark of the string at the given offset. */
+    private long skipString(long pos) throws IOException {
+      long p = pos + 1;
+      while (true) {
+        int c = byteAt(p);
+        if (c == '"') {
+          return p + 1;
+        } else if (c == '\\') {
+          p++;
+        } else if (c < 0) {
+          throw malformed(p);
+        }
+        p++;
+      }
+    }
+
+    @NotNull
+    private byte[] read(long pos, int length) throws IOException {
+      byte[] ret = new byte[length];
+      ByteBuffer dst = ByteBuffer.wrap(ret);
+      while (dst.hasRemaining()) {
+        if (channel.read(dst, pos + dst.position()) < 0) {
+          throw malformed(pos + dst.position());
+        }
+      }
+      return ret;
+    }
+
+    /** Decode the JSON string between the given offsets including the quotation marks. */
+    @NotNull
+    private String readString(long begin, long end) throws IOException {
+      if (end - begin > Integer.MAX_VALUE) {
+        throw new IOException("too long string at byte offset " + begin);
+      }
+      String quoted = new String(read(begin, (int) (end - begin)), StandardCharsets.UTF_8);
+      if (quoted.indexOf('\\') < 0) {
+        return quoted.substring(1, quoted.length() - 1);
+      }
+
+      try {
+        return ((JSONValueString) JSONText.fromString(quoted).parse().root()).value();
+      } catch (JSONParserException ex) {
+        throw new IOException("malformed JSON string at byte offset " + begin, ex);
+      }
+    }
+  }
+
+  /** Scans a JSON text sequentially and records large JSON arrays and objects. */
+  private static final class Builder {
+    private final int minContainerSize;
+    private final int interval;
+    private final List<long[]> containers = new ArrayList<>();
+
+    private long[] openStarts = new long[16];
+    private boolean[] openArrays = new boolean[16];
+    private int[] openCounts = new int[16];
+    private LongList[] openCheckpoints = new LongList[16];
+    private int depth = 0;
+
+    private Builder(int minContainerSize, int interval) {
+      this.minContainerSize = minContainerSize;
+      this.interval = interval;
+    }
+
+    private void scan(@NotNull InputStream in) throws IOException {
+      byte[] buf = new byte[1024 * 1024];
+      long base = 0;
+      boolean inString = false;
+      boolean escaped = false;
+      boolean pendingCheckpoint = false;
+
+      int n;
+      while ((n = in.read(buf)) >= 0) {
+        for (int i = 0; i < n; i++) {
+          byte b = buf[i];
+          if (inString) {
+            if (escaped) {
+              escaped = false;
+            } else if (b == '\\') {
+              escaped = true;
+            } else if (b == '"') {
+              inString = false;
+            }
+            continue;
+          }
+          if (isWhitespace(b)) {
+            continue;
+          }
+
+          long pos = base + i;
+          if (pendingCheckpoint) {
+            openCheckpoints[depth - 1].add(pos);
+            pendingCheckpoint = false;
+          }
+          switch (b) {
+            case '"':
+              inString = true;
+              break;
+            case '[':
+              open(pos, true);
+              break;
+            case '{':
+              open(pos, false);
+              break;
+            case ']':
+              close(pos, true);
+              break;
+            case '}':
+              close(pos, false);
+              break;
+            case ',':
+              if (depth > 0 && openArrays[depth - 1] && ++openCounts[depth - 1] % interval == 0) {
+                pendingCheckpoint = true;
+              }
+              break;
+            default:
+              break;
+          }
+        }
+        base += n;
+      }
+
+      if (inString) {
+        throw new IOException("unterminated string at the end of the JSON text");
+      } else if (depth > 0) {
+        throw malformed(openStarts[depth - 1]);
+      }
+    }
+
+    private void open(long pos, boolean array) {
+      if (depth == openStarts.length) {
+        int length = depth * 2;
+        openStarts = Arrays.copyOf(openStarts, length);
+        openArrays = Arrays.copyOf(openArrays, length);
+        openCounts = Arrays.copyOf(openCounts, length);
+        openCheckpoints = Arrays.copyOf(openCheckpoints, length);
+      }
+      if (openCheckpoints[depth] == null) {
+        openCheckpoints[depth] = new LongList();
+      }
+
+      openStarts[depth] = pos;
+      openArrays[depth] = array;
+      openCounts[depth] = 0;
+      openCheckpoints[depth].clear();
+      depth++;
+    }
+
+    private void close(long pos, boolean array) throws IOException {
+      if (depth == 0 || openArrays[depth - 1] != array) {
+        throw malformed(pos);
+      }
+
+      depth--;
+      long start = openStarts[depth];
+      long end = pos + 1;
+      if (end - start >= minContainerSize) {
+        LongList recorded = openCheckpoints[depth];
+        long[] container = new long[2 + recorded.size];
+        container[0] = start;
+        container[1] = end;
+        System.arraycopy(recorded.values, 0, container, 2, recorded.size);
+        containers.add(container);
+      }
+    }
+
+    @NotNull
+    private JSONFileIndex build(@NotNull File source, long size, long lastModified) {
+      // Containers are recorded when they are closed, so inner ones come first.
+      containers.sort(Comparator.comparingLong(container -> container[0]));
+
+      int count = containers.size();
+      long[] starts = new long[count];
+      long[] ends = new long[count];
+      int[] checkpointFrom = new int[count + 1];
+      for (int i = 0; i < count; i++) {
+        long[] container = containers.get(i);
+        starts[i] = container[0];
+        ends[i] = container[1];
+        checkpointFrom[i + 1] = checkpointFrom[i] + container.length - 2;
+      }
+
+      long[] checkpoints = new long[checkpointFrom[count]];
+      for (int i = 0; i < count; i++) {
+        long[] container = containers.get(i);
+        int length = checkpointFrom[i + 1] - checkpointFrom[i];
+        System.arraycopy(container, 2, checkpoints, checkpointFrom[i], length);
+      }
+
+      return new JSONFileIndex(
+          source,
+          size,
+          lastModified,
+          minContainerSize,
+          interval,
+          starts,
+          ends,
+          checkpointFrom,
+          checkpoints);
+    }
+  }
+
+  /** Growable array of long values. */
+  private static final class LongList {
+    private long[] values = new long[8];
+    private int size = 0;
+
+    private void add(long value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    private void clear() {
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json;
+
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONOffHeapDocument;
+import com.github.tnakamot.json.value.JSONValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Snapshots of parsed JSON text files, which can be reopened without parsing the JSON texts again.
+ *
+ * <p>A snapshot file holds a {@link JSONOffHeapDocument} of the parsed JSON text together with
+ * the size, the last modified time and the SHA-256 hash of the source JSON text file. {@link
+ * #load(File, File)} memory-maps the snapshot file if it is still valid for the source file, so
+ * reopening a large JSON text file takes almost no time and no heap. Otherwise, it parses the
+ * source file and rebuilds the snapshot file automatically.
+ *
+ * <pre>
+ * File source = new File("static.json");
+ * File snapshot = new File("static.json.snapshot");
+ * JSONValueObject root = (JSONValueObject) JSONSnapshot.load(source, snapshot).root();
+ * </pre>
+ *
+ * <p>The snapshot file is replaced atomically if the file system supports it, so multiple
+ * processes can load the same snapshot file concurrently. Because the snapshot file is
+ * memory-mapped, it must not be modified by other means while it is in use.
+ *
+ * <p>Like {@link JSONOffHeapDocument}, a snapshot can hold a document of up to 2 GiB.
+ */
+public final class JSONSnapshot {
+  private static final byte[] MAGIC = {'J', 'S', 'N', 'P'};
+  private static final int VERSION = 1;
+  private static final int HASH_SIZE = 32;
+
+  /** Size of the header, which is followed by the document. */
+  private static final int HEADER_SIZE = 64;
+
+  private JSONSnapshot() {}
+
+  /**
+   * Load the snapshot of the given JSON text file. If the snapshot file does not exist, or the
+   * size or the last modified time of the source file has changed since the snapshot was taken,
+   * the source file is parsed and the snapshot file is rebuilt.
+   *
+   * @param source JSON text file
+   * @param snapshot snapshot file of the JSON text file
+   * @return the document of the JSON text file
+   * @throws IOException if an I/O error occurs
+   * @throws JSONParserException if the snapshot is rebuilt and the source JSON text is invalid
+   */
+  @NotNull
+  public static JSONOffHeapDocument load(@NotNull File source, @NotNull File snapshot)
+      throws IOException, JSONParserException {
+    return load(source, snapshot, false);
+  }
+
+  /**
+   * Load the snapshot of the given JSON text file. If the snapshot file does not exist, or the
+   * size or the last modified time of the source file has changed since the snapshot was taken,
+   * the source file is parsed and the snapshot file is rebuilt.
+   *
+   * <p>If verifyContent is true, the hash of the content of the source file is also compared with
+   * the one in the snapshot file. This detects modifications which keep the size and the last
+   * modified time, at the cost of reading the whole source file, which is still much faster than
+   * parsing it.
+   *
+   * @param source JSON text file
+   * @param snapshot snapshot file of the JSON text file
+   * @param verifyContent true to verify the hash of the content of the source file
+   * @return the document of the JSON text file
+   * @throws IOException if an I/O error occurs
+   * @throws JSONParserException if the snapshot is rebuilt and the source JSON text is invalid
+   */
+  @NotNull
+  public static JSONOffHeapDocument load(
+      @NotNull File source, @NotNull File snapshot, boolean verifyContent)
+      throws IOException, JSONParserException {
+    if (source == null) {
+      throw new NullPointerException("source cannot be null");
+    } else if (snapshot == null) {
+      throw new NullPointerException("snapshot cannot be null");
+    }
+
+    Path sourcePath = source.toPath();
+    long size = Files.size(sourcePath);
+    long lastModified = Files.getLastModifiedTime(sourcePath).toMillis();
+
+    JSONOffHeapDocument document =
+        open(snapshot.toPath(), sourcePath, size, lastModified, verifyContent);
+    if (document != null) {
+      return document;
+    }
+
+    return rebuild(source, snapshot.toPath(), size, lastModified);
+  }
+
+  /** Map the snapshot file, or return null if it does not exist or is stale. */
+  @Nullable
+  private static JSONOffHeapDocument open(
+      @NotNull Path snapshot,
+      @NotNull Path source,
+      long size,
+      long lastModified,
+      boolean verifyContent)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      while (header.hasRemaining()) {
+        if (channel.read(header) < 0) {
+          return null;
+        }
+      }
+      header.flip();
+
+      byte[] magic = new byte[MAGIC.length];
+      header.get(magic);
+      if (!Arrays.equals(magic, MAGIC)
+          || header.getInt() != VERSION
+          || header.getLong() != size
+          || header.getLong() != lastModified) {
+        return null;
+      }
+
+      byte[] hash = new byte[HASH_SIZE];
+      header.get(hash);
+      int documentSize = header.getInt();
+      if (channel.size() != (long) HEADER_SIZE + documentSize) {
+        return null;
+      }
+      if (verifyContent && !Arrays.equals(hash, sha256(source))) {
+        return null;
+      }
+
+      MappedByteBuffer mapped =
+          channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, documentSize);
+      return JSONOffHeapDocument.wrap(mapped);
+    } catch (NoSuchFileException ex) {
+      return null;
+    }
+  }
+
+  @NotNull
+  private static JSONOffHeapDocument rebuild(
+      @NotNull File source, @NotNull Path snapshot, long size, long lastModified)
+      throws IOException, JSONParserException {
+    byte[] hash = sha256(source.toPath());
+    JSONValue root = JSONText.fromFile(source).parse().root();
+    JSONOffHeapDocument document = JSONOffHeapDocument.of(root);
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.put(MAGIC);
+    header.putInt(VERSION);
+    header.putLong(size);
+    header.putLong(lastModified);
+    header.put(hash);
+    header.putInt(document.byteSize());
+    header.clear();
+
+    Path directory = snapshot.toAbsolutePath().getParent();
+    Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        while (header.hasRemaining()) {
+          channel.write(header);
+        }
+        document.writeTo(channel);
+        channel.force(true);
+      }
+
+      try {
+        Files.move(
+            temporary,
+            snapshot,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException ex) {
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+
+    return document;
+  }
+
+  @NotNull
+  private static byte[] sha256(@NotNull Path file) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 is not supported", ex); // required by Java SE
+    }
+
+    byte[] buf = new byte[64 * 1024];
+    try (InputStream in = Files.newInputStream(file)) {
+      int n;
+      while ((n = in.read(buf)) >= 0) {
+        digest.update(buf, 0, n);
+      }
+    }
+    return digest.digest();
+  }
+}
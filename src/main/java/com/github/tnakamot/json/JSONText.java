@@ -23,8 +23,10 @@ import com.github.tnakamot.json.parser.JSONParserException;
 import com.github.tnakamot.json.parser.JSONParserResult;
 import com.github.tnakamot.json.pointer.InvalidJSONPointerException;
 import com.github.tnakamot.json.pointer.JSONPointer;
+import com.github.tnakamot.json.pointer.JSONPointerIndex;
 import com.github.tnakamot.json.token.JSONToken;
 import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueInterner;
 
 import java.io.File;
 import java.io.IOException;
@@ -34,7 +36,10 @@ import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -48,7 +53,17 @@ public class JSONText {
   private final Object source;
   private final URI sourceURI;
   private final String name;
-  private JSONParserResult parserResult;
+  private volatile JSONParserResult parserResult;
+  private volatile JSONPointerIndex pointerIndex;
+
+  /** Offsets of the first characters of the lines. Built on demand by {@link #line(int)}. */
+  private volatile int[] lineStarts;
+
+  /** Maximum number of the results which {@link #evaluate(String)} remembers. */
+  private static final int EVALUATED_CACHE_SIZE = 256;
+
+  /** Recently evaluated JSON Pointers and their results in access order. */
+  private final Map<String, JSONValue> evaluated;
 
   private JSONText(
       @NotNull String text, @NotNull Object source, @NotNull URI sourceURI, @NotNull String name) {
@@ -58,6 +73,15 @@ public class JSONText {
     this.name = name;
 
     this.parserResult = null;
+    this.pointerIndex = null;
+    this.lineStarts = null;
+    this.evaluated =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, JSONValue> eldest) {
+            return size() > EVALUATED_CACHE_SIZE;
+          }
+        };
 
     if (!((source instanceof File) || (source instanceof URL) || (source instanceof String))) {
       throw new IllegalArgumentException("source must be File, URL or String");
@@ -74,6 +98,61 @@ public class JSONText {
     return text;
   }
 
+  /**
+   * Returns the content of the given line of this JSON text without the line terminator. CR, LF
+   * and CR LF are regarded as line terminators.
+   *
+   * <p>The offsets of the lines are computed once when this method is called for the first time,
+   * and reused afterwards. This method is used to show the lines in error messages and warnings.
+   *
+   * @param line line number starting from one
+   * @return the content of the line
+   * @throws IndexOutOfBoundsException if the line does not exist
+   */
+  @NotNull
+  public String line(int line) {
+    int[] starts = lineStarts();
+    if (line < 1 || line > starts.length) {
+      throw new IndexOutOfBoundsException("line " + line + " does not exist");
+    }
+
+    int begin = starts[line - 1];
+    int end;
+    if (line == starts.length) {
+      end = text.length();
+    } else {
+      end = starts[line] - 1;
+      if (end > begin && text.charAt(end) == '\n' && text.charAt(end - 1) == '\r') {
+        end--;
+      }
+    }
+    return text.substring(begin, end);
+  }
+
+  @NotNull
+  private int[] lineStarts() {
+    int[] starts = lineStarts;
+    if (starts == null) {
+      int count = 1;
+      int[] found = new int[16];
+      for (int i = 0; i < text.length(); i++) {
+        char ch = text.charAt(i);
+        if (ch == '\r' || ch == '\n') {
+          if (ch == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+            i++;
+          }
+          if (count == found.length) {
+            found = Arrays.copyOf(found, count * 2);
+          }
+          found[count++] = i + 1;
+        }
+      }
+      starts = Arrays.copyOf(found, count);
+      lineStarts = starts;
+    }
+    return starts;
+  }
+
   /**
    * Return the object which represents the source of this JSON text.
    *
@@ -148,9 +227,32 @@ public class JSONText {
   @NotNull
   public synchronized JSONParserResult parse(@NotNull JSONParserErrorHandlingOptions options)
       throws IOException, JSONParserException {
+    return parse(options, null);
+  }
+
+  /**
+   * Parse this JSON text and intern the parsed values with the given interner.
+   *
+   * <p>The returned instance is immutable. Equal strings, numbers, JSON arrays and JSON objects in
+   * the parse result share one instance, also with the values which the interner has seen before.
+   * See {@link JSONValueInterner} for more details.
+   *
+   * <p>If this JSON text has been parsed already, the previous result is returned as it is.
+   *
+   * @param options parser options
+   * @param interner interner of the parsed values. Null not to intern them.
+   * @return parse result
+   * @throws JSONParserException if there is a syntax error in the JSON text
+   * @throws IOException if an I/O error occurs
+   * @see <a href="https://tools.ietf.org/html/rfc8259#section-2">RFC 8259 - 2. JSON Grammer</a>
+   */
+  @NotNull
+  public synchronized JSONParserResult parse(
+      @NotNull JSONParserErrorHandlingOptions options, @Nullable JSONValueInterner interner)
+      throws IOException, JSONParserException {
     if (parserResult == null) {
       List<JSONToken> tokens = tokens(options);
-      JSONParser parser = new JSONParser(tokens, options);
+      JSONParser parser = new JSONParser(tokens, options, interner);
       parserResult = parser.parse();
     }
 
@@ -185,6 +287,33 @@ public class JSONText {
     return parserResult != null;
   }
 
+  /**
+   * Returns the index of all the JSON values in this JSON text by their JSON Pointers. The index is
+   * built when this method is called for the first time.
+   *
+   * <p>Once the index is built, {@link #evaluate(String)} looks up the index first. Build the index
+   * if many JSON Pointers are evaluated against this JSON text.
+   *
+   * <p>{@link #parse()} (or its variant) must be successfully called before this method.
+   *
+   * @return the index of all the JSON values in this JSON text
+   * @throws IllegalStateException if this JSON text has not been parsed yet, or has no JSON value
+   */
+  @NotNull
+  public JSONPointerIndex pointerIndex() {
+    JSONPointerIndex index = pointerIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = pointerIndex;
+        if (index == null) {
+          index = new JSONPointerIndex(root());
+          pointerIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
   /**
    * Evaluate the given JSON Pointer and return the found JSON value.
    *
@@ -193,13 +322,16 @@ public class JSONText {
    * <p>Note that this method results in {@link InvalidJSONPointerException} if this JSON text does
    * not have any JSON value.
    *
+   * <p>This method remembers the results of recently evaluated JSON Pointers, and uses {@link
+   * #pointerIndex()} if it has been built, so evaluating the same JSON Pointer repeatedly is cheap.
+   *
    * @param pointer a string representation of a JSON Pointer
    * @return the JSON value of the pointer evaluation result
    * @throws InvalidJSONPointerException when the JSON Pointer has an error
    * @throws IllegalStateException if this JSON text has not been parsed yet
    */
   @NotNull
-  public synchronized JSONValue evaluate(@NotNull String pointer)
+  public JSONValue evaluate(@NotNull String pointer)
       throws InvalidJSONPointerException {
     // TODO: judge the content type and set 'fragment' argument accordingly
     return evaluate(pointer, false);
@@ -221,9 +353,32 @@ public class JSONText {
    * @throws IllegalStateException if this JSON text has not been parsed yet
    */
   @NotNull
-  public synchronized JSONValue evaluate(@NotNull String pointer, boolean fragment)
+  public JSONValue evaluate(@NotNull String pointer, boolean fragment)
       throws InvalidJSONPointerException {
-    return evaluate(new JSONPointer(pointer, fragment));
+    JSONValue root = root();
+    if (fragment) {
+      return JSONPointer.of(pointer, true).evaluate(root);
+    }
+
+    JSONPointerIndex index = pointerIndex;
+    if (index != null) {
+      JSONValue value = index.get(pointer);
+      if (value != null) {
+        return value;
+      }
+    }
+
+    JSONValue value;
+    synchronized (evaluated) {
+      value = evaluated.get(pointer);
+    }
+    if (value == null) {
+      value = JSONPointer.of(pointer).evaluate(root);
+      synchronized (evaluated) {
+        evaluated.put(pointer, value);
+      }
+    }
+    return value;
   }
 
   /**
@@ -240,19 +395,23 @@ public class JSONText {
    * @throws IllegalStateException if this JSON text has not been parsed yet
    */
   @NotNull
-  public synchronized JSONValue evaluate(@NotNull JSONPointer pointer)
-      throws InvalidJSONPointerException {
-    if (parserResult == null) {
+  public JSONValue evaluate(@NotNull JSONPointer pointer) throws InvalidJSONPointerException {
+    return pointer.evaluate(root());
+  }
+
+  @NotNull
+  private JSONValue root() {
+    JSONParserResult result = parserResult;
+    if (result == null) {
       throw new IllegalStateException(
           "JSON text needs to be parsed first before evaluating a JSON Pointer");
     }
 
-    JSONValue root = parserResult.root();
+    JSONValue root = result.root();
     if (root == null) {
       throw new IllegalStateException("This JSON text has no JSON value");
     }
-
-    return pointer.evaluate(root);
+    return root;
   }
 
   @Override
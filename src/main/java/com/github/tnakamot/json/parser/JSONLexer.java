@@ -37,6 +37,7 @@ public final class JSONLexer {
   private final JSONText source;
   private final JSONParserErrorHandlingOptions options;
   private final PushbackReader reader;
+  private final JSONDecimal.Scanner numberScanner = new JSONDecimal.Scanner();
 
   StringLocation location;
   private boolean readCrLf = false;
@@ -334,6 +335,8 @@ public final class JSONLexer {
     StringLocation originalLocation = location;
     StringBuilder tokenText = new StringBuilder();
     JSONNumberParserStage stage = JSONNumberParserStage.MINUS;
+    JSONDecimal.Scanner scanner = numberScanner;
+    scanner.reset();
 
     boolean negative = false;
     boolean intStartsWithZero = false;
@@ -367,6 +370,7 @@ public final class JSONLexer {
             ch = readChar();
             tokenText.append(ch);
             negative = true;
+            scanner.negative();
           }
 
           if (ch == '0') {
@@ -375,10 +379,12 @@ public final class JSONLexer {
             stage = JSONNumberParserStage.INT;
             numberOfDigitsInInt += 1;
             intStartsWithZero = true;
+            scanner.integerDigit(ch);
           } else if ('1' <= ch && ch <= '9') {
             stage = JSONNumberParserStage.INT;
             numberOfDigitsInInt += 1;
             intStartsWithZero = false;
+            scanner.integerDigit(ch);
           } else {
             if (negative) {
               throw new JSONParserException(
@@ -398,6 +404,7 @@ public final class JSONLexer {
         case INT:
           if ((!intStartsWithZero) && '0' <= ch && ch <= '9') {
             numberOfDigitsInInt += 1;
+            scanner.integerDigit(ch);
           } else if (ch == '.') {
             stage = JSONNumberParserStage.FRACTION;
           } else if (ch == 'e' || ch == 'E') {
@@ -411,14 +418,15 @@ public final class JSONLexer {
         case FRACTION:
           if ('0' <= ch && ch <= '9') {
             numberOfDigitsInFraction += 1;
-          } else if (ch == 'e' || ch == 'E') {
-            stage = JSONNumberParserStage.EXP;
+            scanner.fractionDigit(ch);
           } else if (numberOfDigitsInFraction == 0) {
             throw new JSONParserException(
                 source,
                 location.previous(),
                 options,
                 "there must be a digit (0-9) right after decimal point '.'");
+          } else if (ch == 'e' || ch == 'E') {
+            stage = JSONNumberParserStage.EXP;
           } else {
             pushBack(ch);
             tokenText.deleteCharAt(tokenText.length() - 1);
@@ -426,10 +434,12 @@ public final class JSONLexer {
           }
           break;
         case EXP:
-          if (ch == '+' || ch == '-') {
+          if ((ch == '+' || ch == '-') && !expStartsWithSign && numberOfDigitsInExp == 0) {
             expStartsWithSign = true;
+            scanner.exponentSign(ch);
           } else if ('0' <= ch && ch <= '9') {
             numberOfDigitsInExp += 1;
+            scanner.exponentDigit(ch);
           } else if (numberOfDigitsInExp == 0) {
             if (expStartsWithSign) {
               throw new JSONParserException(
@@ -455,8 +465,10 @@ public final class JSONLexer {
       }
     }
 
+    String text = tokenText.toString();
     return new JSONTokenNumber(
-        tokenText.toString(),
+        text,
+        scanner.toDecimal(text),
         originalLocation,
         Objects.requireNonNull(location.previous()),
         source);
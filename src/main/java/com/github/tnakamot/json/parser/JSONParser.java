@@ -23,6 +23,7 @@ import com.github.tnakamot.json.value.*;
 import java.io.PrintStream;
 import java.util.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import static com.github.tnakamot.json.token.JSONToken.*;
 
@@ -38,6 +39,7 @@ import static com.github.tnakamot.json.token.JSONToken.*;
 public final class JSONParser {
   private final List<JSONToken> tokens;
   private final JSONParserErrorHandlingOptions options;
+  private final JSONValueInterner interner;
   private int position;
   private boolean parsed;
 
@@ -64,6 +66,24 @@ public final class JSONParser {
    * @param options settings of error message format of {@link JSONParserException}
    */
   public JSONParser(List<JSONToken> tokens, JSONParserErrorHandlingOptions options) {
+    this(tokens, options, null);
+  }
+
+  /**
+   * Create an instance of JSON parse for the given sequence of JSON tokens which interns the parsed
+   * values with the given interner.
+   *
+   * <p>When an interner is given, equal strings, numbers and immutable JSON arrays and objects in
+   * the parse result share one instance. See {@link JSONValueInterner} for more details.
+   *
+   * @param tokens a sequence of JSON tokens to parse
+   * @param options settings of error message format of {@link JSONParserException}
+   * @param interner interner of the parsed values. Null not to intern them.
+   */
+  public JSONParser(
+      List<JSONToken> tokens,
+      JSONParserErrorHandlingOptions options,
+      @Nullable JSONValueInterner interner) {
     if (tokens == null) {
       throw new NullPointerException("tokens cannot be null");
     } else if (options == null) {
@@ -72,6 +92,7 @@ public final class JSONParser {
 
     this.tokens = new ArrayList<>(tokens);
     this.options = options;
+    this.interner = interner;
     this.position = 0;
     this.duplicateKeys = new LinkedList<>();
     this.numbersTooBigForDouble = new LinkedList<>();
@@ -129,7 +150,7 @@ public final class JSONParser {
     }
   }
 
-  private String warningLineAndLocation(String[] lines, StringRange range) {
+  private String warningLineAndLocation(JSONText source, StringRange range) {
     // The code below assumes the line number of the beginning of the
     // JSON string token is the same as that of the end. This is true,
     // because RFC 8259 does not allow you to include control characters
@@ -147,7 +168,7 @@ public final class JSONParser {
         .append(end.column())
         .append(System.lineSeparator());
 
-    sb.append("    ").append(lines[begin.line() - 1]).append(System.lineSeparator());
+    sb.append("    ").append(source.line(begin.line())).append(System.lineSeparator());
 
     sb.append("    ").append(" ".repeat(begin.column() - 1));
     sb.append("^".repeat(end.column() - begin.column() + 1));
@@ -159,7 +180,6 @@ public final class JSONParser {
   private String warningOfTooBigNumbersForDouble() {
     StringBuilder sb = new StringBuilder();
     JSONText source = tokens.get(0).source();
-    String[] lines = source.get().split("\r|(\r?\n)");
 
     for (JSONValueNumber num : numbersTooBigForDouble) {
       sb.append(warningHeader());
@@ -167,7 +187,7 @@ public final class JSONParser {
 
       JSONToken token = num.token();
       if (token != null) {
-        sb.append(warningLineAndLocation(lines, token.range()));
+        sb.append(warningLineAndLocation(source, token.range()));
       }
     }
 
@@ -177,7 +197,6 @@ public final class JSONParser {
   private String warningOfDuplicateKeys() {
     StringBuilder sb = new StringBuilder();
     JSONText source = tokens.get(0).source();
-    String[] lines = source.get().split("\r|(\r?\n)");
 
     for (List<JSONValueString> dup : duplicateKeys) {
       sb.append(warningHeader());
@@ -187,7 +206,7 @@ public final class JSONParser {
       for (JSONValueString key : dup) {
         JSONToken token = key.token();
         if (token != null) {
-          sb.append(warningLineAndLocation(lines, token.range()));
+          sb.append(warningLineAndLocation(source, token.range()));
         }
       }
     }
@@ -237,6 +256,11 @@ public final class JSONParser {
         token.source(), token.beginningLocation(), token.endLocation(), options, msg);
   }
 
+  private <T extends JSONValue> T intern(T value) {
+    // The elements and members have been interned when they were parsed.
+    return interner == null ? value : interner.internShallow(value);
+  }
+
   private JSONValue readValue(boolean immutable) throws JSONParserException {
     try {
       JSONToken token = popToken();
@@ -247,25 +271,23 @@ public final class JSONParser {
         case BEGIN_OBJECT:
           return readObject(immutable, token);
         case NULL:
-          return new JSONValueNull(token);
+          return intern(new JSONValueNull(token));
         case BOOLEAN:
-          return new JSONValueBoolean((JSONTokenBoolean) token);
+          return intern(new JSONValueBoolean((JSONTokenBoolean) token));
         case NUMBER:
           JSONValueNumber number = new JSONValueNumber((JSONTokenNumber) token);
-          if (number.toDouble() < (double) (-9007199254740991L)
-              || number.toDouble() > (double) (9007199254740991L)) {
+          double d = number.toDouble();
+          if (d < (double) (-9007199254740991L) || d > (double) (9007199254740991L)) {
             if (options.failOnTooBigNumber()) {
               String msg = "'" + token.text() + "' is not in the range [-(2^53)+1, 2^53-1]";
               throw new JSONParserException(token.source(), token.range(), options, msg);
             } else {
               numbersTooBigForDouble.add(number);
-              return new JSONValueNumber((JSONTokenNumber) token);
             }
-          } else {
-            return new JSONValueNumber((JSONTokenNumber) token);
           }
+          return intern(number);
         case STRING:
-          return new JSONValueString((JSONTokenString) token);
+          return intern(new JSONValueString((JSONTokenString) token));
         default:
           unexpectedToken(token, valueToken);
       }
@@ -287,7 +309,7 @@ public final class JSONParser {
         case END_ARRAY:
           // an empty array
           if (immutable) {
-            return array.toImmutable(begin, token);
+            return intern(array.toImmutable(begin, token));
           } else {
             return array;
           }
@@ -315,7 +337,7 @@ public final class JSONParser {
         switch (token.type()) {
           case END_ARRAY:
             if (immutable) {
-              return array.toImmutable(begin, token);
+              return intern(array.toImmutable(begin, token));
             } else {
               return array;
             }
@@ -395,14 +417,14 @@ public final class JSONParser {
         case END_OBJECT:
           // empty object
           if (immutable) {
-            return object.toImmutable(begin, token);
+            return intern(object.toImmutable(begin, token));
           } else {
             return object;
           }
         case STRING:
           pushBack();
           Map.Entry<JSONValueString, JSONValue> member = readMember(immutable);
-          object.put(member.getKey(), member.getValue());
+          object.put(intern(member.getKey()), member.getValue());
 
           LinkedList<JSONValueString> dup = new LinkedList<>();
           dup.add(member.getKey());
@@ -429,7 +451,7 @@ public final class JSONParser {
             }
 
             if (immutable) {
-              return object.toImmutable(begin, token);
+              return intern(object.toImmutable(begin, token));
             } else {
               return object;
             }
@@ -445,10 +467,10 @@ public final class JSONParser {
                     token.source(), member.getKey().token().range(), options, msg);
               } else {
                 duplicates.get(member.getKey().value()).add(member.getKey());
-                object.put(member.getKey(), member.getValue());
+                object.put(intern(member.getKey()), member.getValue());
               }
             } else {
-              object.put(member.getKey(), member.getValue());
+              object.put(intern(member.getKey()), member.getValue());
 
               LinkedList<JSONValueString> dup = new LinkedList<>();
               dup.add(member.getKey());
@@ -39,6 +39,7 @@ import org.jetbrains.annotations.Nullable;
  *         .failOnDuplicateKey(false)
  *         .failOnTooBigNumber(false)
  *         .warningStream(System.err)
+ *         .captureStackTrace(true)
  *         .build();
  * </pre>
  *
@@ -55,6 +56,7 @@ public class JSONParserErrorHandlingOptions {
   private final boolean failOnDuplicateKey;
   private final boolean failOnTooBigNumber;
   private final PrintStream warningStream;
+  private final boolean captureStackTrace;
 
   private JSONParserErrorHandlingOptions(
       boolean showURI,
@@ -62,13 +64,15 @@ public class JSONParserErrorHandlingOptions {
       boolean showErrorLine,
       boolean failOnDuplicateKey,
       boolean failOnTooBigNumber,
-      @Nullable PrintStream warningStream) {
+      @Nullable PrintStream warningStream,
+      boolean captureStackTrace) {
     this.showURI = showURI;
     this.showLineAndColumnNumber = showLineAndColumnNumber;
     this.showErrorLine = showErrorLine;
     this.failOnDuplicateKey = failOnDuplicateKey;
     this.failOnTooBigNumber = failOnTooBigNumber;
     this.warningStream = warningStream;
+    this.captureStackTrace = captureStackTrace;
   }
 
   /**
@@ -139,6 +143,19 @@ public class JSONParserErrorHandlingOptions {
     return warningStream;
   }
 
+  /**
+   * Returns whether {@link JSONParserException} should capture the stack trace when it is thrown.
+   *
+   * <p>Capturing the stack trace is the most expensive part of throwing an exception. Turn this
+   * option off if JSON texts are often expected to be invalid (e.g. when only checking whether the
+   * texts are valid) and the stack traces are not needed.
+   *
+   * @return whether {@link JSONParserException} should capture the stack trace
+   */
+  public boolean captureStackTrace() {
+    return captureStackTrace;
+  }
+
   /**
    * Returns a new builder of this class.
    *
@@ -156,6 +173,7 @@ public class JSONParserErrorHandlingOptions {
     private boolean failOnDuplicateKey = false;
     private boolean failOnTooBigNumber = false;
     private PrintStream warningStream = System.err;
+    private boolean captureStackTrace = true;
 
     private Builder() {}
 
@@ -225,6 +243,17 @@ public class JSONParserErrorHandlingOptions {
       return this;
     }
 
+    /**
+     * Set {@link #captureStackTrace()} option.
+     *
+     * @param b option value
+     * @return this builder
+     */
+    public Builder captureStackTrace(boolean b) {
+      this.captureStackTrace = b;
+      return this;
+    }
+
     /**
      * Build a new instance of {@link JSONParserErrorHandlingOptions}.
      *
@@ -237,7 +266,8 @@ public class JSONParserErrorHandlingOptions {
           showErrorLine,
           failOnDuplicateKey,
           failOnTooBigNumber,
-          warningStream);
+          warningStream,
+          captureStackTrace);
     }
   }
 }
@@ -83,12 +83,17 @@ import org.jetbrains.annotations.Nullable;
  * "key": My name is JSON
  *        ^
  * </pre>
+ *
+ * <p>The error message is formatted when {@link #getMessage()} is called for the first time. If
+ * {@link JSONParserErrorHandlingOptions#captureStackTrace()} is false, the exception does not have
+ * the stack trace, which makes throwing it much cheaper.
  */
 public class JSONParserException extends Exception {
   private final String msg;
   private final JSONText source;
   private final StringRange location;
   private final JSONParserErrorHandlingOptions options;
+  private String formatted;
 
   /**
    * Instantiate this exception.
@@ -103,7 +108,7 @@ public class JSONParserException extends Exception {
       @Nullable StringRange location,
       @NotNull JSONParserErrorHandlingOptions options,
       @NotNull String msg) {
-    super(msg);
+    super(msg, null, true, options == null || options.captureStackTrace());
     this.msg = msg;
     this.source = source;
     this.location = location;
@@ -125,7 +130,7 @@ public class JSONParserException extends Exception {
       @Nullable StringLocation end,
       @NotNull JSONParserErrorHandlingOptions options,
       @NotNull String msg) {
-    super(msg);
+    super(msg, null, true, options == null || options.captureStackTrace());
     this.msg = msg;
     this.source = source;
     this.location = (begin == null || end == null) ? null : new StringRange(begin, end);
@@ -145,7 +150,7 @@ public class JSONParserException extends Exception {
       @Nullable StringLocation location,
       @NotNull JSONParserErrorHandlingOptions options,
       @NotNull String msg) {
-    super(msg);
+    super(msg, null, true, options == null || options.captureStackTrace());
     this.msg = msg;
     this.source = source;
     this.location = location == null ? null : new StringRange(location, location);
@@ -170,6 +175,16 @@ public class JSONParserException extends Exception {
 
   @Override
   public String getMessage() {
+    // Formatting is deterministic, so a race only formats the same message twice.
+    String message = formatted;
+    if (message == null) {
+      message = format();
+      formatted = message;
+    }
+    return message;
+  }
+
+  private String format() {
     StringBuilder sb = new StringBuilder();
     if (options.showURI()) {
       sb.append(source.uri().toString());
@@ -192,9 +207,8 @@ public class JSONParserException extends Exception {
       sb.append(msg);
 
       if (options.showErrorLine()) {
-        String[] lines = source.get().split("\r|(\r?\n)");
         if (location.beginning().line() == location.end().line()) {
-          String line = lines[location.beginning().line() - 1];
+          String line = source.line(location.beginning().line());
           sb.append(System.lineSeparator());
           sb.append(line);
           sb.append(System.lineSeparator());
@@ -205,7 +219,7 @@ public class JSONParserException extends Exception {
               lineNum < location.end().line();
               lineNum++) {
             sb.append(System.lineSeparator());
-            sb.append(lines[lineNum]);
+            sb.append(source.line(lineNum + 1));
           }
         }
       }
@@ -0,0 +1,542 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.patch;
+
+import com.github.tnakamot.json.pointer.InvalidJSONPointerNotIndexException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerSyntaxException;
+import com.github.tnakamot.json.pointer.JSONPointer;
+import com.github.tnakamot.json.pointer.JSONPointerReferenceToken;
+import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueArray;
+import com.github.tnakamot.json.value.JSONValueArrayImmutable;
+import com.github.tnakamot.json.value.JSONValueArrayMutable;
+import com.github.tnakamot.json.value.JSONValueObject;
+import com.github.tnakamot.json.value.JSONValueObjectImmutable;
+import com.github.tnakamot.json.value.JSONValueObjectMutable;
+import com.github.tnakamot.json.value.JSONValueObjectOffHeap;
+import com.github.tnakamot.json.value.JSONValueString;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compiled JSON Patch (<a href="https://tools.ietf.org/html/rfc6902">RFC 6902</a>).
+ *
+ * <p>{@link #compile(JSONValue)} validates a JSON Patch document and compiles the JSON Pointers in
+ * it once, so that the same patch can be applied to many JSON documents without parsing the
+ * document again:
+ *
+ * <pre>
+ * JSONPatch patch = JSONPatch.compile(JSONText.fromString(
+ *     "[{\"op\": \"replace\", \"path\": \"/a/b\", \"value\": 1}]").parse().root());
+ * JSONValue patched = patch.apply(root);
+ * </pre>
+ *
+ * <p>{@link #apply(JSONValue)} does not modify the given JSON document. The JSON arrays and objects
+ * on the paths to the modified values are copied, and the rest of the document is shared with the
+ * result. {@link #applyInPlace(JSONValue)} modifies mutable JSON arrays and objects of the given
+ * JSON document directly.
+ *
+ * <p>Consecutive operations whose paths share the same prefix are applied in one walk. The JSON
+ * arrays and objects on the shared prefix are looked up, and copied if they are immutable, only
+ * once for them.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ */
+public final class JSONPatch {
+  enum Type {
+    ADD("add"),
+    REMOVE("remove"),
+    REPLACE("replace"),
+    MOVE("move"),
+    COPY("copy"),
+    TEST("test");
+
+    private final String name;
+
+    Type(String name) {
+      this.name = name;
+    }
+
+    static Type of(String name) {
+      for (Type type : values()) {
+        if (type.name.equals(name)) {
+          return type;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** One operation of a JSON Patch. */
+  static final class Operation {
+    final int position;
+    final Type type;
+    final JSONPointer path;
+    final JSONPointer from;
+    final JSONValue value;
+
+    Operation(int position, Type type, JSONPointer path, JSONPointer from, JSONValue value) {
+      this.position = position;
+      this.type = type;
+      this.path = path;
+      this.from = from;
+      this.value = value;
+    }
+  }
+
+  private static final String END_OF_ARRAY = "-";
+
+  private final Operation[] operations;
+
+  private JSONPatch(Operation[] operations) {
+    this.operations = operations;
+  }
+
+  /**
+   * Validate and compile the given JSON Patch document.
+   *
+   * <p>Members of an operation which are not defined for the operation are ignored as described in
+   * RFC 6902. The given JSON Patch document can be modified after this call without affecting the
+   * returned JSON Patch.
+   *
+   * @param document JSON Patch document, which must be a JSON array of operations
+   * @return the compiled JSON Patch
+   * @throws JSONPatchException if the given JSON Patch document is invalid
+   */
+  @NotNull
+  public static JSONPatch compile(@NotNull JSONValue document) throws JSONPatchException {
+    if (document == null) {
+      throw new NullPointerException("document cannot be null");
+    } else if (!(document instanceof JSONValueArray)) {
+      throw new JSONPatchException("A JSON Patch document must be a JSON array.", -1);
+    }
+
+    JSONValueArray array = (JSONValueArray) document;
+    Operation[] operations = new Operation[array.size()];
+    for (int i = 0; i < operations.length; i++) {
+      operations[i] = compile(array.get(i), i);
+    }
+    return new JSONPatch(operations);
+  }
+
+  private static Operation compile(JSONValue value, int position) throws JSONPatchException {
+    if (!(value instanceof JSONValueObject)) {
+      throw new JSONPatchException("An operation must be a JSON object.", position);
+    }
+
+    JSONValueObject obj = (JSONValueObject) value;
+    JSONValue op = obj.get("op");
+    if (!(op instanceof JSONValueString)) {
+      throw new JSONPatchException("An operation must have a string member 'op'.", position);
+    }
+    String name = ((JSONValueString) op).value();
+    Type type = Type.of(name);
+    if (type == null) {
+      throw new JSONPatchException("Unknown operation '" + name + "'.", position);
+    }
+
+    JSONPointer path = pointer(obj, "path", type, position);
+    JSONPointer from = null;
+    JSONValue operand = null;
+    switch (type) {
+      case ADD:
+      case REPLACE:
+      case TEST:
+        operand = obj.get("value");
+        if (operand == null) {
+          throw new JSONPatchException(
+              "The '" + type + "' operation must have a member 'value'.", position);
+        }
+        operand = immutable(operand);
+        break;
+      case MOVE:
+        from = pointer(obj, "from", type, position);
+        if (isProperPrefix(from, path)) {
+          throw new JSONPatchException(
+              "Cannot move '" + from.text() + "' to its child '" + path.text() + "'.", position);
+        }
+        break;
+      case COPY:
+        from = pointer(obj, "from", type, position);
+        break;
+      default:
+        break;
+    }
+
+    return new Operation(position, type, path, from, operand);
+  }
+
+  private static JSONPointer pointer(JSONValueObject obj, String name, Type type, int position)
+      throws JSONPatchException {
+    JSONValue value = obj.get(name);
+    if (!(value instanceof JSONValueString)) {
+      throw new JSONPatchException(
+          "The '" + type + "' operation must have a string member '" + name + "'.", position);
+    }
+
+    try {
+      return JSONPointer.of(((JSONValueString) value).value());
+    } catch (InvalidJSONPointerSyntaxException ex) {
+      throw new JSONPatchException(
+          "The member '" + name + "' is not a valid JSON Pointer. " + ex.getMessage(), position);
+    }
+  }
+
+  private static boolean isProperPrefix(JSONPointer prefix, JSONPointer pointer) {
+    if (prefix.size() >= pointer.size()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.size(); i++) {
+      if (!prefix.token(i).text().equals(pointer.token(i).text())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The number of operations in this JSON Patch.
+   *
+   * @return the number of operations in this JSON Patch
+   */
+  public int size() {
+    return operations.length;
+  }
+
+  /**
+   * Apply this JSON Patch to the given JSON document without modifying it.
+   *
+   * <p>The JSON arrays and objects on the paths to the modified values are copied, and the rest of
+   * the returned JSON document is shared with the given one. If the given JSON document is mutable,
+   * it is first converted to an immutable one, which copies the whole document.
+   *
+   * <p>The application is atomic. If one of the operations fails, the given JSON document is left
+   * as it is.
+   *
+   * @param document root value of the JSON document to apply this JSON Patch to
+   * @return root value of the patched JSON document
+   * @throws JSONPatchException if one of the operations fails
+   */
+  @NotNull
+  public JSONValue apply(@NotNull JSONValue document) throws JSONPatchException {
+    if (document == null) {
+      throw new NullPointerException("document cannot be null");
+    }
+    return run(immutable(document));
+  }
+
+  /**
+   * Apply this JSON Patch to the given JSON document by modifying it.
+   *
+   * <p>Mutable JSON arrays and objects in the given JSON document are modified directly. Immutable
+   * ones on the paths to the modified values are replaced with modified copies. Values added to
+   * mutable JSON arrays and objects are turned to be mutable.
+   *
+   * <p>Unlike {@link #apply(JSONValue)}, the application is not atomic. If one of the operations
+   * fails, the preceding operations remain applied to the given JSON document.
+   *
+   * @param document root value of the JSON document to apply this JSON Patch to
+   * @return root value of the patched JSON document, which is the given one unless an operation
+   *     replaces the whole JSON document or the given one is immutable
+   * @throws JSONPatchException if one of the operations fails
+   */
+  @NotNull
+  public JSONValue applyInPlace(@NotNull JSONValue document) throws JSONPatchException {
+    if (document == null) {
+      throw new NullPointerException("document cannot be null");
+    }
+    return run(document);
+  }
+
+  private JSONValue run(JSONValue root) throws JSONPatchException {
+    int begin = 0;
+    for (int i = 0; i < operations.length; i++) {
+      Operation operation = operations[i];
+      if (operation.from == null) {
+        continue;
+      }
+
+      // A 'move' or 'copy' operation reads another part of the document, so the operations before
+      // it must be applied first. Then it is applied as a 'remove' and an 'add' operation.
+      root = apply(root, operations, begin, i, 0);
+      JSONValue value = lookup(root, operation.from, operation);
+      if (operation.type == Type.MOVE) {
+        Operation[] steps = {
+          new Operation(operation.position, Type.REMOVE, operation.from, null, null),
+          new Operation(operation.position, Type.ADD, operation.path, null, value)
+        };
+        root = apply(root, steps, 0, steps.length, 0);
+      } else {
+        Operation[] steps = {
+          new Operation(operation.position, Type.ADD, operation.path, null, immutable(value))
+        };
+        root = apply(root, steps, 0, steps.length, 0);
+      }
+      begin = i + 1;
+    }
+    return apply(root, operations, begin, operations.length, 0);
+  }
+
+  /**
+   * Apply the given range of operations to the given node at the given depth of their paths.
+   *
+   * <p>The operations which target the given node or its direct children are applied one by one.
+   * Consecutive operations which go through the same child are applied to the child recursively in
+   * one go, so the child is looked up and put back only once for them.
+   *
+   * @return the given node if it is modified in place, or a new node
+   */
+  private static JSONValue apply(JSONValue node, Operation[] ops, int begin, int end, int depth)
+      throws JSONPatchException {
+    int i = begin;
+    while (i < end) {
+      Operation op = ops[i];
+      int size = op.path.size();
+      if (size == depth) {
+        node = applyToRoot(node, op);
+        i++;
+        continue;
+      }
+
+      JSONPointerReferenceToken token = op.path.token(depth);
+      if (size == depth + 1) {
+        node = applyToMember(node, token, op);
+        i++;
+        continue;
+      }
+
+      int j = i + 1;
+      while (j < end
+          && ops[j].path.size() > depth + 1
+          && ops[j].path.token(depth).text().equals(token.text())) {
+        j++;
+      }
+
+      JSONValue child = child(node, token, op);
+      JSONValue newChild = apply(child, ops, i, j, depth + 1);
+      if (newChild != child) {
+        node = set(node, token, newChild, op);
+      }
+      i = j;
+    }
+    return node;
+  }
+
+  private static JSONValue applyToRoot(JSONValue root, Operation op) throws JSONPatchException {
+    switch (op.type) {
+      case ADD:
+      case REPLACE:
+        return adopt(root, op.value);
+      case REMOVE:
+        throw new JSONPatchException("Cannot remove the whole JSON document.", op.position);
+      case TEST:
+        test(root, op);
+        return root;
+      default:
+        throw new IllegalStateException("unexpected operation " + op.type);
+    }
+  }
+
+  private static JSONValue applyToMember(
+      JSONValue node, JSONPointerReferenceToken token, Operation op) throws JSONPatchException {
+    if (node instanceof JSONValueObject) {
+      JSONValueObject obj = (JSONValueObject) node;
+      String name = token.name();
+      if (op.type == Type.ADD) {
+        return put(obj, name, op.value);
+      }
+
+      JSONValue current = obj.get(name);
+      if (current == null) {
+        throw notExist(op);
+      }
+      switch (op.type) {
+        case REMOVE:
+          if (obj instanceof JSONValueObjectMutable) {
+            obj.remove(name);
+            return obj;
+          } else {
+            return immutableObject(obj).without(name);
+          }
+        case REPLACE:
+          return put(obj, name, op.value);
+        case TEST:
+          test(current, op);
+          return obj;
+        default:
+          throw new IllegalStateException("unexpected operation " + op.type);
+      }
+    } else if (node instanceof JSONValueArray) {
+      JSONValueArray array = (JSONValueArray) node;
+      if (op.type == Type.ADD) {
+        int index = END_OF_ARRAY.equals(token.text()) ? array.size() : index(token, op);
+        if (index > array.size()) {
+          throw notExist(op);
+        }
+        if (array instanceof JSONValueArrayMutable) {
+          array.add(index, adopt(array, op.value));
+          return array;
+        } else {
+          return ((JSONValueArrayImmutable) array).withAdded(index, op.value);
+        }
+      }
+
+      int index = index(token, op);
+      if (index >= array.size()) {
+        throw notExist(op);
+      }
+      switch (op.type) {
+        case REMOVE:
+          if (array instanceof JSONValueArrayMutable) {
+            array.remove(index);
+            return array;
+          } else {
+            return ((JSONValueArrayImmutable) array).without(index);
+          }
+        case REPLACE:
+          return set(array, token, op.value, op);
+        case TEST:
+          test(array.get(index), op);
+          return array;
+        default:
+          throw new IllegalStateException("unexpected operation " + op.type);
+      }
+    } else {
+      throw notExist(op);
+    }
+  }
+
+  /** Returns the JSON value that the given pointer points to in the given JSON document. */
+  private static JSONValue lookup(JSONValue root, JSONPointer pointer, Operation op)
+      throws JSONPatchException {
+    JSONValue current = root;
+    for (int i = 0; i < pointer.size(); i++) {
+      current = child(current, pointer.token(i), op);
+    }
+    return current;
+  }
+
+  private static JSONValue child(JSONValue node, JSONPointerReferenceToken token, Operation op)
+      throws JSONPatchException {
+    JSONValue child = null;
+    if (node instanceof JSONValueObject) {
+      child = ((JSONValueObject) node).get(token.name());
+    } else if (node instanceof JSONValueArray) {
+      JSONValueArray array = (JSONValueArray) node;
+      int index = END_OF_ARRAY.equals(token.text()) ? -1 : index(token, op);
+      child = index >= 0 && index < array.size() ? array.get(index) : null;
+    }
+
+    if (child == null) {
+      throw new JSONPatchException(
+          "The JSON value '" + token.pointer().text() + "' does not exist.", op.position);
+    }
+    return child;
+  }
+
+  /** Replace the existing child of the given JSON array or object with the given value. */
+  private static JSONValue set(
+      JSONValue node, JSONPointerReferenceToken token, JSONValue value, Operation op)
+      throws JSONPatchException {
+    if (node instanceof JSONValueObject) {
+      return put((JSONValueObject) node, token.name(), value);
+    }
+
+    JSONValueArray array = (JSONValueArray) node;
+    int index = index(token, op);
+    if (array instanceof JSONValueArrayMutable) {
+      array.set(index, adopt(array, value));
+      return array;
+    } else {
+      return ((JSONValueArrayImmutable) array).with(index, value);
+    }
+  }
+
+  private static JSONValue put(JSONValueObject obj, String name, JSONValue value) {
+    if (obj instanceof JSONValueObjectMutable) {
+      obj.put(name, adopt(obj, value));
+      return obj;
+    } else {
+      return immutableObject(obj).with(name, value);
+    }
+  }
+
+  private static int index(JSONPointerReferenceToken token, Operation op)
+      throws JSONPatchException {
+    try {
+      return token.index();
+    } catch (InvalidJSONPointerNotIndexException | NumberFormatException ex) {
+      throw new JSONPatchException(
+          "'" + token.text() + "' in '" + op.path.text() + "' is not an array index.",
+          op.position);
+    }
+  }
+
+  private static void test(JSONValue actual, Operation op) throws JSONPatchException {
+    if (!actual.equals(op.value)) {
+      throw new JSONPatchException(
+          "The JSON value '" + op.path.text() + "' is not " + op.value.toTokenString() + ".",
+          op.position);
+    }
+  }
+
+  private static JSONPatchException notExist(Operation op) {
+    return new JSONPatchException(
+        "The location '" + op.path.text() + "' does not exist.", op.position);
+  }
+
+  /**
+   * Returns the given value in the form to be stored in the given container. Values stored in a
+   * mutable JSON array or object are turned to be mutable so that the tree stays mutable.
+   */
+  private static JSONValue adopt(JSONValue container, JSONValue value) {
+    if (!(container instanceof JSONValueArrayMutable)
+        && !(container instanceof JSONValueObjectMutable)) {
+      return value;
+    } else if (value instanceof JSONValueArrayImmutable) {
+      return ((JSONValueArrayImmutable) value).toMutable();
+    } else if (value instanceof JSONValueObjectImmutable) {
+      return ((JSONValueObjectImmutable) value).toMutable();
+    } else if (value instanceof JSONValueObjectOffHeap) {
+      return ((JSONValueObjectOffHeap) value).toMutable();
+    } else {
+      return value;
+    }
+  }
+
+  private static JSONValue immutable(JSONValue value) {
+    if (value instanceof JSONValueArrayMutable) {
+      return ((JSONValueArrayMutable) value).toImmutable();
+    } else if (value instanceof JSONValueObjectMutable) {
+      return ((JSONValueObjectMutable) value).toImmutable();
+    } else {
+      return value;
+    }
+  }
+
+  private static JSONValueObjectImmutable immutableObject(JSONValueObject obj) {
+    if (obj instanceof JSONValueObjectImmutable) {
+      return (JSONValueObjectImmutable) obj;
+    } else {
+      return ((JSONValueObjectOffHeap) obj).toImmutable();
+    }
+  }
+}
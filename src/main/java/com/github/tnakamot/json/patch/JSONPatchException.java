@@ -0,0 +1,24 @@
+package com.github.tnakamot.json.patch;
+
+/**
+ * Thrown when a JSON Patch document is invalid, or when an operation of a JSON Patch cannot be
+ * applied to a JSON document.
+ */
+public class JSONPatchException extends Exception {
+  private final int operation;
+
+  public JSONPatchException(String msg, int operation) {
+    super(operation < 0 ? msg : "Operation " + operation + ": " + msg);
+    this.operation = operation;
+  }
+
+  /**
+   * Position of the operation which has a problem in the JSON Patch document.
+   *
+   * @return position of the operation which has a problem in the JSON Patch document, or -1 if the
+   *     problem is not specific to one operation
+   */
+  public int operation() {
+    return operation;
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * This package provides classes for JSON Patch (<a href="https://tools.ietf.org/html/rfc6902">RFC
+ * 6902</a>).
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc6902">RFC 6902</a>
+ */
+package com.github.tnakamot.json.patch;
@@ -1,23 +1,42 @@
 package com.github.tnakamot.json.pointer;
 
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
 import com.github.tnakamot.json.value.JSONValue;
 import com.github.tnakamot.json.value.JSONValueArray;
 import com.github.tnakamot.json.value.JSONValueObject;
 import com.github.tnakamot.json.value.JSONValueString;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * JSON Pointer implementation compliant with <a href="https://tools.ietf.org/html/rfc6901">RFC
  * 6901</a>.
  *
- * <p>Instances of this class are immutable.
+ * <p>Instances of this class are immutable. The reference tokens are parsed and unescaped once when
+ * an instance is created, so evaluate the same instance repeatedly rather than creating a new
+ * instance every time. {@link #of(String)} returns a cached instance for frequently used pointers.
  *
  * @see <a href="https://tools.ietf.org/html/rfc6901">RFC 6901</a>
  */
 public class JSONPointer {
+  /** Maximum number of instances which {@link #of(String)} caches. */
+  private static final int CACHE_SIZE = 1024;
+
+  private static final Map<String, JSONPointer> CACHE = new ConcurrentHashMap<>();
+  private static final Map<String, JSONPointer> FRAGMENT_CACHE = new ConcurrentHashMap<>();
+
   private final String text;
-  private final List<JSONPointerReferenceToken> tokens;
+  private final JSONPointerReferenceToken[] tokens;
 
   /**
    * Create a new JSON Pointer instance from a Java String.
@@ -43,7 +62,57 @@ public class JSONPointer {
     this.text = text;
 
     JSONPointerLexer lexer = new JSONPointerLexer(this);
-    this.tokens = lexer.tokenize(fragment);
+    this.tokens = lexer.tokenize(fragment).toArray(new JSONPointerReferenceToken[0]);
+  }
+
+  /**
+   * Returns a JSON Pointer instance of the given Java String.
+   *
+   * <p>Unlike the constructor, this method caches the created instances and returns the same
+   * instance for the same string. The cache is bounded. When it gets full, it forgets all the
+   * cached instances and starts over.
+   *
+   * @param text String which represents a JSON pointer
+   * @return a JSON Pointer instance
+   * @throws InvalidJSONPointerSyntaxException when the given String cannot be interpreted as a JSON
+   *     Pointer.
+   */
+  @NotNull
+  public static JSONPointer of(@NotNull String text) throws InvalidJSONPointerSyntaxException {
+    return of(text, false);
+  }
+
+  /**
+   * Returns a JSON Pointer instance of the given Java String.
+   *
+   * <p>Unlike the constructor, this method caches the created instances and returns the same
+   * instance for the same string. The cache is bounded. When it gets full, it forgets all the
+   * cached instances and starts over.
+   *
+   * @param text String which represents a JSON pointer
+   * @param fragment specify true to handle the given string as a URI fragment identifier starting
+   *     with '#".
+   * @return a JSON Pointer instance
+   * @throws InvalidJSONPointerSyntaxException when the given String cannot be interpreted as a JSON
+   *     Pointer.
+   */
+  @NotNull
+  public static JSONPointer of(@NotNull String text, boolean fragment)
+      throws InvalidJSONPointerSyntaxException {
+    if (text == null) {
+      throw new NullPointerException("text cannot be null");
+    }
+
+    Map<String, JSONPointer> cache = fragment ? FRAGMENT_CACHE : CACHE;
+    JSONPointer pointer = cache.get(text);
+    if (pointer == null) {
+      pointer = new JSONPointer(text, fragment);
+      if (cache.size() >= CACHE_SIZE) {
+        cache.clear();
+      }
+      cache.put(text, pointer);
+    }
+    return pointer;
   }
 
   /**
@@ -77,7 +146,27 @@ public class JSONPointer {
    * @return reference tokens
    */
   public JSONPointerReferenceToken[] tokens() {
-    return tokens.toArray(new JSONPointerReferenceToken[0]);
+    return tokens.clone();
+  }
+
+  /**
+   * Return the number of the reference tokens.
+   *
+   * @return the number of the reference tokens
+   */
+  public int size() {
+    return tokens.length;
+  }
+
+  /**
+   * Return the reference token at the given position.
+   *
+   * @param index position of the reference token
+   * @return the reference token
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public JSONPointerReferenceToken token(int index) {
+    return tokens[index];
   }
 
   /**
@@ -89,6 +178,43 @@ public class JSONPointer {
     return text;
   }
 
+  /**
+   * Returns true if the given object is a JSON Pointer which has the same reference tokens as this
+   * JSON Pointer. A JSON Pointer given as a URI fragment identifier (e.g. "#/a") is equal to the
+   * one given as a plain string (e.g. "/a").
+   *
+   * @param obj object to compare
+   * @return true if the given object is an equivalent JSON Pointer
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    } else if (!(obj instanceof JSONPointer)) {
+      return false;
+    }
+
+    JSONPointerReferenceToken[] other = ((JSONPointer) obj).tokens;
+    if (tokens.length != other.length) {
+      return false;
+    }
+    for (int i = 0; i < tokens.length; i++) {
+      if (!tokens[i].text().equals(other[i].text())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (JSONPointerReferenceToken token : tokens) {
+      hash = 31 * hash + token.text().hashCode();
+    }
+    return hash;
+  }
+
   /**
    * Evaluate this JSON pointer in the context of the given root value of a JSON document.
    *
@@ -103,7 +229,7 @@ public class JSONPointer {
       switch (current.type()) {
         case OBJECT:
           JSONValueObject currentObj = (JSONValueObject) current;
-          current = currentObj.get(token.name());
+          current = currentObj.get(token.key());
           if (current == null) {
             throw new InvalidJSONPointerMemberNotExistException(token);
           }
@@ -123,4 +249,119 @@ public class JSONPointer {
 
     return current;
   }
+
+  /**
+   * Evaluate this JSON pointer in the context of the given root value of a JSON document, and
+   * return the given default value if this JSON pointer does not point to an existing JSON value.
+   *
+   * <p>Unlike {@link #evaluate(JSONValue)}, this method does not create any exception when the JSON
+   * value does not exist. Use this method when the JSON value is often absent.
+   *
+   * @param root root value of a JSON document
+   * @param defaultValue the value to return if the JSON value does not exist. Can be null.
+   * @return the JSON value that this JSON Pointer points to, or the default value
+   */
+  @Nullable
+  public JSONValue evaluate(@NotNull JSONValue root, @Nullable JSONValue defaultValue) {
+    JSONValue current = root;
+    for (JSONPointerReferenceToken token : tokens) {
+      if (current instanceof JSONValueObject) {
+        current = ((JSONValueObject) current).get(token.key());
+      } else if (current instanceof JSONValueArray) {
+        JSONValueArray array = (JSONValueArray) current;
+        int index = token.arrayIndex();
+        current = index >= 0 && index < array.size() ? array.get(index) : null;
+      } else {
+        current = null;
+      }
+
+      if (current == null) {
+        return defaultValue;
+      }
+    }
+
+    return current;
+  }
+
+  /**
+   * Evaluate this JSON pointer in the context of the given root value of a JSON document.
+   *
+   * <p>Unlike {@link #evaluate(JSONValue)}, this method does not create any exception when the JSON
+   * value does not exist. Use this method when the JSON value is often absent.
+   *
+   * @param root root value of a JSON document
+   * @return the JSON value that this JSON Pointer points to, or an empty optional if it does not
+   *     exist
+   */
+  @NotNull
+  public Optional<JSONValue> find(@NotNull JSONValue root) {
+    return Optional.ofNullable(evaluate(root, null));
+  }
+
+  /**
+   * Evaluate this JSON pointer against the JSON text read from the given reader without parsing the
+   * whole text.
+   *
+   * <p>Only the target JSON value is parsed. The JSON values which are not on the way to the target
+   * are skipped without validation. The JSON objects on the way to the target are read until the
+   * end so that the last member of duplicate names is used as {@link JSONText#parse()} does, but
+   * the rest of the JSON text after them is not read at all. The returned JSON value does not keep
+   * the position in the whole JSON text. The reader is not closed.
+   *
+   * @param in reader of a JSON text
+   * @return the JSON value that this JSON Pointer points to
+   * @throws InvalidJSONPointerWithTokenException when the JSON Pointer does not point to an
+   *     existing JSON value
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   * @throws JSONParserException if the target JSON value is malformed
+   */
+  @NotNull
+  public JSONValue evaluate(@NotNull Reader in)
+      throws InvalidJSONPointerWithTokenException, IOException, JSONParserException {
+    return new JSONPointerScanner(in).evaluate(this);
+  }
+
+  /**
+   * Evaluate this JSON pointer against the JSON text read from the given input stream without
+   * parsing the whole text. The JSON text must be encoded using UTF-8. See {@link
+   * #evaluate(Reader)} for more details.
+   *
+   * <p>The input stream is not closed, but it may be read beyond the target value.
+   *
+   * @param in input stream of a JSON text
+   * @return the JSON value that this JSON Pointer points to
+   * @throws InvalidJSONPointerWithTokenException when the JSON Pointer does not point to an
+   *     existing JSON value
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   * @throws JSONParserException if the target JSON value is malformed
+   */
+  @NotNull
+  public JSONValue evaluate(@NotNull InputStream in)
+      throws InvalidJSONPointerWithTokenException, IOException, JSONParserException {
+    return evaluate(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Evaluate this JSON pointer against the given JSON text. If the JSON text has been parsed
+   * already, this JSON Pointer is evaluated against the parsed JSON value. Otherwise, the JSON text
+   * is not parsed as a whole. See {@link #evaluate(Reader)} for more details.
+   *
+   * @param text JSON text
+   * @return the JSON value that this JSON Pointer points to
+   * @throws InvalidJSONPointerWithTokenException when the JSON Pointer does not point to an
+   *     existing JSON value
+   * @throws IOException if the JSON text is malformed
+   * @throws JSONParserException if the target JSON value is malformed
+   */
+  @NotNull
+  public JSONValue evaluate(@NotNull JSONText text)
+      throws InvalidJSONPointerWithTokenException, IOException, JSONParserException {
+    if (text.isParsed()) {
+      JSONValue root = text.parse().root();
+      if (root != null) {
+        return evaluate(root);
+      }
+    }
+    return evaluate(new StringReader(text.get()));
+  }
 }
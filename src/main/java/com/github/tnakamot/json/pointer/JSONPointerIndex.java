@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.pointer;
+
+import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueArray;
+import com.github.tnakamot.json.value.JSONValueObject;
+import com.github.tnakamot.json.value.JSONValueString;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An index of all the JSON values in a JSON document by their JSON Pointers.
+ *
+ * <p>The index maps the string representation of the JSON Pointer of every JSON value in the
+ * document (e.g. "/users/0/name") to the JSON value, so that a JSON Pointer is evaluated by one
+ * hash table lookup without parsing the pointer. This is useful when many JSON Pointers are
+ * evaluated against the same JSON document. The index holds one entry per JSON value, so it takes
+ * memory proportional to the size of the document.
+ *
+ * <pre>
+ * JSONPointerIndex index = new JSONPointerIndex(root);
+ * JSONValue name = index.get("/users/0/name");
+ * </pre>
+ *
+ * <p>The index reflects the JSON document at the time when it is built. Do not modify mutable JSON
+ * arrays and objects in the document after that.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ */
+public final class JSONPointerIndex {
+  private final JSONValue root;
+  private final Map<String, JSONValue> values;
+
+  /**
+   * Build the index of the given JSON document.
+   *
+   * @param root root value of a JSON document
+   */
+  public JSONPointerIndex(@NotNull JSONValue root) {
+    if (root == null) {
+      throw new NullPointerException("root cannot be null");
+    }
+
+    this.root = root;
+    this.values = new HashMap<>();
+    add(new StringBuilder(), root);
+  }
+
+  private void add(StringBuilder path, JSONValue value) {
+    values.put(path.toString(), value);
+
+    int length = path.length();
+    if (value instanceof JSONValueObject) {
+      for (Map.Entry<JSONValueString, JSONValue> member : ((JSONValueObject) value).entrySet()) {
+        path.append('/');
+        escape(member.getKey().value(), path);
+        add(path, member.getValue());
+        path.setLength(length);
+      }
+    } else if (value instanceof JSONValueArray) {
+      JSONValueArray array = (JSONValueArray) value;
+      for (int i = 0; i < array.size(); i++) {
+        path.append('/').append(i);
+        add(path, array.get(i));
+        path.setLength(length);
+      }
+    }
+  }
+
+  private static void escape(String name, StringBuilder path) {
+    for (int i = 0; i < name.length(); i++) {
+      char ch = name.charAt(i);
+      if (ch == '~') {
+        path.append("~0");
+      } else if (ch == '/') {
+        path.append("~1");
+      } else {
+        path.append(ch);
+      }
+    }
+  }
+
+  /**
+   * Root value of the JSON document.
+   *
+   * @return root value of the JSON document
+   */
+  @NotNull
+  public JSONValue root() {
+    return root;
+  }
+
+  /**
+   * The number of the JSON values in the JSON document.
+   *
+   * @return the number of the JSON values in the JSON document
+   */
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Returns the JSON value which the given JSON Pointer points to.
+   *
+   * @param pointer a string representation of a JSON Pointer
+   * @return the JSON value that the JSON Pointer points to, or null if the JSON Pointer does not
+   *     point to an existing JSON value, or is not a valid JSON Pointer
+   */
+  @Nullable
+  public JSONValue get(@NotNull String pointer) {
+    return values.get(pointer);
+  }
+
+  /**
+   * Returns the JSON value which the given JSON Pointer points to.
+   *
+   * @param pointer JSON Pointer
+   * @return the JSON value that the JSON Pointer points to, or null if the JSON Pointer does not
+   *     point to an existing JSON value
+   */
+  @Nullable
+  public JSONValue get(@NotNull JSONPointer pointer) {
+    String text = pointer.text();
+    if (text.startsWith("#")) {
+      text = text.substring(1);
+    }
+    return values.get(text);
+  }
+}
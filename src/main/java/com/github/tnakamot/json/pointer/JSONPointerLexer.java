@@ -1,9 +1,6 @@
 package com.github.tnakamot.json.pointer;
 
-import java.io.IOException;
-import java.io.PushbackReader;
-import java.io.StringReader;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -19,7 +16,7 @@ import java.util.List;
  */
 public class JSONPointerLexer {
   private final JSONPointer pointer;
-  private final PushbackReader reader;
+  private final String text;
   int location;
   boolean eof;
 
@@ -34,21 +31,17 @@ public class JSONPointerLexer {
     }
 
     this.pointer = pointer;
-    this.reader = new PushbackReader(new StringReader(pointer.text()));
+    this.text = pointer.text();
     this.location = 0;
   }
 
   private char read() {
-    try {
-      location += 1;
-      int ich = reader.read();
-      if (ich == -1) {
-        eof = true;
-      }
-      return (char) ich;
-    } catch (IOException ex) {
-      throw new RuntimeException("never reach here", ex);
+    location += 1;
+    if (location > text.length()) {
+      eof = true;
+      return (char) -1;
     }
+    return text.charAt(location - 1);
   }
 
   private void readAsFragment() throws InvalidJSONPointerSyntaxException {
@@ -122,7 +115,7 @@ public class JSONPointerLexer {
   public List<JSONPointerReferenceToken> tokenize(boolean fragment)
       throws InvalidJSONPointerSyntaxException {
 
-    List<JSONPointerReferenceToken> tokens = new LinkedList<>();
+    List<JSONPointerReferenceToken> tokens = new ArrayList<>();
     JSONPointerReferenceToken current = null;
 
     if (fragment) {
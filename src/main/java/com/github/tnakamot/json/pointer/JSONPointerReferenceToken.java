@@ -1,5 +1,7 @@
 package com.github.tnakamot.json.pointer;
 
+import com.github.tnakamot.json.value.JSONKey;
+
 /**
  * Represents one reference token of a JSON Pointer.
  *
@@ -8,6 +10,9 @@ package com.github.tnakamot.json.pointer;
 public class JSONPointerReferenceToken {
   private final JSONPointerReferenceToken previous;
   private final String text;
+  private final String name;
+  private final JSONKey key;
+  private final int index;
   private final int begin;
   private final int end;
   private final JSONPointer pointer;
@@ -25,6 +30,9 @@ public class JSONPointerReferenceToken {
       JSONPointerReferenceToken previous, String text, int begin, int end, JSONPointer pointer) {
     this.previous = previous;
     this.text = text;
+    this.name = (text == null || text.indexOf('~') < 0) ? text : unescape(text);
+    this.key = text == null ? null : new JSONKey(name);
+    this.index = text == null ? -1 : parseIndex(text);
     this.begin = begin;
     this.end = end;
     this.pointer = pointer;
@@ -76,16 +84,62 @@ public class JSONPointerReferenceToken {
    * @return Unescaped reference token.
    */
   public String name() {
+    return name;
+  }
+
+  /**
+   * Unescaped reference token as a key to look up a member of a JSON object value.
+   *
+   * @return Unescaped reference token as a key.
+   */
+  JSONKey key() {
+    return key;
+  }
+
+  private static String unescape(String text) {
     return text.replace("~1", "/").replace("~0", "~");
   }
 
+  /**
+   * Returns the array index that the given escaped reference token represents, or -1 if it is not
+   * an array index or too large for a Java int value.
+   */
+  private static int parseIndex(String text) {
+    int length = text.length();
+    if (length == 0 || length > 10 || (length > 1 && text.charAt(0) == '0')) {
+      return -1;
+    }
+
+    long index = 0;
+    for (int i = 0; i < length; i++) {
+      char ch = text.charAt(i);
+      if (ch < '0' || ch > '9') {
+        return -1;
+      }
+      index = index * 10 + (ch - '0');
+    }
+    return index > Integer.MAX_VALUE ? -1 : (int) index;
+  }
+
+  /**
+   * Reference token as an index of a JSON array value, or -1 if this reference token is not an
+   * index of a JSON array value. Unlike {@link #index()}, this method never throws an exception.
+   *
+   * @return index of a JSON array value, or -1
+   */
+  int arrayIndex() {
+    return index;
+  }
+
   /**
    * Reference token as an index of a JSON array value.
    *
    * @return index of a JSON array value
    */
   public int index() throws InvalidJSONPointerNotIndexException {
-    if (!text.matches("0|([1-9][0-9]*)")) {
+    if (index >= 0) {
+      return index;
+    } else if (!text.matches("0|([1-9][0-9]*)")) {
       throw new InvalidJSONPointerNotIndexException(this);
     }
 
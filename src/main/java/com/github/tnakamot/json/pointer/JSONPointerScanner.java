@@ -0,0 +1,484 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.pointer;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Evaluates JSON Pointers against a JSON text read from a {@link Reader} without parsing the whole
+ * text.
+ *
+ * <p>The scanner reads the JSON text forward only. It skips JSON values which are not on the way to
+ * the targets by counting brackets, parses only the target values, and stops reading as soon as all
+ * the targets are found unless they are in a JSON object. The skipped part of the JSON text is not
+ * validated.
+ */
+final class JSONPointerScanner {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final Reader in;
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int position = 0;
+  private int limit = 0;
+  private long offset = 0;
+
+  JSONPointerScanner(@NotNull Reader in) {
+    if (in == null) {
+      throw new NullPointerException("in cannot be null");
+    }
+
+    this.in = in;
+  }
+
+  /**
+   * The reason why the last call of {@link #find(JSONPointer, int, boolean)} did not find the JSON
+   * value.
+   */
+  private InvalidJSONPointerWithTokenException error;
+
+  /**
+   * Evaluate the given JSON Pointer.
+   *
+   * @param pointer JSON Pointer
+   * @return the JSON value that the JSON Pointer points to
+   */
+  @NotNull
+  JSONValue evaluate(@NotNull JSONPointer pointer)
+      throws IOException, JSONParserException, InvalidJSONPointerWithTokenException {
+    JSONValue value = find(pointer, 0, false);
+    if (value == null) {
+      throw error;
+    }
+    return value;
+  }
+
+  /**
+   * Find the JSON value that the reference tokens of the given JSON Pointer from the given depth
+   * point to in the JSON value at the current position.
+   *
+   * <p>JSON objects are always read until the end because a later member of the same name replaces
+   * an earlier one, as {@link com.github.tnakamot.json.parser.JSONParser} does.
+   *
+   * @param consume true to read the JSON value at the current position until the end, which is
+   *     necessary in a member of a JSON object
+   * @return the found JSON value, or null if it does not exist. The reason is stored in {@link
+   *     #error}.
+   */
+  @Nullable
+  private JSONValue find(@NotNull JSONPointer pointer, int depth, boolean consume)
+      throws IOException, JSONParserException {
+    if (depth == pointer.size()) {
+      return readValue();
+    }
+
+    JSONPointerReferenceToken token = pointer.token(depth);
+    int ch = skipWhitespaces();
+    if (ch == '{') {
+      position++;
+      if (skipWhitespaces() == '}') {
+        position++;
+        error = new InvalidJSONPointerMemberNotExistException(token);
+        return null;
+      }
+
+      boolean matched = false;
+      JSONValue found = null;
+      InvalidJSONPointerWithTokenException failure = null;
+      do {
+        if (readName().equals(token.name())) {
+          matched = true;
+          found = find(pointer, depth + 1, true);
+          failure = error;
+        } else {
+          skipValue(null);
+        }
+      } while (!nextMember());
+
+      if (!matched) {
+        error = new InvalidJSONPointerMemberNotExistException(token);
+      } else if (found == null) {
+        error = failure;
+      }
+      return found;
+    } else if (ch == '[') {
+      int index;
+      try {
+        index = token.index();
+      } catch (InvalidJSONPointerNotIndexException e) {
+        if (consume) {
+          skipValue(null);
+        }
+        error = e;
+        return null;
+      }
+
+      position++;
+      if (skipWhitespaces() == ']') {
+        position++;
+        error = new InvalidJSONPointerIndexOutOfBoundsException(token, 0);
+        return null;
+      }
+
+      for (int count = 0; count < index; count++) {
+        skipValue(null);
+        if (nextElement()) {
+          error = new InvalidJSONPointerIndexOutOfBoundsException(token, count + 1);
+          return null;
+        }
+      }
+
+      JSONValue found = find(pointer, depth + 1, consume);
+      if (consume) {
+        while (!nextElement()) {
+          skipValue(null);
+        }
+      }
+      return found;
+    } else if (ch < 0) {
+      throw malformed();
+    } else {
+      if (consume) {
+        skipValue(null);
+      }
+      error = new InvalidJSONPointerReachedPrimitiveException(token);
+      return null;
+    }
+  }
+
+  /**
+   * Evaluate the JSON Pointers in the given tree.
+   *
+   * @param root root node of the tree of the JSON Pointers
+   * @param values JSON values that the JSON Pointers point to
+   */
+  void evaluate(@NotNull JSONPointerSet.Node root, @NotNull JSONValue[] values)
+      throws IOException, JSONParserException {
+    if (root.count > 0) {
+      visit(root, values, root.count, true);
+    }
+  }
+
+  /**
+   * Returns the number of the JSON Pointers which are not found yet after visiting the node.
+   *
+   * <p>JSON objects are always read until the end because a later member of the same name replaces
+   * an earlier one, as {@link com.github.tnakamot.json.parser.JSONParser} does. Therefore, the
+   * scanner stops before the end of the JSON value only if it is not in a JSON object.
+   *
+   * @param stoppable true if the scanner can stop reading as soon as all the JSON Pointers are
+   *     found
+   */
+  private int visit(
+      @NotNull JSONPointerSet.Node node,
+      @NotNull JSONValue[] values,
+      int remaining,
+      boolean stoppable)
+      throws IOException, JSONParserException {
+    // All the JSON Pointers under the node are either found or missing after visiting it.
+    int after = remaining - node.count;
+    if (node.targets.length > 0) {
+      JSONValue value = readValue();
+      JSONPointerSet.visit(node, value, values);
+      return after;
+    }
+
+    int ch = skipWhitespaces();
+    if (ch == '{') {
+      position++;
+      if (skipWhitespaces() == '}') {
+        position++;
+        return after;
+      }
+
+      Set<JSONPointerSet.Node> visited = null;
+      do {
+        JSONPointerSet.Node child = node.names.get(readName());
+        if (child == null) {
+          skipValue(null);
+        } else {
+          if (visited == null) {
+            visited = Collections.newSetFromMap(new IdentityHashMap<>());
+          }
+          if (!visited.add(child)) {
+            // A later member of the same name replaces the earlier one.
+            clear(child, values);
+          }
+          visit(child, values, remaining, false);
+        }
+      } while (!nextMember());
+    } else if (ch == '[') {
+      position++;
+      if (skipWhitespaces() == ']') {
+        position++;
+        return after;
+      }
+
+      int next = 0;
+      int count = 0;
+      do {
+        if (next < node.indices.length && node.indices[next].index == count) {
+          remaining = visit(node.indices[next++], values, remaining, stoppable);
+          if (stoppable && remaining <= 0) {
+            return 0;
+          }
+        } else {
+          skipValue(null);
+        }
+        count++;
+      } while (!nextElement());
+    } else {
+      skipValue(null);
+    }
+    return after;
+  }
+
+  /** Forget the JSON values found for the JSON Pointers under the given node. */
+  private static void clear(@NotNull JSONPointerSet.Node node, @NotNull JSONValue[] values) {
+    for (int target : node.targets) {
+      values[target] = null;
+    }
+    for (JSONPointerSet.Node child : node.children) {
+      clear(child, values);
+    }
+  }
+
+  /** Read and parse the JSON value at the current position. */
+  @NotNull
+  private JSONValue readValue() throws IOException, JSONParserException {
+    StringBuilder text = new StringBuilder();
+    skipValue(text);
+    return JSONText.fromString(text.toString()).parse().root();
+  }
+
+  /**
+   * Read a member name and the following name separator.
+   *
+   * @return the decoded member name
+   */
+  @NotNull
+  private String readName() throws IOException {
+    if (skipWhitespaces() != '"') {
+      throw malformed();
+    }
+
+    position++;
+    StringBuilder sb = new StringBuilder();
+    while (true) {
+      int ch = read();
+      if (ch == '"') {
+        break;
+      } else if (ch == '\\') {
+        ch = read();
+        switch (ch) {
+          case 'b':
+            sb.append('\b');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+              int digit = Character.digit(read(), 16);
+              if (digit < 0) {
+                throw malformed();
+              }
+              code = code * 16 + digit;
+            }
+            sb.append((char) code);
+            break;
+          case '"':
+          case '\\':
+          case '/':
+            sb.append((char) ch);
+            break;
+          default:
+            throw malformed();
+        }
+      } else if (ch < 0) {
+        throw malformed();
+      } else {
+        sb.append((char) ch);
+      }
+    }
+
+    if (skipWhitespaces() != ':') {
+      throw malformed();
+    }
+    position++;
+    return sb.toString();
+  }
+
+  /**
+   * Read the separator after a member of a JSON object.
+   *
+   * @return true if the JSON object ends
+   */
+  private boolean nextMember() throws IOException {
+    int ch = skipWhitespaces();
+    position++;
+    if (ch == '}') {
+      return true;
+    } else if (ch != ',') {
+      throw malformed();
+    }
+    return false;
+  }
+
+  /**
+   * Read the separator after an element of a JSON array.
+   *
+   * @return true if the JSON array ends
+   */
+  private boolean nextElement() throws IOException {
+    int ch = skipWhitespaces();
+    position++;
+    if (ch == ']') {
+      return true;
+    } else if (ch != ',') {
+      throw malformed();
+    }
+    return false;
+  }
+
+  /**
+   * Skip the JSON value at the current position.
+   *
+   * @param text if not null, the text of the skipped JSON value is appended to it
+   */
+  private void skipValue(@Nullable StringBuilder text) throws IOException {
+    int ch = skipWhitespaces();
+    if (ch == '{' || ch == '[') {
+      int depth = 0;
+      do {
+        ch = read();
+        if (text != null) {
+          text.append((char) ch);
+        }
+        if (ch == '"') {
+          skipString(text);
+        } else if (ch == '{' || ch == '[') {
+          depth++;
+        } else if (ch == '}' || ch == ']') {
+          depth--;
+        } else if (ch < 0) {
+          throw malformed();
+        }
+      } while (depth > 0);
+    } else if (ch == '"') {
+      position++;
+      if (text != null) {
+        text.append('"');
+      }
+      skipString(text);
+    } else if (ch < 0) {
+      throw malformed();
+    } else {
+      while (ch >= 0 && ch != ',' && ch != ']' && ch != '}' && !isWhitespace(ch)) {
+        position++;
+        if (text != null) {
+          text.append((char) ch);
+        }
+        ch = peek();
+      }
+    }
+  }
+
+  /** Skip the rest of the string after the opening quotation mark. */
+  private void skipString(@Nullable StringBuilder text) throws IOException {
+    boolean escaped = false;
+    while (true) {
+      int ch = read();
+      if (ch < 0) {
+        throw malformed();
+      }
+      if (text != null) {
+        text.append((char) ch);
+      }
+
+      if (escaped) {
+        escaped = false;
+      } else if (ch == '\\') {
+        escaped = true;
+      } else if (ch == '"') {
+        return;
+      }
+    }
+  }
+
+  private static boolean isWhitespace(int ch) {
+    return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+  }
+
+  /** Skip white spaces, and returns the next character without consuming it, or -1 at EOF. */
+  private int skipWhitespaces() throws IOException {
+    int ch = peek();
+    while (isWhitespace(ch)) {
+      position++;
+      ch = peek();
+    }
+    return ch;
+  }
+
+  private int peek() throws IOException {
+    if (position == limit) {
+      offset += limit;
+      position = 0;
+      limit = 0;
+      int n;
+      do {
+        n = in.read(buffer, 0, buffer.length);
+      } while (n == 0);
+      if (n < 0) {
+        return -1;
+      }
+      limit = n;
+    }
+    return buffer[position];
+  }
+
+  private int read() throws IOException {
+    int ch = peek();
+    if (ch >= 0) {
+      position++;
+    }
+    return ch;
+  }
+
+  @NotNull
+  private IOException malformed() {
+    return new IOException("malformed JSON text at character offset " + (offset + position));
+  }
+}
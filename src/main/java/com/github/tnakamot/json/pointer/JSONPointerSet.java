@@ -0,0 +1,344 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.pointer;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONKey;
+import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueArray;
+import com.github.tnakamot.json.value.JSONValueObject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A set of JSON Pointers which are evaluated together.
+ *
+ * <p>The pointers are compiled into a tree of reference tokens so that pointers which share the
+ * same prefix (e.g. "/user/name" and "/user/address/city") look up the common part only once.
+ * {@link #evaluate(JSONValue)} walks the given JSON value only once to evaluate all the pointers.
+ *
+ * <pre>
+ * JSONPointerSet fields = JSONPointerSet.of("/user/name", "/user/address/city", "/tags/0");
+ * for (JSONValue record : records) {
+ *   JSONValue[] values = fields.values(record);
+ * }
+ * </pre>
+ *
+ * <p>Unlike {@link JSONPointer#evaluate(JSONValue)}, pointers which do not point to an existing
+ * JSON value are not errors; they are just missing in the result.
+ *
+ * <p>The pointers can also be evaluated against a JSON text without parsing the whole text. {@link
+ * #values(Reader)} reads the JSON text forward, skips the JSON values which are not on the way to
+ * the targets, parses only the target values, and stops reading as soon as all the pointers are
+ * evaluated.
+ *
+ * <p>Instances of this class are immutable and thread-safe.
+ */
+public final class JSONPointerSet {
+  private final List<JSONPointer> pointers;
+  private final Node root;
+
+  /**
+   * Create a set of the given JSON Pointers.
+   *
+   * @param pointers JSON Pointers
+   */
+  public JSONPointerSet(@NotNull JSONPointer... pointers) {
+    this(Arrays.asList(pointers));
+  }
+
+  /**
+   * Create a set of the given JSON Pointers.
+   *
+   * @param pointers JSON Pointers
+   */
+  public JSONPointerSet(@NotNull Collection<JSONPointer> pointers) {
+    if (pointers == null) {
+      throw new NullPointerException("pointers cannot be null");
+    }
+
+    this.pointers = Collections.unmodifiableList(new ArrayList<>(pointers));
+    Builder root = new Builder(null);
+    for (int i = 0; i < this.pointers.size(); i++) {
+      JSONPointer pointer = this.pointers.get(i);
+      if (pointer == null) {
+        throw new NullPointerException("pointers cannot contain null");
+      }
+
+      Builder node = root;
+      for (int j = 0; j < pointer.size(); j++) {
+        JSONPointerReferenceToken token = pointer.token(j);
+        node = node.children.computeIfAbsent(token.name(), name -> new Builder(token));
+      }
+      node.targets.add(i);
+    }
+    this.root = root.build();
+  }
+
+  /**
+   * Create a set of the given JSON Pointers.
+   *
+   * @param pointers string representations of JSON Pointers
+   * @return a set of the JSON Pointers
+   * @throws InvalidJSONPointerSyntaxException when one of the given strings cannot be interpreted
+   *     as a JSON Pointer.
+   */
+  @NotNull
+  public static JSONPointerSet of(@NotNull String... pointers)
+      throws InvalidJSONPointerSyntaxException {
+    List<JSONPointer> list = new ArrayList<>(pointers.length);
+    for (String pointer : pointers) {
+      list.add(JSONPointer.of(pointer));
+    }
+    return new JSONPointerSet(list);
+  }
+
+  /**
+   * The JSON Pointers in this set in the given order.
+   *
+   * @return an unmodifiable list of the JSON Pointers
+   */
+  @NotNull
+  public List<JSONPointer> pointers() {
+    return pointers;
+  }
+
+  /**
+   * The number of the JSON Pointers in this set.
+   *
+   * @return the number of the JSON Pointers
+   */
+  public int size() {
+    return pointers.size();
+  }
+
+  /**
+   * Evaluate all the JSON Pointers in this set in the context of the given JSON value.
+   *
+   * @param root root value of a JSON document
+   * @return JSON values that the JSON Pointers point to, in the same order as {@link #pointers()}.
+   *     An element is null if the corresponding JSON Pointer does not point to an existing JSON
+   *     value.
+   */
+  @NotNull
+  public JSONValue[] values(@NotNull JSONValue root) {
+    if (root == null) {
+      throw new NullPointerException("root cannot be null");
+    }
+
+    JSONValue[] values = new JSONValue[pointers.size()];
+    visit(this.root, root, values);
+    return values;
+  }
+
+  /**
+   * Evaluate all the JSON Pointers in this set against the JSON text read from the given reader.
+   *
+   * <p>Only the target JSON values are parsed. The JSON values which are not on the way to the
+   * targets are skipped without validation. The JSON objects on the way to the targets are read
+   * until the end so that the last member of duplicate names is used as {@link JSONText#parse()}
+   * does, but the rest of the JSON text after them is not read at all. The returned JSON values do
+   * not keep the positions in the whole JSON text. The reader is not closed.
+   *
+   * @param in reader of a JSON text
+   * @return JSON values that the JSON Pointers point to, in the same order as {@link #pointers()}.
+   *     An element is null if the corresponding JSON Pointer does not point to an existing JSON
+   *     value.
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   * @throws JSONParserException if one of the target JSON values is malformed
+   */
+  @NotNull
+  public JSONValue[] values(@NotNull Reader in) throws IOException, JSONParserException {
+    JSONValue[] values = new JSONValue[pointers.size()];
+    new JSONPointerScanner(in).evaluate(root, values);
+    return values;
+  }
+
+  /**
+   * Evaluate all the JSON Pointers in this set against the JSON text read from the given input
+   * stream. The JSON text must be encoded using UTF-8. See {@link #values(Reader)} for more
+   * details.
+   *
+   * <p>The input stream is not closed, but it may be read beyond the last target value.
+   *
+   * @param in input stream of a JSON text
+   * @return JSON values that the JSON Pointers point to, in the same order as {@link #pointers()}.
+   *     An element is null if the corresponding JSON Pointer does not point to an existing JSON
+   *     value.
+   * @throws IOException if an I/O error occurs, or the JSON text is malformed
+   * @throws JSONParserException if one of the target JSON values is malformed
+   */
+  @NotNull
+  public JSONValue[] values(@NotNull InputStream in) throws IOException, JSONParserException {
+    return values(new InputStreamReader(in, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Evaluate all the JSON Pointers in this set against the given JSON text. If the JSON text has
+   * been parsed already, the JSON Pointers are evaluated against the parsed JSON value. Otherwise,
+   * the JSON text is not parsed as a whole. See {@link #values(Reader)} for more details.
+   *
+   * @param text JSON text
+   * @return JSON values that the JSON Pointers point to, in the same order as {@link #pointers()}.
+   *     An element is null if the corresponding JSON Pointer does not point to an existing JSON
+   *     value.
+   * @throws IOException if the JSON text is malformed
+   * @throws JSONParserException if one of the target JSON values is malformed
+   */
+  @NotNull
+  public JSONValue[] values(@NotNull JSONText text) throws IOException, JSONParserException {
+    if (text.isParsed()) {
+      JSONValue root = text.parse().root();
+      if (root != null) {
+        return values(root);
+      }
+    }
+    return values(new StringReader(text.get()));
+  }
+
+  /**
+   * Evaluate all the JSON Pointers in this set in the context of the given JSON value.
+   *
+   * @param root root value of a JSON document
+   * @return a map from the JSON Pointers to the JSON values they point to, in the same order as
+   *     {@link #pointers()}. The JSON Pointers which do not point to an existing JSON value are not
+   *     contained in the map.
+   */
+  @NotNull
+  public Map<JSONPointer, JSONValue> evaluate(@NotNull JSONValue root) {
+    JSONValue[] values = values(root);
+    Map<JSONPointer, JSONValue> result = new LinkedHashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        result.put(pointers.get(i), values[i]);
+      }
+    }
+    return result;
+  }
+
+  /** Evaluate the JSON Pointers under the given node in the context of the given JSON value. */
+  static void visit(Node node, JSONValue value, JSONValue[] values) {
+    for (int target : node.targets) {
+      values[target] = value;
+    }
+    if (node.children.length == 0) {
+      return;
+    }
+
+    switch (value.type()) {
+      case OBJECT:
+        JSONValueObject object = (JSONValueObject) value;
+        for (Node child : node.children) {
+          JSONValue member = object.get(child.key);
+          if (member != null) {
+            visit(child, member, values);
+          }
+        }
+        break;
+      case ARRAY:
+        JSONValueArray array = (JSONValueArray) value;
+        int size = array.size();
+        for (Node child : node.children) {
+          if (child.index >= 0 && child.index < size) {
+            visit(child, array.get(child.index), values);
+          }
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** A reference token shared by JSON Pointers. */
+  static final class Node {
+    final JSONKey key;
+    final int index;
+
+    /** Positions of the JSON Pointers which end at this node. */
+    final int[] targets;
+
+    final Node[] children;
+
+    /** Children by their names. */
+    final Map<String, Node> names;
+
+    /** Children which can be array indices in the ascending order of the indices. */
+    final Node[] indices;
+
+    /** The number of the JSON Pointers which end at this node or its descendants. */
+    final int count;
+
+    private Node(JSONKey key, int index, int[] targets, Node[] children) {
+      this.key = key;
+      this.index = index;
+      this.targets = targets;
+      this.children = children;
+
+      Map<String, Node> names = new HashMap<>();
+      int count = targets.length;
+      for (Node child : children) {
+        names.put(child.key.name(), child);
+        count += child.count;
+      }
+      this.names = names;
+      this.count = count;
+      this.indices =
+          Arrays.stream(children)
+              .filter(child -> child.index >= 0)
+              .sorted(Comparator.comparingInt(child -> child.index))
+              .toArray(Node[]::new);
+    }
+  }
+
+  private static final class Builder {
+    private final JSONPointerReferenceToken token;
+    private final Map<String, Builder> children = new LinkedHashMap<>();
+    private final List<Integer> targets = new ArrayList<>();
+
+    private Builder(JSONPointerReferenceToken token) {
+      this.token = token;
+    }
+
+    private Node build() {
+      JSONKey key = null;
+      int index = -1;
+      if (token != null) {
+        key = token.key();
+        index = token.arrayIndex();
+      }
+
+      int[] targets = this.targets.stream().mapToInt(Integer::intValue).toArray();
+      Node[] children = this.children.values().stream().map(Builder::build).toArray(Node[]::new);
+      return new Node(key, index, targets, children);
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.token;
+
+import java.math.BigInteger;
+
+/**
+ * Converts a decimal number w * 10^q to the nearest Java double value.
+ *
+ * <p>This class implements the fast path by Clinger and the algorithm by Eisel and Lemire described
+ * in "Number Parsing at a Gigabyte per Second" (Daniel Lemire, 2021). Both of them return the
+ * correctly rounded double value, the same as {@link Double#parseDouble(String)}. In the rare
+ * cases where the algorithm cannot decide the result, this class returns NaN so that the caller
+ * can fall back to {@link Double#parseDouble(String)}.
+ */
+final class DecimalToDouble {
+  private static final int SMALLEST_POWER_OF_TEN = -342;
+  private static final int LARGEST_POWER_OF_TEN = 308;
+
+  private static final int MANTISSA_EXPLICIT_BITS = 52;
+  private static final int MINIMUM_EXPONENT = -1023;
+  private static final int INFINITE_POWER = 0x7FF;
+  private static final long INFINITY_BITS = 0x7FF0000000000000L;
+  private static final long SIGN_BIT = 0x8000000000000000L;
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * 128-bit approximations of 5^q for q in [-342, 308], normalized so that the most significant bit
+   * is set. The higher 64 bits and the lower 64 bits are stored alternately.
+   */
+  private static final long[] POWERS_OF_FIVE =
+      new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+
+  static {
+    // Same as the table generation script of the reference implementation (fast_float).
+    BigInteger five = BigInteger.valueOf(5);
+
+    BigInteger power5 = BigInteger.ONE;
+    for (int q = -1; q >= SMALLEST_POWER_OF_TEN; q--) {
+      power5 = power5.multiply(five);
+      int z = power5.bitLength();
+      int b = (q >= -27) ? z + 127 : 2 * z + 128;
+      BigInteger c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+      storePowerOfFive(q, normalize(c));
+    }
+
+    power5 = BigInteger.ONE;
+    for (int q = 0; q <= LARGEST_POWER_OF_TEN; q++) {
+      storePowerOfFive(q, normalize(power5));
+      power5 = power5.multiply(five);
+    }
+  }
+
+  private static BigInteger normalize(BigInteger value) {
+    int bitLength = value.bitLength();
+    if (bitLength < 128) {
+      return value.shiftLeft(128 - bitLength);
+    } else {
+      return value.shiftRight(bitLength - 128);
+    }
+  }
+
+  private static void storePowerOfFive(int q, BigInteger value) {
+    int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+    POWERS_OF_FIVE[index] = value.shiftRight(64).longValue();
+    POWERS_OF_FIVE[index + 1] = value.longValue();
+  }
+
+  private DecimalToDouble() {}
+
+  /**
+   * Returns the double value nearest to (-1)^negative * w * 10^q.
+   *
+   * @param negative whether the value is negative
+   * @param w decimal significand as an unsigned 64-bit integer
+   * @param q decimal exponent
+   * @return the nearest double value, or NaN if it cannot be decided by this class
+   */
+  static double convert(boolean negative, long w, long q) {
+    if (q >= -22 && q <= 22 && Long.compareUnsigned(w, 1L << 53) <= 0) {
+      // Clinger's fast path: both w and 10^|q| are exact in double, so one IEEE 754 operation
+      // rounds correctly.
+      double d = (double) w;
+      d = (q < 0) ? d / POWERS_OF_TEN[(int) -q] : d * POWERS_OF_TEN[(int) q];
+      return negative ? -d : d;
+    }
+
+    long bits = computeBits(w, q);
+    if (bits < 0) {
+      return Double.NaN;
+    }
+    return Double.longBitsToDouble(negative ? bits | SIGN_BIT : bits);
+  }
+
+  /**
+   * The Eisel-Lemire algorithm.
+   *
+   * @return bits of the positive double value, or -1 if the algorithm cannot decide
+   */
+  private static long computeBits(long w, long q) {
+    if (w == 0 || q < SMALLEST_POWER_OF_TEN) {
+      return 0;
+    }
+    if (q > LARGEST_POWER_OF_TEN) {
+      return INFINITY_BITS;
+    }
+
+    int lz = Long.numberOfLeadingZeros(w);
+    w <<= lz;
+
+    // Multiply w by the 128-bit approximation of 5^q, but only as precisely as needed.
+    int index = 2 * ((int) q - SMALLEST_POWER_OF_TEN);
+    long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+    long low = w * POWERS_OF_FIVE[index];
+    long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_EXPLICIT_BITS + 3);
+    if ((high & precisionMask) == precisionMask) {
+      long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+      low += secondHigh;
+      if (Long.compareUnsigned(secondHigh, low) > 0) {
+        high++;
+      }
+    }
+
+    if (low == 0xFFFFFFFFFFFFFFFFL && (q < -27 || q > 55)) {
+      // The approximation may be off by one in the lower bits.
+      return -1;
+    }
+
+    int upperBit = (int) (high >>> 63);
+    int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+    long mantissa = high >>> shift;
+    int power2 = power((int) q) + upperBit - lz - MINIMUM_EXPONENT;
+
+    if (power2 <= 0) {
+      // subnormal numbers
+      if (-power2 + 1 >= 64) {
+        return 0;
+      }
+      mantissa >>>= -power2 + 1;
+      mantissa += (mantissa & 1);
+      mantissa >>>= 1;
+      power2 = (mantissa < (1L << MANTISSA_EXPLICIT_BITS)) ? 0 : 1;
+      return mantissa | ((long) power2 << MANTISSA_EXPLICIT_BITS);
+    }
+
+    if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1) {
+      // Exactly in the middle of two double values. Round to even.
+      if ((mantissa << shift) == high) {
+        mantissa &= ~1L;
+      }
+    }
+
+    mantissa += (mantissa & 1);
+    mantissa >>>= 1;
+    if (mantissa >= (2L << MANTISSA_EXPLICIT_BITS)) {
+      mantissa = 1L << MANTISSA_EXPLICIT_BITS;
+      power2++;
+    }
+    mantissa &= ~(1L << MANTISSA_EXPLICIT_BITS);
+
+    if (power2 >= INFINITE_POWER) {
+      return INFINITY_BITS;
+    }
+    return mantissa | ((long) power2 << MANTISSA_EXPLICIT_BITS);
+  }
+
+  /** Returns floor(log2(10^q)) + 63. */
+  private static int power(int q) {
+    return (((152170 + 65536) * q) >> 16) + 63;
+  }
+
+  private static long unsignedMultiplyHigh(long x, long y) {
+    return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+  }
+}
@@ -0,0 +1,401 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.token;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The decimal value of a JSON number, decomposed into its sign, significant digits and exponent.
+ *
+ * <p>A JSON number is represented as (-1)^{@link #isNegative()} * {@link #significand()} *
+ * 10^{@link #exponent()}, where the significand has no leading and trailing zeros. For example,
+ * "-12.300e2" is decomposed into a negative sign, a significand 123 and an exponent 0. Zero has a
+ * significand 0 and an exponent 0.
+ *
+ * <p>The nearest Java double value and the Java long value (if exists) are computed once when an
+ * instance is created. The double value is computed by a fast algorithm which returns the same
+ * result as {@link Double#parseDouble(String)}.
+ *
+ * <p>Instances of this class are created by {@link #parse(CharSequence)}, or by {@link Scanner}
+ * that receives characters of a JSON number one by one from a lexical analyzer.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class JSONDecimal {
+  /** Maximum number of decimal digits held by a 64-bit unsigned integer without overflow. */
+  private static final int MAX_DIGITS = 19;
+
+  /** Exponents are saturated at this value while they are scanned. */
+  private static final long EXPONENT_LIMIT = 100_000_000_000_000_000L;
+
+  private static final long[] POWERS_OF_TEN = {
+    1L,
+    10L,
+    100L,
+    1_000L,
+    10_000L,
+    100_000L,
+    1_000_000L,
+    10_000_000L,
+    100_000_000L,
+    1_000_000_000L,
+    10_000_000_000L,
+    100_000_000_000L,
+    1_000_000_000_000L,
+    10_000_000_000_000L,
+    100_000_000_000_000L,
+    1_000_000_000_000_000L,
+    10_000_000_000_000_000L,
+    100_000_000_000_000_000L,
+    1_000_000_000_000_000_000L
+  };
+
+  private static final byte LONG_EXACT = 0;
+  private static final byte LONG_FRACTION = 1;
+  private static final byte LONG_OUT_OF_RANGE = 2;
+
+  private final boolean negative;
+  private final long significand;
+  private final int significantDigits;
+  private final long exponent;
+  private final double doubleValue;
+  private final long longValue;
+  private final byte longState;
+
+  private JSONDecimal(
+      boolean negative,
+      long significand,
+      int significantDigits,
+      long exponent,
+      double doubleValue,
+      long longValue,
+      byte longState) {
+    this.negative = negative;
+    this.significand = significand;
+    this.significantDigits = significantDigits;
+    this.exponent = exponent;
+    this.doubleValue = doubleValue;
+    this.longValue = longValue;
+    this.longState = longState;
+  }
+
+  /**
+   * Parse the given text as a JSON number.
+   *
+   * @param text text of a JSON number
+   * @return decimal value of the given JSON number
+   * @throws NumberFormatException when the given text does not fulfill the number format defined by
+   *     <a href="https://tools.ietf.org/html/rfc8259#section-6">RFC 8259 - 6. Numbers</a>.
+   */
+  @NotNull
+  public static JSONDecimal parse(@NotNull CharSequence text) throws NumberFormatException {
+    Scanner scanner = new Scanner();
+    int len = text.length();
+    int i = 0;
+
+    if (i < len && text.charAt(i) == '-') {
+      scanner.negative();
+      i++;
+    }
+
+    if (i < len && text.charAt(i) == '0') {
+      scanner.integerDigit('0');
+      i++;
+    } else if (i < len && isDigit(text.charAt(i))) {
+      while (i < len && isDigit(text.charAt(i))) {
+        scanner.integerDigit(text.charAt(i++));
+      }
+    } else {
+      throw invalidNumber(text);
+    }
+
+    if (i < len && text.charAt(i) == '.') {
+      int start = ++i;
+      while (i < len && isDigit(text.charAt(i))) {
+        scanner.fractionDigit(text.charAt(i++));
+      }
+      if (i == start) {
+        throw invalidNumber(text);
+      }
+    }
+
+    if (i < len && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+      i++;
+      if (i < len && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+        scanner.exponentSign(text.charAt(i++));
+      }
+      int start = i;
+      while (i < len && isDigit(text.charAt(i))) {
+        scanner.exponentDigit(text.charAt(i++));
+      }
+      if (i == start) {
+        throw invalidNumber(text);
+      }
+    }
+
+    if (i != len) {
+      throw invalidNumber(text);
+    }
+
+    return scanner.toDecimal(text);
+  }
+
+  private static boolean isDigit(char ch) {
+    return '0' <= ch && ch <= '9';
+  }
+
+  private static NumberFormatException invalidNumber(CharSequence text) {
+    return new NumberFormatException(
+        "The given text '"
+            + text
+            + "' does not match the pattern of JSON numbers defined in RFC 8259.");
+  }
+
+  /**
+   * Whether this number has a negative sign. Note that "-0" has a negative sign.
+   *
+   * @return whether this number has a negative sign
+   */
+  public boolean isNegative() {
+    return negative;
+  }
+
+  /**
+   * The significant digits of this number as a 64-bit unsigned integer, without leading and
+   * trailing zeros.
+   *
+   * <p>If this number has more than 19 significant digits, this method returns only the first 19
+   * digits.
+   *
+   * @return the significant digits as a 64-bit unsigned integer
+   */
+  public long significand() {
+    return significand;
+  }
+
+  /**
+   * The number of significant digits of this number. Zero if this number is zero.
+   *
+   * @return the number of significant digits
+   */
+  public int significantDigits() {
+    return significantDigits;
+  }
+
+  /**
+   * The power of ten by which all the significant digits are multiplied.
+   *
+   * <p>Extremely large or small exponents are saturated at around &plusmn;10^17.
+   *
+   * @return the decimal exponent of this number
+   */
+  public long exponent() {
+    return exponent;
+  }
+
+  /**
+   * The nearest Java double value of this number, which is the same as the result of {@link
+   * Double#parseDouble(String)}.
+   *
+   * @return the nearest Java double value of this number
+   */
+  public double toDouble() {
+    return doubleValue;
+  }
+
+  /**
+   * Whether this number is an integer within the range of Java long.
+   *
+   * @return whether this number can be converted to a Java long value
+   */
+  public boolean canBeLong() {
+    return longState == LONG_EXACT;
+  }
+
+  /**
+   * Whether this number has a non-zero fractional part.
+   *
+   * @return whether this number has a non-zero fractional part
+   */
+  public boolean hasFraction() {
+    return longState == LONG_FRACTION;
+  }
+
+  /**
+   * The Java long value of this number. The returned value is valid only if {@link #canBeLong()}
+   * returns true.
+   *
+   * @return the Java long value of this number
+   */
+  public long toLong() {
+    return longValue;
+  }
+
+  /**
+   * Receives characters of a JSON number one by one, and creates a {@link JSONDecimal}.
+   *
+   * <p>This class does not validate the order of the characters. The caller must validate that the
+   * characters comply with <a href="https://tools.ietf.org/html/rfc8259#section-6">RFC 8259 - 6.
+   * Numbers</a>. One instance can be reused for multiple numbers by calling {@link #reset()}.
+   *
+   * <p>Instances of this class are not thread-safe.
+   */
+  public static final class Scanner {
+    private boolean negative;
+    private long significand;
+    private int digits;
+    private int significantDigits;
+    private long fractionDigits;
+    private long exponent;
+    private boolean negativeExponent;
+
+    /** Create a scanner for one JSON number. */
+    public Scanner() {
+      reset();
+    }
+
+    /** Forget the scanned characters to scan another JSON number. */
+    public void reset() {
+      negative = false;
+      significand = 0;
+      digits = 0;
+      significantDigits = 0;
+      fractionDigits = 0;
+      exponent = 0;
+      negativeExponent = false;
+    }
+
+    /** Receive the negative sign '-' at the beginning of a JSON number. */
+    public void negative() {
+      negative = true;
+    }
+
+    /**
+     * Receive a digit in the integer part.
+     *
+     * @param ch a character from '0' to '9'
+     */
+    public void integerDigit(char ch) {
+      digit(ch - '0');
+    }
+
+    /**
+     * Receive a digit in the fraction part.
+     *
+     * @param ch a character from '0' to '9'
+     */
+    public void fractionDigit(char ch) {
+      fractionDigits++;
+      digit(ch - '0');
+    }
+
+    /**
+     * Receive the sign of the exponent part.
+     *
+     * @param ch '+' or '-'
+     */
+    public void exponentSign(char ch) {
+      negativeExponent = (ch == '-');
+    }
+
+    /**
+     * Receive a digit in the exponent part.
+     *
+     * @param ch a character from '0' to '9'
+     */
+    public void exponentDigit(char ch) {
+      if (exponent < EXPONENT_LIMIT) {
+        exponent = exponent * 10 + (ch - '0');
+      }
+    }
+
+    private void digit(int digit) {
+      if (digits == 0 && digit == 0) {
+        // leading zero
+        return;
+      }
+
+      if (digits < MAX_DIGITS) {
+        significand = significand * 10 + digit;
+      }
+      digits++;
+      if (digit != 0) {
+        significantDigits = digits;
+      }
+    }
+
+    /**
+     * Create a {@link JSONDecimal} from the received characters.
+     *
+     * @param text the whole text of the JSON number, which is parsed by {@link
+     *     Double#parseDouble(String)} in the rare cases where the fast algorithm cannot decide the
+     *     nearest double value
+     * @return the decimal value of the received JSON number
+     */
+    @NotNull
+    public JSONDecimal toDecimal(@NotNull CharSequence text) {
+      if (significantDigits == 0) {
+        return new JSONDecimal(negative, 0, 0, 0, negative ? -0.0 : 0.0, 0, LONG_EXACT);
+      }
+
+      long exp = Math.min(exponent, EXPONENT_LIMIT);
+      long lastDigitExponent =
+          (negativeExponent ? -exp : exp) - fractionDigits + (digits - significantDigits);
+
+      long w;
+      double d;
+      if (significantDigits <= MAX_DIGITS) {
+        int trailingZeros = Math.min(digits, MAX_DIGITS) - significantDigits;
+        w = Long.divideUnsigned(significand, POWERS_OF_TEN[trailingZeros]);
+        d = DecimalToDouble.convert(negative, w, lastDigitExponent);
+      } else {
+        // The digits after the first 19 digits are truncated. The exact value is between
+        // w * 10^q and (w + 1) * 10^q.
+        w = significand;
+        long q = lastDigitExponent + significantDigits - MAX_DIGITS;
+        d = DecimalToDouble.convert(negative, w, q);
+        if (d != DecimalToDouble.convert(negative, w + 1, q)) {
+          d = Double.NaN;
+        }
+      }
+
+      if (Double.isNaN(d)) {
+        d = Double.parseDouble(text.toString());
+      }
+
+      long longValue = 0;
+      byte longState;
+      if (lastDigitExponent < 0) {
+        longState = LONG_FRACTION;
+      } else if (significantDigits + lastDigitExponent > MAX_DIGITS) {
+        longState = LONG_OUT_OF_RANGE;
+      } else {
+        // w * 10^e has at most 19 digits, so it never overflows as a 64-bit unsigned integer.
+        long v = w * POWERS_OF_TEN[(int) lastDigitExponent];
+        if (Long.compareUnsigned(v, negative ? Long.MIN_VALUE : Long.MAX_VALUE) <= 0) {
+          longValue = negative ? -v : v;
+          longState = LONG_EXACT;
+        } else {
+          longState = LONG_OUT_OF_RANGE;
+        }
+      }
+
+      return new JSONDecimal(
+          negative, w, significantDigits, lastDigitExponent, d, longValue, longState);
+    }
+  }
+}
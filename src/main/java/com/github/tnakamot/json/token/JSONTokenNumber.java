@@ -17,7 +17,6 @@
 package com.github.tnakamot.json.token;
 
 import com.github.tnakamot.json.JSONText;
-import com.github.tnakamot.json.value.JSONValueNumber;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -33,6 +32,8 @@ import org.jetbrains.annotations.NotNull;
  * <p>Instances of this class are immutable.
  */
 public class JSONTokenNumber extends JSONToken {
+  private final JSONDecimal decimal;
+
   /**
    * Creates one "number" type token of a JSON text.
    *
@@ -43,20 +44,38 @@ public class JSONTokenNumber extends JSONToken {
    * @param begin beginning location of this token within the source JSON text
    * @param end end location of this token within the source JSON text
    * @param source source JSON text where this token was extracted from
+   * @throws NumberFormatException when the given text does not fulfill the number format defined by
+   *     <a href="https://tools.ietf.org/html/rfc8259#section-6">RFC 8259 - 6. Numbers</a>.
    */
   public JSONTokenNumber(
       @NotNull String text,
       @NotNull StringLocation begin,
       @NotNull StringLocation end,
       @NotNull JSONText source) {
-    super(JSONTokenType.NUMBER, text, begin, end, source);
+    this(text, JSONDecimal.parse(text), begin, end, source);
+  }
 
-    if (!text.matches(JSONValueNumber.NUMBER_PATTERN)) {
-      throw new NumberFormatException(
-          "The given text '"
-              + text
-              + "' does not match the pattern of JSON numbers defined in RFC 8259.");
-    }
+  /**
+   * Creates one "number" type token of a JSON text with its decimal value which has been computed
+   * while the text was scanned.
+   *
+   * <p>It is the caller's responsibility to make sure that the given decimal value is of the given
+   * text.
+   *
+   * @param text text of this token
+   * @param decimal decimal value of this token
+   * @param begin beginning location of this token within the source JSON text
+   * @param end end location of this token within the source JSON text
+   * @param source source JSON text where this token was extracted from
+   */
+  public JSONTokenNumber(
+      @NotNull String text,
+      @NotNull JSONDecimal decimal,
+      @NotNull StringLocation begin,
+      @NotNull StringLocation end,
+      @NotNull JSONText source) {
+    super(JSONTokenType.NUMBER, text, begin, end, source);
+    this.decimal = decimal;
   }
 
   /**
@@ -70,4 +89,13 @@ public class JSONTokenNumber extends JSONToken {
   public @NotNull String text() {
     return text;
   }
+
+  /**
+   * Decimal value of this token.
+   *
+   * @return decimal value of this token
+   */
+  public @NotNull JSONDecimal decimal() {
+    return decimal;
+  }
 }
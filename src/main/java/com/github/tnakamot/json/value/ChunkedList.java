@@ -0,0 +1,273 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A list which stores elements in fixed-size chunks instead of one contiguous array.
+ *
+ * <p>Appending an element never copies the existing elements, and a very large list does not
+ * require one huge contiguous array. The first chunk grows gradually so that small lists do not
+ * waste memory.
+ *
+ * <p>{@link #freeze()} returns a read-only snapshot which shares the chunks with this list. This
+ * list copies a shared chunk before it modifies the chunk for the first time (copy-on-write), so
+ * the snapshot never changes.
+ *
+ * <p>Instances of this class are not thread-safe, but frozen instances are immutable.
+ *
+ * @param <E> type of elements
+ */
+final class ChunkedList<E> extends AbstractList<E> implements RandomAccess {
+  static final int CHUNK_SHIFT = 10;
+  static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int FIRST_CHUNK_CAPACITY = 8;
+
+  private Object[][] chunks;
+  private boolean[] shared;
+  private int size;
+  private final boolean frozen;
+
+  /** Create an empty list. */
+  ChunkedList() {
+    this.chunks = new Object[1][];
+    this.shared = new boolean[1];
+    this.size = 0;
+    this.frozen = false;
+  }
+
+  /**
+   * Create a list which contains the elements of the given collection.
+   *
+   * @param c collection whose elements are to be placed into this list
+   */
+  ChunkedList(Collection<? extends E> c) {
+    this();
+    addAll(c);
+  }
+
+  private ChunkedList(Object[][] chunks, int size, boolean frozen) {
+    this.chunks = chunks;
+    this.shared = new boolean[chunks.length];
+    this.size = size;
+    this.frozen = frozen;
+    if (!frozen) {
+      Arrays.fill(shared, true);
+    }
+  }
+
+  /**
+   * Returns a read-only snapshot of this list without copying the elements.
+   *
+   * @return a read-only list which contains the same elements as this list
+   */
+  ChunkedList<E> freeze() {
+    if (frozen) {
+      return this;
+    }
+
+    return new ChunkedList<>(shareChunks(), size, true);
+  }
+
+  /**
+   * Returns a modifiable copy of this list without copying the elements.
+   *
+   * <p>Both lists copy a chunk before they modify it for the first time, so modifications to one
+   * list are not visible from the other. Modifying one element of the copy costs a copy of the
+   * chunk directory and a copy of one chunk.
+   *
+   * @return a modifiable list which contains the same elements as this list
+   */
+  ChunkedList<E> thaw() {
+    return new ChunkedList<>(shareChunks(), size, false);
+  }
+
+  private Object[][] shareChunks() {
+    int chunkCount = chunkCount(size);
+    if (!frozen) {
+      Arrays.fill(shared, 0, chunkCount, true);
+    }
+    return Arrays.copyOf(chunks, Math.max(chunkCount, 1));
+  }
+
+  private static int chunkCount(int size) {
+    return (size + CHUNK_MASK) >>> CHUNK_SHIFT;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    Objects.checkIndex(index, size);
+    return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  @Override
+  public E set(int index, E element) {
+    checkMutable();
+    Objects.checkIndex(index, size);
+    E old = get(index);
+    writableChunk(index >>> CHUNK_SHIFT)[index & CHUNK_MASK] = element;
+    return old;
+  }
+
+  @Override
+  public boolean add(E element) {
+    checkMutable();
+    ensureCapacity(size + 1);
+    writableChunk(size >>> CHUNK_SHIFT)[size & CHUNK_MASK] = element;
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public void add(int index, E element) {
+    checkMutable();
+    Objects.checkIndex(index, size + 1);
+    ensureCapacity(size + 1);
+    for (int i = size; i > index; i--) {
+      writableChunk(i >>> CHUNK_SHIFT)[i & CHUNK_MASK] = get(i - 1);
+    }
+    writableChunk(index >>> CHUNK_SHIFT)[index & CHUNK_MASK] = element;
+    size++;
+    modCount++;
+  }
+
+  @Override
+  public E remove(int index) {
+    checkMutable();
+    E old = get(index);
+    for (int i = index + 1; i < size; i++) {
+      writableChunk((i - 1) >>> CHUNK_SHIFT)[(i - 1) & CHUNK_MASK] = get(i);
+    }
+    truncate(size - 1);
+    modCount++;
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    checkMutable();
+    truncate(0);
+    modCount++;
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    checkMutable();
+    Objects.requireNonNull(filter);
+
+    int newSize = 0;
+    for (int i = 0; i < size; i++) {
+      E element = get(i);
+      if (!filter.test(element)) {
+        if (newSize != i) {
+          writableChunk(newSize >>> CHUNK_SHIFT)[newSize & CHUNK_MASK] = element;
+        }
+        newSize++;
+      }
+    }
+
+    if (newSize == size) {
+      return false;
+    }
+    truncate(newSize);
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(c::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    Objects.requireNonNull(c);
+    return removeIf(e -> !c.contains(e));
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] ret = new Object[size];
+    for (int offset = 0; offset < size; offset += CHUNK_SIZE) {
+      System.arraycopy(
+          chunks[offset >>> CHUNK_SHIFT], 0, ret, offset, Math.min(CHUNK_SIZE, size - offset));
+    }
+    return ret;
+  }
+
+  /** Drop the elements at and after the given index. */
+  private void truncate(int newSize) {
+    int chunkCount = chunkCount(newSize);
+    for (int k = chunkCount(size) - 1; k >= chunkCount; k--) {
+      chunks[k] = null;
+      shared[k] = false;
+    }
+
+    if (newSize < size && (newSize & CHUNK_MASK) != 0) {
+      Object[] last = writableChunk(newSize >>> CHUNK_SHIFT);
+      Arrays.fill(last, newSize & CHUNK_MASK, Math.min(last.length, CHUNK_SIZE), null);
+    }
+    size = newSize;
+  }
+
+  private void ensureCapacity(int capacity) {
+    int k = (capacity - 1) >>> CHUNK_SHIFT;
+    if (k >= chunks.length) {
+      int newLength = Math.max(chunks.length * 2, k + 1);
+      chunks = Arrays.copyOf(chunks, newLength);
+      shared = Arrays.copyOf(shared, newLength);
+    }
+
+    if (chunks[k] == null) {
+      chunks[k] = new Object[k == 0 ? FIRST_CHUNK_CAPACITY : CHUNK_SIZE];
+      shared[k] = false;
+    } else if (k == 0 && chunks[0].length < capacity) {
+      int newLength = Math.min(Math.max(chunks[0].length * 2, capacity), CHUNK_SIZE);
+      chunks[0] = Arrays.copyOf(chunks[0], newLength);
+      shared[0] = false;
+    }
+  }
+
+  private Object[] writableChunk(int k) {
+    if (shared[k]) {
+      chunks[k] = chunks[k].clone();
+      shared[k] = false;
+    }
+    return chunks[k];
+  }
+
+  private void checkMutable() {
+    if (frozen) {
+      throw new UnsupportedOperationException("this object is immutable.");
+    }
+  }
+}
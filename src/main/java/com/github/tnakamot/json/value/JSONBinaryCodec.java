@@ -0,0 +1,618 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes JSON values to a compact binary format, and decodes them back to immutable JSON values.
+ *
+ * <p>Decoding the binary format is much cheaper than parsing a JSON text because it requires no
+ * tokenization, no unescaping and no number parsing for integers. It is intended to pass JSON
+ * values between processes or to store them in caches. Use a JSON text to exchange JSON values
+ * with other applications.
+ *
+ * <p>The binary format consists of the following items. Multi-byte integers are big-endian.
+ * "varint" is an unsigned integer in 7-bit groups, least significant group first, where the most
+ * significant bit of each byte indicates that more bytes follow. "string" is a varint which
+ * indicates the number of bytes, followed by the characters encoded in CESU-8 (same as UTF-8 except
+ * that each UTF-16 code unit of a supplementary character is encoded separately, so that unpaired
+ * surrogates are kept as they are).
+ *
+ * <ul>
+ *   <li>Header: 'J', 'B' and the version (1), 3 bytes in total.
+ *   <li>Key dictionary: a varint which indicates the number of keys, followed by the keys. Each key
+ *       is a string. The names of JSON object members are stored here only once, and referred by
+ *       their indexes.
+ *   <li>Root value, which is one of the following. Each value begins with one byte tag.
+ *       <ul>
+ *         <li>0x00: null
+ *         <li>0x01: false
+ *         <li>0x02: true
+ *         <li>0x03: number whose text is the same as {@link Long#toString(long)} of its value.
+ *             The tag is followed by a varint of the ZigZag encoded value.
+ *         <li>0x04: other numbers. The tag is followed by a string of {@link
+ *             JSONValueNumber#text()} so that the number is restored exactly as it is.
+ *         <li>0x05: string. The tag is followed by a string.
+ *         <li>0x06: array. The tag is followed by a 4-byte integer which indicates the number of
+ *             bytes of the rest of this array, a varint which indicates the number of elements,
+ *             and the elements.
+ *         <li>0x07: object. The tag is followed by a 4-byte integer which indicates the number of
+ *             bytes of the rest of this object, a varint which indicates the number of members, and
+ *             the members. Each member is a varint index of its name in the key dictionary followed
+ *             by its value.
+ *       </ul>
+ * </ul>
+ *
+ * <p>Because arrays and objects are prefixed by their lengths in bytes, readers can jump over them
+ * without decoding them. {@link #decode(byte[], String...)} uses this to decode only a part of the
+ * encoded JSON value.
+ *
+ * <p>The decoded JSON values do not have the source JSON text information (e.g. {@link
+ * JSONValuePrimitive#token()}), so {@link JSONValue#toTokenString()} of the decoded JSON values is
+ * not always the same as the one of the original JSON values (e.g. escape sequences in JSON
+ * strings), though they are equal.
+ */
+public final class JSONBinaryCodec {
+  static final int VERSION = 1;
+
+  static final byte TAG_NULL = 0x00;
+  static final byte TAG_FALSE = 0x01;
+  static final byte TAG_TRUE = 0x02;
+  static final byte TAG_INTEGER = 0x03;
+  static final byte TAG_NUMBER = 0x04;
+  static final byte TAG_STRING = 0x05;
+  static final byte TAG_ARRAY = 0x06;
+  static final byte TAG_OBJECT = 0x07;
+
+  private static final byte[] HEADER = {'J', 'B', VERSION};
+
+  private JSONBinaryCodec() {}
+
+  /**
+   * Encode the given JSON value to the binary format.
+   *
+   * @param value JSON value to encode
+   * @return the encoded JSON value
+   */
+  @NotNull
+  public static byte[] encode(@NotNull JSONValue value) {
+    Encoder encoder = new Encoder();
+    encoder.writeValue(value);
+
+    Output header = new Output();
+    encoder.writeHeader(header);
+
+    byte[] ret = new byte[header.size + encoder.body.size];
+    System.arraycopy(header.buf, 0, ret, 0, header.size);
+    System.arraycopy(encoder.body.buf, 0, ret, header.size, encoder.body.size);
+    return ret;
+  }
+
+  /**
+   * Encode the given JSON value to the binary format and write it to the given stream. The stream
+   * is not flushed or closed.
+   *
+   * @param value JSON value to encode
+   * @param out destination
+   * @throws IOException if an I/O error occurs
+   */
+  public static void encode(@NotNull JSONValue value, @NotNull OutputStream out)
+      throws IOException {
+    Encoder encoder = new Encoder();
+    encoder.writeValue(value);
+
+    Output header = new Output();
+    encoder.writeHeader(header);
+
+    out.write(header.buf, 0, header.size);
+    out.write(encoder.body.buf, 0, encoder.body.size);
+  }
+
+  /**
+   * Decode the given binary data to an immutable JSON value.
+   *
+   * @param data JSON value encoded by {@link #encode(JSONValue)}
+   * @return the decoded JSON value
+   * @throws IllegalArgumentException if the given data is malformed
+   */
+  @NotNull
+  public static JSONValue decode(@NotNull byte[] data) throws IllegalArgumentException {
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    JSONValue ret = decode(buffer);
+    if (buffer.hasRemaining()) {
+      throw new IllegalArgumentException("malformed binary JSON: trailing data");
+    }
+    return ret;
+  }
+
+  /**
+   * Decode the binary data from the position of the given buffer to an immutable JSON value. The
+   * position of the buffer is moved to the end of the binary data.
+   *
+   * @param data JSON value encoded by {@link #encode(JSONValue)}
+   * @return the decoded JSON value
+   * @throws IllegalArgumentException if the given data is malformed
+   */
+  @NotNull
+  public static JSONValue decode(@NotNull ByteBuffer data) throws IllegalArgumentException {
+    // duplicate() reads the data in big-endian regardless of the byte order of the given buffer.
+    ByteBuffer in = data.duplicate();
+    try {
+      Decoder decoder = new Decoder(in);
+      JSONValue ret = decoder.readValue();
+      data.position(in.position());
+      return ret;
+    } catch (BufferUnderflowException ex) {
+      throw new IllegalArgumentException("malformed binary JSON: unexpected end of data", ex);
+    }
+  }
+
+  /**
+   * Decode a part of the given binary data. The path specifies the JSON value to decode in the same
+   * way as the reference tokens of JSON Pointer. Each element of the path is a name of a member of
+   * a JSON object, or an index of an element of a JSON array in decimal. The JSON arrays and
+   * objects which are not on the path are skipped without being decoded.
+   *
+   * @param data JSON value encoded by {@link #encode(JSONValue)}
+   * @param path names and indexes which specify the JSON value to decode. Empty means the root.
+   * @return the decoded JSON value, or null if the path does not point to an existing JSON value
+   * @throws IllegalArgumentException if the given data is malformed
+   */
+  @Nullable
+  public static JSONValue decode(@NotNull byte[] data, @NotNull String... path)
+      throws IllegalArgumentException {
+    try {
+      Decoder decoder = new Decoder(ByteBuffer.wrap(data));
+      for (String element : path) {
+        if (!decoder.moveTo(element)) {
+          return null;
+        }
+      }
+      return decoder.readValue();
+    } catch (BufferUnderflowException ex) {
+      throw new IllegalArgumentException("malformed binary JSON: unexpected end of data", ex);
+    }
+  }
+
+  /** Growable byte array. */
+  private static final class Output {
+    private byte[] buf = new byte[64];
+    private int size = 0;
+
+    private void ensure(int n) {
+      if (size + n > buf.length) {
+        byte[] newBuf = new byte[Math.max(buf.length << 1, size + n)];
+        System.arraycopy(buf, 0, newBuf, 0, size);
+        buf = newBuf;
+      }
+    }
+
+    private void writeByte(int b) {
+      ensure(1);
+      buf[size++] = (byte) b;
+    }
+
+    private void writeVarint(long v) {
+      ensure(10);
+      while ((v & ~0x7FL) != 0) {
+        buf[size++] = (byte) ((v & 0x7F) | 0x80);
+        v >>>= 7;
+      }
+      buf[size++] = (byte) v;
+    }
+
+    private void writeIntAt(int pos, int v) {
+      buf[pos] = (byte) (v >>> 24);
+      buf[pos + 1] = (byte) (v >>> 16);
+      buf[pos + 2] = (byte) (v >>> 8);
+      buf[pos + 3] = (byte) v;
+    }
+
+    private void writeString(@NotNull String str) {
+      int length = str.length();
+      int byteLength = 0;
+      for (int i = 0; i < length; i++) {
+        char c = str.charAt(i);
+        byteLength += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+      }
+
+      writeVarint(byteLength);
+      ensure(byteLength);
+      for (int i = 0; i < length; i++) {
+        char c = str.charAt(i);
+        if (c < 0x80) {
+          buf[size++] = (byte) c;
+        } else if (c < 0x800) {
+          buf[size++] = (byte) (0xC0 | (c >> 6));
+          buf[size++] = (byte) (0x80 | (c & 0x3F));
+        } else {
+          buf[size++] = (byte) (0xE0 | (c >> 12));
+          buf[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+          buf[size++] = (byte) (0x80 | (c & 0x3F));
+        }
+      }
+    }
+  }
+
+  private static final class Encoder {
+    private final Output body = new Output();
+    private final Map<String, Integer> keyIndexes = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+
+    private void writeHeader(@NotNull Output out) {
+      for (byte b : HEADER) {
+        out.writeByte(b);
+      }
+      out.writeVarint(keys.size());
+      for (String key : keys) {
+        out.writeString(key);
+      }
+    }
+
+    private void writeValue(@NotNull JSONValue value) {
+      switch (value.type()) {
+        case NULL:
+          body.writeByte(TAG_NULL);
+          break;
+        case BOOLEAN:
+          body.writeByte(((JSONValueBoolean) value).value() ? TAG_TRUE : TAG_FALSE);
+          break;
+        case NUMBER:
+          if (JSONValueArrayLong.isPlainLong(value)) {
+            long l = ((JSONValueNumber) value).toLong();
+            body.writeByte(TAG_INTEGER);
+            body.writeVarint((l << 1) ^ (l >> 63));
+          } else {
+            body.writeByte(TAG_NUMBER);
+            body.writeString(((JSONValueNumber) value).text());
+          }
+          break;
+        case STRING:
+          body.writeByte(TAG_STRING);
+          body.writeString(((JSONValueString) value).value());
+          break;
+        case ARRAY:
+          writeArray((JSONValueArray) value);
+          break;
+        case OBJECT:
+          writeObject((JSONValueObject) value);
+          break;
+        default:
+          throw new IllegalArgumentException("unknown JSON value type: " + value.type());
+      }
+    }
+
+    private void writeArray(@NotNull JSONValueArray array) {
+      body.writeByte(TAG_ARRAY);
+      int lengthPos = reserveLength();
+      body.writeVarint(array.size());
+      for (JSONValue element : JSONValueStructured.elementsOf(array)) {
+        writeValue(element);
+      }
+      fillLength(lengthPos);
+    }
+
+    private void writeObject(@NotNull JSONValueObject value) {
+      body.writeByte(TAG_OBJECT);
+      int lengthPos = reserveLength();
+      body.writeVarint(value.size());
+      if (value instanceof JSONValueObjectImmutable) {
+        JSONValueObjectImmutable object = (JSONValueObjectImmutable) value;
+        for (int i = 0; i < object.size(); i++) {
+          writeMember(object.keyAt(i), object.valueAt(i));
+        }
+      } else {
+        for (Map.Entry<JSONValueString, JSONValue> entry : JSONValueStructured.membersOf(value)) {
+          writeMember(entry.getKey(), entry.getValue());
+        }
+      }
+      fillLength(lengthPos);
+    }
+
+    private void writeMember(@NotNull JSONValueString key, @NotNull JSONValue value) {
+      String name = key.value();
+      Integer index = keyIndexes.get(name);
+      if (index == null) {
+        index = keys.size();
+        keyIndexes.put(name, index);
+        keys.add(name);
+      }
+      body.writeVarint(index);
+      writeValue(value);
+    }
+
+    private int reserveLength() {
+      body.ensure(4);
+      int pos = body.size;
+      body.size += 4;
+      return pos;
+    }
+
+    private void fillLength(int pos) {
+      body.writeIntAt(pos, body.size - pos - 4);
+    }
+  }
+
+  private static final class Decoder {
+    private final ByteBuffer in;
+    private final JSONValueString[] keys;
+    private final int[] keyMarks;
+    private int objectCount = 0;
+
+    private Decoder(@NotNull ByteBuffer in) {
+      this.in = in;
+
+      for (byte b : HEADER) {
+        if (in.get() != b) {
+          throw malformed("invalid header");
+        }
+      }
+
+      int keyCount = readCount();
+      this.keys = new JSONValueString[keyCount];
+      this.keyMarks = new int[keyCount];
+      Set<String> names = new HashSet<>();
+      for (int i = 0; i < keyCount; i++) {
+        String name = readString();
+        if (!names.add(name)) {
+          throw malformed("duplicate key in the key dictionary: " + name);
+        }
+        keys[i] = new JSONValueString(name);
+      }
+    }
+
+    @NotNull
+    private JSONValue readValue() {
+      byte tag = in.get();
+      switch (tag) {
+        case TAG_NULL:
+          return JSONValueNull.INSTANCE;
+        case TAG_FALSE:
+          return JSONValueBoolean.FALSE;
+        case TAG_TRUE:
+          return JSONValueBoolean.TRUE;
+        case TAG_INTEGER:
+          {
+            long v = readVarint();
+            return JSONValueNumber.valueOf((v >>> 1) ^ -(v & 1));
+          }
+        case TAG_NUMBER:
+          try {
+            return new JSONValueNumber(readString());
+          } catch (NumberFormatException ex) {
+            throw malformed("invalid number: " + ex.getMessage());
+          }
+        case TAG_STRING:
+          return new JSONValueString(readString());
+        case TAG_ARRAY:
+          {
+            int end = readEnd();
+            int count = readCount();
+            List<JSONValue> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+              values.add(readValue());
+            }
+            checkEnd(end);
+            return JSONValueArrayImmutable.of(values, null, null);
+          }
+        case TAG_OBJECT:
+          {
+            int end = readEnd();
+            int count = readCount();
+            int[] indexes = new int[count];
+            JSONValueString[] names = new JSONValueString[count];
+            JSONValue[] values = new JSONValue[count];
+            for (int i = 0; i < count; i++) {
+              indexes[i] = readKeyIndex();
+              names[i] = keys[indexes[i]];
+              values[i] = readValue();
+            }
+            checkEnd(end);
+
+            // Check the names after the values have been read, because nested JSON objects share
+            // the marks.
+            int mark = ++objectCount;
+            for (int index : indexes) {
+              if (keyMarks[index] == mark) {
+                throw malformed("duplicate member name: " + keys[index].value());
+              }
+              keyMarks[index] = mark;
+            }
+            return new JSONValueObjectImmutable(names, values, null, null);
+          }
+        default:
+          throw malformed("unknown tag: " + tag);
+      }
+    }
+
+    /**
+     * Move to the element or the member of the JSON array or object at the current position.
+     *
+     * @param element index of the element or the name of the member
+     * @return false if the current value is not a JSON array or object, or does not have the
+     *     element or the member
+     */
+    private boolean moveTo(@NotNull String element) {
+      byte tag = in.get();
+      if (tag == TAG_ARRAY) {
+        readEnd();
+        int count = readCount();
+        int index = parseIndex(element);
+        if (index < 0 || index >= count) {
+          return false;
+        }
+        for (int i = 0; i < index; i++) {
+          skipValue();
+        }
+        return true;
+      } else if (tag == TAG_OBJECT) {
+        readEnd();
+        int count = readCount();
+        for (int i = 0; i < count; i++) {
+          if (keys[readKeyIndex()].value().equals(element)) {
+            return true;
+          }
+          skipValue();
+        }
+        return false;
+      } else {
+        return false;
+      }
+    }
+
+    private static int parseIndex(@NotNull String element) {
+      if (element.isEmpty() || element.length() > 9) {
+        return -1;
+      }
+      if (element.length() > 1 && element.charAt(0) == '0') {
+        return -1;
+      }
+      int ret = 0;
+      for (int i = 0; i < element.length(); i++) {
+        char c = element.charAt(i);
+        if (c < '0' || c > '9') {
+          return -1;
+        }
+        ret = ret * 10 + (c - '0');
+      }
+      return ret;
+    }
+
+    private void skipValue() {
+      byte tag = in.get();
+      switch (tag) {
+        case TAG_NULL:
+        case TAG_FALSE:
+        case TAG_TRUE:
+          break;
+        case TAG_INTEGER:
+          readVarint();
+          break;
+        case TAG_NUMBER:
+        case TAG_STRING:
+          skip(readCount());
+          break;
+        case TAG_ARRAY:
+        case TAG_OBJECT:
+          in.position(readEnd());
+          break;
+        default:
+          throw malformed("unknown tag: " + tag);
+      }
+    }
+
+    private void skip(int n) {
+      if (n > in.remaining()) {
+        throw new BufferUnderflowException();
+      }
+      in.position(in.position() + n);
+    }
+
+    private int readEnd() {
+      int length = in.getInt();
+      if (length < 0 || length > in.remaining()) {
+        throw malformed("invalid length: " + length);
+      }
+      return in.position() + length;
+    }
+
+    private void checkEnd(int end) {
+      if (in.position() != end) {
+        throw malformed("length mismatch");
+      }
+    }
+
+    private int readKeyIndex() {
+      long index = readVarint();
+      if (index < 0 || index >= keys.length) {
+        throw malformed("invalid key index: " + index);
+      }
+      return (int) index;
+    }
+
+    /** Read a varint of a count, which cannot exceed the number of remaining bytes. */
+    private int readCount() {
+      long count = readVarint();
+      if (count < 0 || count > in.remaining()) {
+        throw malformed("invalid count: " + count);
+      }
+      return (int) count;
+    }
+
+    private long readVarint() {
+      long ret = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = in.get();
+        ret |= (long) (b & 0x7F) << shift;
+        if (b >= 0) {
+          return ret;
+        }
+      }
+      throw malformed("too long varint");
+    }
+
+    @NotNull
+    private String readString() {
+      int length = readCount();
+      char[] chars = new char[length];
+      int n = 0;
+      int end = in.position() + length;
+      while (in.position() < end) {
+        int b = in.get() & 0xFF;
+        if (b < 0x80) {
+          chars[n++] = (char) b;
+        } else if ((b & 0xE0) == 0xC0) {
+          chars[n++] = (char) (((b & 0x1F) << 6) | continuation());
+        } else if ((b & 0xF0) == 0xE0) {
+          int c = continuation();
+          chars[n++] = (char) (((b & 0x0F) << 12) | (c << 6) | continuation());
+        } else {
+          throw malformed("invalid string encoding");
+        }
+      }
+      if (in.position() != end) {
+        throw malformed("invalid string encoding");
+      }
+      return new String(chars, 0, n);
+    }
+
+    private int continuation() {
+      int b = in.get() & 0xFF;
+      if ((b & 0xC0) != 0x80) {
+        throw malformed("invalid string encoding");
+      }
+      return b & 0x3F;
+    }
+
+    @NotNull
+    private static IllegalArgumentException malformed(@NotNull String message) {
+      return new IllegalArgumentException("malformed binary JSON: " + message);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A precomputed name to look up members of JSON objects repeatedly.
+ *
+ * <p>An instance of this class holds the name, its hash code and the name as a {@link
+ * JSONValueString} so that {@link JSONValueObject#get(JSONKey)} does not need to compute or
+ * allocate anything. It also remembers the position where the name was found last time. When the
+ * same key is used against many JSON objects which have the same members in the same order (e.g.
+ * records in a large JSON array), the member is found at the remembered position without a search.
+ *
+ * <p>Create one instance per name and reuse it:
+ *
+ * <pre>
+ * private static final JSONKey ID = new JSONKey("id");
+ *
+ * for (JSONValue record : records) {
+ *   long id = ((JSONValueObject) record).getLong(ID);
+ * }
+ * </pre>
+ *
+ * <p>Instances of this class are thread-safe. The remembered position is just a hint, so it does
+ * not matter if multiple threads overwrite it.
+ */
+public final class JSONKey {
+  private final String name;
+  private final JSONValueString jsonName;
+  private final int hash;
+  private int slotHint;
+
+  /**
+   * Create a key of the given name.
+   *
+   * @param name name of JSON object members to look up
+   */
+  public JSONKey(@NotNull String name) {
+    if (name == null) {
+      throw new NullPointerException("name cannot be null");
+    }
+
+    this.name = name;
+    this.jsonName = new JSONValueString(name);
+    this.hash = name.hashCode();
+    this.slotHint = 0;
+  }
+
+  /**
+   * Name of this key.
+   *
+   * @return name of this key
+   */
+  @NotNull
+  public String name() {
+    return name;
+  }
+
+  /**
+   * Name of this key as a JSON string value.
+   *
+   * @return name of this key as a JSON string value
+   */
+  @NotNull
+  public JSONValueString jsonName() {
+    return jsonName;
+  }
+
+  /**
+   * Hash code of the name. This is the same as {@link String#hashCode()} of {@link #name()}.
+   *
+   * @return hash code of the name
+   */
+  int hash() {
+    return hash;
+  }
+
+  int slotHint() {
+    return slotHint;
+  }
+
+  void slotHint(int slot) {
+    this.slotHint = slot;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof JSONKey) {
+      return this.name.equals(((JSONKey) obj).name);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
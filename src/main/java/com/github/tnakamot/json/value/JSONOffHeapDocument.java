@@ -0,0 +1,404 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.IntFunction;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A JSON value tree stored outside of the Java heap.
+ *
+ * <p>The whole tree (structure, names, strings and numbers) is encoded into one {@link ByteBuffer}
+ * which is allocated by {@link ByteBuffer#allocateDirect(int)} or by a caller-supplied allocator.
+ * The garbage collector does not need to scan the contents of the buffer, so keeping a large JSON
+ * document resident costs almost nothing in terms of GC.
+ *
+ * <p>{@link #root()} exposes the tree through the existing {@link JSONValue} classes. JSON arrays
+ * are returned as {@link JSONValueArrayOffHeap} and JSON objects are returned as {@link
+ * JSONValueObjectOffHeap}. They are light-weight views which read the buffer on demand. Strings,
+ * numbers, booleans and null are decoded into ordinary JSON values when they are read. Values read
+ * from a document do not have source tokens.
+ *
+ * <pre>
+ * JSONValue parsed = JSONText.fromFile(file).parse().root();
+ * JSONOffHeapDocument document = JSONOffHeapDocument.of(parsed);
+ * parsed = null; // the on-heap tree can be garbage-collected now
+ *
+ * JSONValueObject root = (JSONValueObject) document.root();
+ * </pre>
+ *
+ * <p>One document can hold up to 2 GiB. The buffer is released when the document and all the views
+ * of it become unreachable.
+ *
+ * <p>Instances of this class and the views are immutable and thread-safe.
+ */
+public final class JSONOffHeapDocument {
+  static final byte TAG_NULL = 0;
+  static final byte TAG_FALSE = 1;
+  static final byte TAG_TRUE = 2;
+  static final byte TAG_NUMBER = 3;
+  static final byte TAG_STRING = 4;
+  static final byte TAG_ARRAY = 5;
+  static final byte TAG_OBJECT = 6;
+
+  /** Size of the header of JSON arrays and objects: a tag and the number of elements. */
+  static final int HEADER_SIZE = 5;
+
+  /** Size of one member entry of JSON objects: hash code, offset of the name and the value. */
+  static final int ENTRY_SIZE = 12;
+
+  /** JSON objects which have more members than this have an index of members sorted by hash. */
+  static final int HASH_INDEX_THRESHOLD = 8;
+
+  private final ByteBuffer buffer;
+
+  private JSONOffHeapDocument(@NotNull ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * Store the given JSON value tree in a direct byte buffer.
+   *
+   * @param root root of the JSON value tree to store
+   * @return a document which holds the same JSON value tree
+   * @throws IllegalArgumentException if the tree is too large to store in one buffer
+   */
+  @NotNull
+  public static JSONOffHeapDocument of(@NotNull JSONValue root) {
+    return of(root, ByteBuffer::allocateDirect);
+  }
+
+  /**
+   * Store the given JSON value tree in a byte buffer allocated by the given allocator.
+   *
+   * <p>The allocator is called once with the exact number of bytes required. It may, for example,
+   * return a slice of a larger buffer managed by the caller or a memory-mapped file. The returned
+   * buffer must not be modified after this method returns.
+   *
+   * @param root root of the JSON value tree to store
+   * @param allocator function which returns a byte buffer whose remaining capacity is at least the
+   *     given number of bytes
+   * @return a document which holds the same JSON value tree
+   * @throws IllegalArgumentException if the tree is too large to store in one buffer, or the
+   *     allocator returned a too small buffer
+   */
+  @NotNull
+  public static JSONOffHeapDocument of(
+      @NotNull JSONValue root, @NotNull IntFunction<ByteBuffer> allocator) {
+    if (root == null) {
+      throw new NullPointerException("root cannot be null");
+    } else if (allocator == null) {
+      throw new NullPointerException("allocator cannot be null");
+    }
+
+    long size = sizeOf(root);
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("the JSON value is too large to store in one buffer");
+    }
+
+    ByteBuffer allocated = allocator.apply((int) size);
+    if (allocated.remaining() < size) {
+      throw new IllegalArgumentException(
+          "the allocator returned a buffer of "
+              + allocated.remaining()
+              + " bytes, but "
+              + size
+              + " bytes are required");
+    }
+
+    ByteBuffer buffer = allocated.slice();
+    buffer.limit((int) size);
+    write(buffer, root);
+    if (buffer.position() != size) {
+      throw new IllegalStateException("the JSON value was modified while it was being stored");
+    }
+
+    return new JSONOffHeapDocument(buffer.asReadOnlyBuffer().clear());
+  }
+
+  /**
+   * The root JSON value of this document.
+   *
+   * @return the root JSON value
+   */
+  @NotNull
+  public JSONValue root() {
+    return valueAt(0);
+  }
+
+  /**
+   * The number of bytes which this document occupies.
+   *
+   * @return the number of bytes which this document occupies
+   */
+  public int byteSize() {
+    return buffer.capacity();
+  }
+
+  /**
+   * Write the bytes of this document to the given channel. The written bytes can be read back by
+   * {@link #wrap(ByteBuffer)}, for example from a memory-mapped file.
+   *
+   * @param channel destination
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeTo(@NotNull WritableByteChannel channel) throws IOException {
+    ByteBuffer src = buffer.duplicate().clear();
+    while (src.hasRemaining()) {
+      channel.write(src);
+    }
+  }
+
+  /**
+   * Open a document from the bytes written by {@link #writeTo(WritableByteChannel)}. The bytes
+   * between the position and the limit of the given buffer are used without being copied, so the
+   * buffer can be a memory-mapped file, and must not be modified afterwards.
+   *
+   * <p>Only the header of the root value is validated, because validating the whole document would
+   * require reading all of it. If the bytes are not written by {@link
+   * #writeTo(WritableByteChannel)}, reading the document may throw unchecked exceptions.
+   *
+   * @param buffer bytes of a document
+   * @return the document
+   * @throws IllegalArgumentException if the given bytes are obviously not a document
+   */
+  @NotNull
+  public static JSONOffHeapDocument wrap(@NotNull ByteBuffer buffer) {
+    ByteBuffer slice = buffer.slice().asReadOnlyBuffer();
+    if (slice.capacity() == 0) {
+      throw new IllegalArgumentException("empty document");
+    }
+
+    byte tag = slice.get(0);
+    int headerSize = tag <= TAG_TRUE ? 1 : HEADER_SIZE;
+    if (tag < TAG_NULL || tag > TAG_OBJECT || slice.capacity() < headerSize) {
+      throw new IllegalArgumentException("not a document");
+    }
+    return new JSONOffHeapDocument(slice);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Reading
+
+  byte tagAt(int offset) {
+    return buffer.get(offset);
+  }
+
+  int intAt(int offset) {
+    return buffer.getInt(offset);
+  }
+
+  @NotNull
+  JSONValue valueAt(int offset) {
+    switch (buffer.get(offset)) {
+      case TAG_NULL:
+        return JSONValueNull.INSTANCE;
+      case TAG_FALSE:
+        return JSONValueBoolean.FALSE;
+      case TAG_TRUE:
+        return JSONValueBoolean.TRUE;
+      case TAG_NUMBER:
+        return new JSONValueNumber(stringAt(offset));
+      case TAG_STRING:
+        return new JSONValueString(stringAt(offset));
+      case TAG_ARRAY:
+        return new JSONValueArrayOffHeap(this, offset);
+      case TAG_OBJECT:
+        return new JSONValueObjectOffHeap(this, offset);
+      default:
+        throw new IllegalStateException("broken document at offset " + offset);
+    }
+  }
+
+  /**
+   * Decode a string or a number whose tag is at the given offset.
+   *
+   * <p>Strings are encoded in CESU-8. Four-byte UTF-8 sequences are also accepted so that documents
+   * written by older versions can be read.
+   */
+  @NotNull
+  String stringAt(int offset) {
+    int length = buffer.getInt(offset + 1);
+    char[] chars = new char[length];
+    int n = 0;
+    int p = offset + HEADER_SIZE;
+    int end = p + length;
+    while (p < end) {
+      int b = buffer.get(p++) & 0xFF;
+      if (b < 0x80) {
+        chars[n++] = (char) b;
+      } else if ((b & 0xE0) == 0xC0) {
+        chars[n++] = (char) (((b & 0x1F) << 6) | (buffer.get(p++) & 0x3F));
+      } else if ((b & 0xF0) == 0xE0) {
+        int c = buffer.get(p++) & 0x3F;
+        chars[n++] = (char) (((b & 0x0F) << 12) | (c << 6) | (buffer.get(p++) & 0x3F));
+      } else if ((b & 0xF8) == 0xF0) {
+        int c1 = buffer.get(p++) & 0x3F;
+        int c2 = buffer.get(p++) & 0x3F;
+        int codePoint = ((b & 0x07) << 18) | (c1 << 12) | (c2 << 6) | (buffer.get(p++) & 0x3F);
+        chars[n++] = Character.highSurrogate(codePoint);
+        chars[n++] = Character.lowSurrogate(codePoint);
+      } else {
+        throw new IllegalStateException("broken document at offset " + offset);
+      }
+    }
+    return new String(chars, 0, n);
+  }
+
+  // ---------------------------------------------------------------------------------------------
+  // Writing
+
+  private static long sizeOf(@NotNull JSONValue value) {
+    switch (value.type()) {
+      case NULL:
+      case BOOLEAN:
+        return 1;
+      case NUMBER:
+        return HEADER_SIZE + ((JSONValueNumber) value).text().length();
+      case STRING:
+        return HEADER_SIZE + cesu8Length(((JSONValueString) value).value());
+      case ARRAY:
+        {
+          JSONValueArray array = (JSONValueArray) value;
+          long size = HEADER_SIZE + 4L * array.size();
+          for (JSONValue element : array) {
+            size += sizeOf(element);
+          }
+          return size;
+        }
+      case OBJECT:
+        {
+          JSONValueObject object = (JSONValueObject) value;
+          int count = object.size();
+          long size = HEADER_SIZE + (long) ENTRY_SIZE * count;
+          if (count > HASH_INDEX_THRESHOLD) {
+            size += 4L * count;
+          }
+          for (Map.Entry<JSONValueString, JSONValue> entry : object.entrySet()) {
+            size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+          }
+          return size;
+        }
+      default:
+        throw new IllegalArgumentException("unknown JSON value type: " + value.type());
+    }
+  }
+
+  /**
+   * Number of bytes of the given string in CESU-8. Each UTF-16 code unit is encoded separately, so
+   * unpaired surrogates are kept as they are.
+   */
+  private static int cesu8Length(@NotNull String s) {
+    int length = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      length += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+    }
+    return length;
+  }
+
+  private static void write(@NotNull ByteBuffer buffer, @NotNull JSONValue value) {
+    switch (value.type()) {
+      case NULL:
+        buffer.put(TAG_NULL);
+        break;
+      case BOOLEAN:
+        buffer.put(((JSONValueBoolean) value).value() ? TAG_TRUE : TAG_FALSE);
+        break;
+      case NUMBER:
+        writeString(buffer, TAG_NUMBER, ((JSONValueNumber) value).text());
+        break;
+      case STRING:
+        writeString(buffer, TAG_STRING, ((JSONValueString) value).value());
+        break;
+      case ARRAY:
+        {
+          JSONValueArray array = (JSONValueArray) value;
+          int count = array.size();
+          buffer.put(TAG_ARRAY);
+          buffer.putInt(count);
+
+          int table = buffer.position();
+          buffer.position(table + 4 * count);
+          int i = 0;
+          for (JSONValue element : array) {
+            buffer.putInt(table + 4 * i, buffer.position());
+            write(buffer, element);
+            i++;
+          }
+          break;
+        }
+      case OBJECT:
+        {
+          JSONValueObject object = (JSONValueObject) value;
+          int count = object.size();
+          buffer.put(TAG_OBJECT);
+          buffer.putInt(count);
+
+          int table = buffer.position();
+          int index = table + ENTRY_SIZE * count;
+          buffer.position(count > HASH_INDEX_THRESHOLD ? index + 4 * count : index);
+          long[] hashes = new long[count];
+          int i = 0;
+          for (Map.Entry<JSONValueString, JSONValue> member : object.entrySet()) {
+            int hash = member.getKey().hashCode();
+            int entry = table + ENTRY_SIZE * i;
+            hashes[i] = ((long) hash << 32) | i;
+            buffer.putInt(entry, hash);
+            buffer.putInt(entry + 4, buffer.position());
+            write(buffer, member.getKey());
+            buffer.putInt(entry + 8, buffer.position());
+            write(buffer, member.getValue());
+            i++;
+          }
+
+          if (count > HASH_INDEX_THRESHOLD) {
+            Arrays.sort(hashes);
+            for (int k = 0; k < count; k++) {
+              buffer.putInt(index + 4 * k, (int) hashes[k]);
+            }
+          }
+          break;
+        }
+      default:
+        throw new IllegalArgumentException("unknown JSON value type: " + value.type());
+    }
+  }
+
+  private static void writeString(@NotNull ByteBuffer buffer, byte tag, @NotNull String s) {
+    buffer.put(tag);
+    buffer.putInt(cesu8Length(s));
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import java.io.IOException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Encodes Java strings to JSON strings.
+ *
+ * <p>Quotation marks, reverse solidi, solidi and control characters are escaped in accordance with
+ * <a href="https://tools.ietf.org/html/rfc8259#section-7">RFC 8259 - 7. Strings</a>. DEL (U+007F)
+ * and all the characters outside of ASCII are also escaped as "\\uXXXX" (one escape per UTF-16
+ * code unit, so that a surrogate pair becomes two escapes). Therefore, an encoded JSON string
+ * consists only of ASCII characters, and each character is encoded to one byte in UTF-8.
+ *
+ * <p>Characters which need escaping are looked up in a table indexed by the character. Runs of
+ * characters which do not need escaping are copied to the destination at once.
+ */
+final class JSONStringEncoder {
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+  private static final int UNICODE_ESCAPE_LENGTH = 6;
+
+  /** Escape sequences of ASCII characters. null means that the character needs no escaping. */
+  private static final String[] ESCAPES = new String[128];
+
+  private static final byte[][] ESCAPE_BYTES = new byte[128][];
+
+  static {
+    for (char c = 0; c < 0x20; c++) {
+      ESCAPES[c] = unicodeEscape(c);
+    }
+    ESCAPES['"'] = "\\\"";
+    ESCAPES['\\'] = "\\\\";
+    ESCAPES['/'] = "\\/";
+    ESCAPES[0x7F] = unicodeEscape((char) 0x7F);
+    ESCAPES['\b'] = "\\b";
+    ESCAPES['\f'] = "\\f";
+    ESCAPES['\n'] = "\\n";
+    ESCAPES['\r'] = "\\r";
+    ESCAPES['\t'] = "\\t";
+
+    for (int c = 0; c < ESCAPES.length; c++) {
+      if (ESCAPES[c] != null) {
+        ESCAPE_BYTES[c] = new byte[ESCAPES[c].length()];
+        for (int i = 0; i < ESCAPES[c].length(); i++) {
+          ESCAPE_BYTES[c][i] = (byte) ESCAPES[c].charAt(i);
+        }
+      }
+    }
+  }
+
+  private JSONStringEncoder() {}
+
+  private static String unicodeEscape(char c) {
+    return new String(
+        new char[] {
+          '\\',
+          'u',
+          HEX_DIGITS[(c >> 12) & 0xF],
+          HEX_DIGITS[(c >> 8) & 0xF],
+          HEX_DIGITS[(c >> 4) & 0xF],
+          HEX_DIGITS[c & 0xF]
+        });
+  }
+
+  /**
+   * Append the given string to the destination as a JSON string with quotation marks.
+   *
+   * @param value string to encode
+   * @param out destination
+   * @throws IOException if an I/O error occurs
+   */
+  static void appendQuoted(@NotNull String value, @NotNull Appendable out) throws IOException {
+    out.append('"');
+
+    int length = value.length();
+    int runStart = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80 && ESCAPES[c] == null) {
+        continue;
+      }
+
+      if (runStart < i) {
+        out.append(value, runStart, i);
+      }
+      if (c < 0x80) {
+        out.append(ESCAPES[c]);
+      } else {
+        out.append('\\').append('u');
+        out.append(HEX_DIGITS[(c >> 12) & 0xF]).append(HEX_DIGITS[(c >> 8) & 0xF]);
+        out.append(HEX_DIGITS[(c >> 4) & 0xF]).append(HEX_DIGITS[c & 0xF]);
+      }
+      runStart = i + 1;
+    }
+    if (runStart < length) {
+      out.append(value, runStart, length);
+    }
+
+    out.append('"');
+  }
+
+  /**
+   * Returns the given string as a JSON string with quotation marks.
+   *
+   * @param value string to encode
+   * @return the encoded JSON string
+   */
+  @NotNull
+  static String toQuotedString(@NotNull String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 2);
+    try {
+      appendQuoted(value, sb);
+    } catch (IOException ex) {
+      throw new AssertionError(ex); // never happens with StringBuilder
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns the number of bytes of the given string encoded as a JSON string with quotation marks
+   * in UTF-8.
+   *
+   * @param value string to encode
+   * @return the number of bytes of the encoded JSON string
+   */
+  static int quotedLength(@NotNull String value) {
+    int ret = 2;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        ret += UNICODE_ESCAPE_LENGTH;
+      } else if (ESCAPES[c] != null) {
+        ret += ESCAPES[c].length();
+      } else {
+        ret++;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Returns the given string encoded as a JSON string with quotation marks in UTF-8.
+   *
+   * @param value string to encode
+   * @return the encoded JSON string in UTF-8
+   */
+  @NotNull
+  static byte[] toQuotedBytes(@NotNull String value) {
+    byte[] ret = new byte[quotedLength(value)];
+    putQuoted(value, ret, 0);
+    return ret;
+  }
+
+  /**
+   * Write the given string encoded as a JSON string with quotation marks in UTF-8 to the given
+   * byte array. The array must have at least {@link #quotedLength(String)} bytes from the offset.
+   *
+   * @param value string to encode
+   * @param dst destination
+   * @param offset position in the destination to start writing
+   * @return position in the destination next to the last written byte
+   */
+  static int putQuoted(@NotNull String value, @NotNull byte[] dst, int offset) {
+    int pos = offset;
+    dst[pos++] = '"';
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 0x80) {
+        dst[pos++] = '\\';
+        dst[pos++] = 'u';
+        dst[pos++] = (byte) HEX_DIGITS[(c >> 12) & 0xF];
+        dst[pos++] = (byte) HEX_DIGITS[(c >> 8) & 0xF];
+        dst[pos++] = (byte) HEX_DIGITS[(c >> 4) & 0xF];
+        dst[pos++] = (byte) HEX_DIGITS[c & 0xF];
+      } else if (ESCAPE_BYTES[c] != null) {
+        byte[] escape = ESCAPE_BYTES[c];
+        System.arraycopy(escape, 0, dst, pos, escape.length);
+        pos += escape.length;
+      } else {
+        dst[pos++] = (byte) c;
+      }
+    }
+    dst[pos++] = '"';
+    return pos;
+  }
+}
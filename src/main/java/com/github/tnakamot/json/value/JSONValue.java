@@ -1,7 +1,13 @@
 package com.github.tnakamot.json.value;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -97,13 +103,122 @@ public abstract class JSONValue {
     return tokenStr.getBytes(StandardCharsets.UTF_8);
   }
 
-  void validateNewline(String newline) {
+  /**
+   * The text of this JSON value exactly as it appears in the source JSON text, including
+   * whitespaces between the tokens of JSON arrays and objects.
+   *
+   * <p>The raw text is available only if this JSON value is parsed from a JSON text and is not
+   * modified since then. JSON values created or modified by the application program, including
+   * mutable JSON values and the ones returned by methods like {@link
+   * JSONValueArrayImmutable#with(int, JSONValue)}, do not have raw text.
+   *
+   * <p>The returned sequence is a read-only view of the source JSON text, so this method does not
+   * copy the text.
+   *
+   * @return raw text of this JSON value, or null if this JSON value does not originate from a JSON
+   *     text as it is
+   */
+  @Nullable
+  public CharSequence rawText() {
+    return null;
+  }
+
+  /**
+   * The text of this JSON value exactly as it appears in the source JSON text, encoded using UTF-8
+   * without BOM. See {@link #rawText()} for when the raw text is available.
+   *
+   * @return raw text of this JSON value in UTF-8, or null if this JSON value does not originate
+   *     from a JSON text as it is
+   */
+  @Nullable
+  public byte[] rawBytes() {
+    CharSequence rawText = rawText();
+    if (rawText == null) {
+      return null;
+    } else {
+      return rawText.toString().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Append {@link #rawText()} to the given destination if it is available.
+   *
+   * @param out destination
+   * @return true if the raw text is appended
+   * @throws IOException if an I/O error occurs
+   */
+  boolean appendRawText(@NotNull Appendable out) throws IOException {
+    return false;
+  }
+
+  /**
+   * Write this JSON value as a JSON text to the given {@link Appendable} (e.g. {@link
+   * java.io.Writer} or {@link StringBuilder}). The output text is the same as {@link
+   * #toTokenString()}, but it is written directly to the destination without building the whole
+   * text as a {@link String}.
+   *
+   * @param out destination of the JSON text
+   * @throws IOException if an I/O error occurs
+   * @see JSONWriter
+   */
+  public void writeTo(@NotNull Appendable out) throws IOException {
+    new JSONWriter(out).write(this);
+  }
+
+  /**
+   * Write this JSON value as a JSON text to the given {@link Appendable} (e.g. {@link
+   * java.io.Writer} or {@link StringBuilder}). The output text is the same as {@link
+   * #toTokenString(String, String)}, but it is written directly to the destination without
+   * building the whole text as a {@link String}.
+   *
+   * @param out destination of the JSON text
+   * @param newline line separator; "\r", "\n" or "\r\n"
+   * @param indent indent string. Must consist of " " and "\t".
+   * @throws IOException if an I/O error occurs
+   * @see JSONWriter
+   */
+  public void writeTo(@NotNull Appendable out, String newline, String indent) throws IOException {
+    new JSONWriter(out, newline, indent).write(this);
+  }
+
+  /**
+   * Write this JSON value as a JSON text to the given {@link OutputStream}. The output is the same
+   * as {@link #toTokenBytes()}, which is encoded using UTF-8 without BOM. The stream is flushed,
+   * but not closed.
+   *
+   * @param out destination of the JSON text
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeTo(@NotNull OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writeTo(writer);
+    writer.flush();
+  }
+
+  /**
+   * Write this JSON value as a JSON text to the given {@link OutputStream}. The output is the same
+   * as {@link #toTokenBytes(String, String)}, which is encoded using UTF-8 without BOM. The stream
+   * is flushed, but not closed.
+   *
+   * @param out destination of the JSON text
+   * @param newline line separator; "\r", "\n" or "\r\n"
+   * @param indent indent string. Must consist of " " and "\t".
+   * @throws IOException if an I/O error occurs
+   */
+  public void writeTo(@NotNull OutputStream out, String newline, String indent)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    writeTo(writer, newline, indent);
+    writer.flush();
+  }
+
+  static void validateNewline(String newline) {
     if (!(newline.equals("\n") || newline.equals("\r") || newline.equals("\r\n"))) {
       throw new IllegalArgumentException("newline must be \\n, \\r, or \\r\\n.");
     }
   }
 
-  void validateIndent(String indent) {
+  static void validateIndent(String indent) {
     if (!indent.matches("[ \t]*")) {
       throw new IllegalArgumentException(
           "indent must include only white spaces ' ' and horizontal tabs '\\t'");
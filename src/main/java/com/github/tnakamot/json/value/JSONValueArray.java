@@ -18,8 +18,12 @@ package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /** Represents one JSON 'array' value. */
 public abstract class JSONValueArray extends JSONValueStructured implements List<JSONValue> {
@@ -153,7 +157,7 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    * @return true (as specified by {@link Collection#add(Object)}
    */
   public boolean add(long value) {
-    return add(new JSONValueNumber(value));
+    return add(JSONValueNumber.valueOf(value));
   }
 
   /**
@@ -176,6 +180,22 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
     return add(new JSONValueString(value));
   }
 
+  /**
+   * Returns the value at the specified position in this array.
+   *
+   * @param index index of the value to return
+   * @return the value at the specified position in this array, or an empty optional if the index is
+   *     out of range (index &lt; 0 || index &gt;= size())
+   */
+  @NotNull
+  public Optional<JSONValue> find(int index) {
+    return Optional.ofNullable(getOrNull(index));
+  }
+
+  private JSONValue getOrNull(int index) {
+    return index >= 0 && index < size() ? get(index) : null;
+  }
+
   /**
    * Returns a boolean value at the specified position in this array.
    *
@@ -186,7 +206,25 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    * @throws WrongValueTypeException if the value type at the specified index is not boolean
    */
   public boolean getBoolean(int index) throws IndexOutOfBoundsException, WrongValueTypeException {
-    JSONValue val = get(index);
+    return asBoolean(index, get(index));
+  }
+
+  /**
+   * Returns a boolean value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the boolean value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not boolean
+   */
+  public boolean getBoolean(int index, boolean defaultValue) throws WrongValueTypeException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asBoolean(index, val);
+  }
+
+  private static boolean asBoolean(int index, JSONValue val) {
     if (val instanceof JSONValueBoolean) {
       return ((JSONValueBoolean) val).value();
     } else {
@@ -207,7 +245,27 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    */
   public long getLong(int index)
       throws IndexOutOfBoundsException, WrongValueTypeException, NumberFormatException {
-    JSONValue val = get(index);
+    return asLong(index, get(index));
+  }
+
+  /**
+   * Returns a number value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the long value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not number
+   * @throws NumberFormatException if the value cannot be converted to a Java long value
+   */
+  public long getLong(int index, long defaultValue)
+      throws WrongValueTypeException, NumberFormatException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asLong(index, val);
+  }
+
+  private static long asLong(int index, JSONValue val) {
     if (val instanceof JSONValueNumber) {
       return ((JSONValueNumber) val).toLong();
     } else {
@@ -227,7 +285,26 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    */
   public double getDouble(int index)
       throws IndexOutOfBoundsException, WrongValueTypeException, NumberFormatException {
-    JSONValue val = get(index);
+    return asDouble(index, get(index));
+  }
+
+  /**
+   * Returns a number value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the double value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not number
+   */
+  public double getDouble(int index, double defaultValue)
+      throws WrongValueTypeException, NumberFormatException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asDouble(index, val);
+  }
+
+  private static double asDouble(int index, JSONValue val) {
     if (val instanceof JSONValueNumber) {
       return ((JSONValueNumber) val).toDouble();
     } else {
@@ -246,7 +323,26 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    * @throws WrongValueTypeException if the value type at the specified index is not string
    */
   public String getString(int index) throws IndexOutOfBoundsException, WrongValueTypeException {
-    JSONValue val = get(index);
+    return asString(index, get(index));
+  }
+
+  /**
+   * Returns a string value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the String value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not string
+   */
+  @Nullable
+  public String getString(int index, @Nullable String defaultValue) throws WrongValueTypeException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asString(index, val);
+  }
+
+  private static String asString(int index, JSONValue val) {
     if (val instanceof JSONValueString) {
       return ((JSONValueString) val).value();
     } else {
@@ -266,7 +362,27 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    */
   public JSONValueArray getArray(int index)
       throws IndexOutOfBoundsException, WrongValueTypeException {
-    JSONValue val = get(index);
+    return asArray(index, get(index));
+  }
+
+  /**
+   * Returns an array value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the JSONValueArray value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not array
+   */
+  @Nullable
+  public JSONValueArray getArray(int index, @Nullable JSONValueArray defaultValue)
+      throws WrongValueTypeException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asArray(index, val);
+  }
+
+  private static JSONValueArray asArray(int index, JSONValue val) {
     if (val instanceof JSONValueArray) {
       return (JSONValueArray) val;
     } else {
@@ -286,7 +402,27 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
    */
   public JSONValueObject getObject(int index)
       throws IndexOutOfBoundsException, WrongValueTypeException {
-    JSONValue val = get(index);
+    return asObject(index, get(index));
+  }
+
+  /**
+   * Returns an object value at the specified position in this array, or the given default value if
+   * the index is out of range.
+   *
+   * @param index index of the value to return
+   * @param defaultValue the value to return if the index is out of range (index &lt; 0 || index
+   *     &gt;= size())
+   * @return the JSONValueObject value at the specified position in this array, or the default value
+   * @throws WrongValueTypeException if the value type at the specified index is not object
+   */
+  @Nullable
+  public JSONValueObject getObject(int index, @Nullable JSONValueObject defaultValue)
+      throws WrongValueTypeException {
+    JSONValue val = getOrNull(index);
+    return val == null ? defaultValue : asObject(index, val);
+  }
+
+  private static JSONValueObject asObject(int index, JSONValue val) {
     if (val instanceof JSONValueObject) {
       return (JSONValueObject) val;
     } else {
@@ -295,6 +431,64 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
     }
   }
 
+  /**
+   * Returns all the values in this array as Java long values.
+   *
+   * @return a new Java long array which contains all the values in this array
+   * @throws WrongValueTypeException if there is a value which is not number
+   * @throws NumberFormatException if there is a value which cannot be converted to a Java long
+   *     value
+   */
+  @NotNull
+  public long[] toLongArray() throws WrongValueTypeException, NumberFormatException {
+    long[] ret = new long[size()];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = getLong(i);
+    }
+    return ret;
+  }
+
+  /**
+   * Returns all the values in this array as Java double values.
+   *
+   * @return a new Java double array which contains all the values in this array
+   * @throws WrongValueTypeException if there is a value which is not number
+   */
+  @NotNull
+  public double[] toDoubleArray() throws WrongValueTypeException {
+    double[] ret = new double[size()];
+    for (int i = 0; i < ret.length; i++) {
+      ret[i] = getDouble(i);
+    }
+    return ret;
+  }
+
+  /**
+   * Returns a sequential stream of the values in this array as Java long values.
+   *
+   * <p>{@link WrongValueTypeException} or {@link NumberFormatException} is thrown while the stream
+   * is consumed if there is a value which cannot be converted to a Java long value.
+   *
+   * @return a stream of the values in this array as Java long values
+   */
+  @NotNull
+  public LongStream longStream() {
+    return IntStream.range(0, size()).mapToLong(this::getLong);
+  }
+
+  /**
+   * Returns a sequential stream of the values in this array as Java double values.
+   *
+   * <p>{@link WrongValueTypeException} is thrown while the stream is consumed if there is a value
+   * which is not number.
+   *
+   * @return a stream of the values in this array as Java double values
+   */
+  @NotNull
+  public DoubleStream doubleStream() {
+    return IntStream.range(0, size()).mapToDouble(this::getDouble);
+  }
+
   @Override
   public int hashCode() {
     int hash = 0;
@@ -306,7 +500,9 @@ public abstract class JSONValueArray extends JSONValueStructured implements List
 
   @Override
   public boolean equals(Object o) {
-    if (!(o instanceof JSONValueArray)) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof JSONValueArray)) {
       return false;
     }
     JSONValueArray a = (JSONValueArray) o;
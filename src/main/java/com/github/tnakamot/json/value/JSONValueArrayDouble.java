@@ -0,0 +1,191 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import com.github.tnakamot.json.token.JSONToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+
+/**
+ * Represents one immutable JSON 'array' value which contains only numbers, backed by a Java double
+ * array.
+ *
+ * <p>An immutable JSON array is represented by this class when all the values are JSON numbers
+ * which can be restored from Java double values as they are written (e.g. [1.5, -0.25, 3]). A value
+ * can be restored if it is written as {@link Double#toString(double)} writes it, or if it is a
+ * plain integer whose absolute value is not greater than 2^53. The values are held as a Java
+ * double array instead of {@link JSONValueNumber} objects. {@link #getDouble(int)}, {@link
+ * #toDoubleArray()} and {@link #doubleStream()} read the double array without creating any object.
+ *
+ * <p>{@link #get(int)} and the other methods of {@link List} create a {@link JSONValueNumber} for
+ * the value every time it is called. Because the source tokens of the values are not held, {@link
+ * JSONValueNumber#token()} of the created value returns null.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class JSONValueArrayDouble extends JSONValueArrayImmutable {
+  /** 2^53. Integers whose absolute values are not greater than this are exact in double. */
+  private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+  private final double[] values;
+  private final long[] integers;
+
+  /**
+   * Create a JSON array backed by the given double array.
+   *
+   * @param values values of this JSON array. The caller must not modify it.
+   * @param integers bit set of the indexes of values that are written as plain integers. The
+   *     caller must not modify it.
+   * @param begin the beginning token of this JSON array. Null if this JSON array does not originate
+   *     from an exsiting JSON text.
+   * @param end the end token of this JSON array. Null if this JSON array does not originate from an
+   *     exsiting JSON text.
+   */
+  JSONValueArrayDouble(
+      double[] values, long[] integers, @Nullable JSONToken begin, @Nullable JSONToken end) {
+    super(new Values(values, integers), begin, end, false);
+    this.values = values;
+    this.integers = integers;
+  }
+
+  /**
+   * Returns if the given value is a plain integer which can be held by this class without loss.
+   *
+   * @param value JSON value to check
+   * @return true if the given value is a plain integer which can be held by this class
+   */
+  static boolean isPlainInteger(JSONValue value) {
+    if (!JSONValueArrayLong.isPlainLong(value)) {
+      return false;
+    }
+
+    long l = ((JSONValueNumber) value).toLong();
+    return -MAX_EXACT_INTEGER <= l && l <= MAX_EXACT_INTEGER;
+  }
+
+  /**
+   * Returns if the given value is written as {@link Double#toString(double)} writes it.
+   *
+   * @param value JSON value to check
+   * @return true if the given value can be restored from a Java double value as it is
+   */
+  static boolean isPlainDouble(JSONValue value) {
+    if (!(value instanceof JSONValueNumber)) {
+      return false;
+    }
+
+    JSONValueNumber number = (JSONValueNumber) value;
+    return Double.toString(number.toDouble()).equals(number.text());
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getDouble(int index) throws IndexOutOfBoundsException {
+    return values[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof JSONValueArrayDouble) {
+      if (this == o) {
+        return true;
+      }
+
+      // Each value is either an integer or the shortest form of a double, so two values are equal
+      // as JSON numbers if and only if they are equal as doubles.
+      double[] other = ((JSONValueArrayDouble) o).values;
+      if (values.length != other.length) {
+        return false;
+      }
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != other[i]) {
+          return false;
+        }
+      }
+      return true;
+    } else {
+      return super.equals(o);
+    }
+  }
+
+  /**
+   * Returns whether this JSON array is written exactly the same as the given one. Unlike {@link
+   * #equals(Object)}, 1 and 1.0, or 0.0 and -0.0, are distinguished.
+   *
+   * @param other JSON array to compare
+   * @return true if the two JSON arrays have the same text
+   */
+  boolean sameText(@NotNull JSONValueArrayDouble other) {
+    double[] otherValues = other.values;
+    if (values.length != otherValues.length) {
+      return false;
+    }
+    for (int i = 0; i < values.length; i++) {
+      if (Double.doubleToRawLongBits(values[i]) != Double.doubleToRawLongBits(otherValues[i])) {
+        return false;
+      }
+    }
+    return Arrays.equals(integers, other.integers);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public double[] toDoubleArray() {
+    return values.clone();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public DoubleStream doubleStream() {
+    return Arrays.stream(values);
+  }
+
+  /** A read-only view of a double array as a list of JSON values. */
+  private static final class Values extends AbstractList<JSONValue> implements RandomAccess {
+    private final double[] values;
+    private final long[] integers;
+
+    Values(double[] values, long[] integers) {
+      this.values = values;
+      this.integers = integers;
+    }
+
+    @Override
+    public JSONValue get(int index) {
+      double value = values[index];
+      if ((integers[index >>> 6] & (1L << index)) != 0) {
+        return JSONValueNumber.valueOf((long) value);
+      } else {
+        return new JSONValueNumber(value);
+      }
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+  }
+}
@@ -32,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
  */
 public class JSONValueArrayImmutable extends JSONValueArray {
   private final List<JSONValue> values;
+  private int hash;
 
   /**
    * Create an instance of a Java representation of a JSON 'array' value.
@@ -53,13 +54,79 @@ public class JSONValueArrayImmutable extends JSONValueArray {
    */
   JSONValueArrayImmutable(
       @Nullable List<JSONValue> values, @Nullable JSONToken begin, @Nullable JSONToken end) {
+    this(
+        values == null ? new ChunkedList<JSONValue>().freeze() : new ChunkedList<>(values).freeze(),
+        begin,
+        end,
+        false);
+  }
+
+  /**
+   * Create an instance of a Java representation of a JSON 'array' value.
+   *
+   * @param values sequence of values
+   * @param begin the beginning token of this JSON array. Null if this JSON array does not originate
+   *     from an exsiting JSON text.
+   * @param end the end token of this JSON array. Null if this JSON array does not originate from an
+   *     exsiting JSON text.
+   * @param copy false to use the given list as it is. The caller must not modify the list after
+   *     that.
+   */
+  JSONValueArrayImmutable(
+      @NotNull List<JSONValue> values,
+      @Nullable JSONToken begin,
+      @Nullable JSONToken end,
+      boolean copy) {
     super(begin, end);
+    this.values = copy ? new ChunkedList<>(values).freeze() : values;
+  }
 
-    if (values == null) {
-      this.values = new ArrayList<>();
-    } else {
-      this.values = new ArrayList<>(values);
+  /**
+   * Create an immutable JSON array of the given values, choosing the most compact representation.
+   *
+   * <p>If all the values are numbers that can be held by {@link JSONValueArrayLong} or {@link
+   * JSONValueArrayDouble} without loss, an instance of them is returned.
+   *
+   * @param values sequence of values. The caller must not modify the list after this call.
+   * @param begin the beginning token of this JSON array. Null if this JSON array does not originate
+   *     from an exsiting JSON text.
+   * @param end the end token of this JSON array. Null if this JSON array does not originate from an
+   *     exsiting JSON text.
+   * @return an immutable JSON array of the given values
+   */
+  static JSONValueArrayImmutable of(
+      @NotNull List<JSONValue> values, @Nullable JSONToken begin, @Nullable JSONToken end) {
+    int size = values.size();
+    if (size == 0) {
+      return new JSONValueArrayImmutable(values, begin, end, false);
+    }
+
+    boolean allLong = true;
+    for (int i = 0; i < size && allLong; i++) {
+      allLong = JSONValueArrayLong.isPlainLong(values.get(i));
+    }
+    if (allLong) {
+      long[] longs = new long[size];
+      for (int i = 0; i < size; i++) {
+        longs[i] = ((JSONValueNumber) values.get(i)).toLong();
+      }
+      return new JSONValueArrayLong(longs, begin, end);
     }
+
+    double[] doubles = new double[size];
+    long[] integers = new long[(size + 63) >>> 6];
+    for (int i = 0; i < size; i++) {
+      JSONValue value = values.get(i);
+      if (JSONValueArrayDouble.isPlainInteger(value)) {
+        doubles[i] = ((JSONValueNumber) value).toLong();
+        integers[i >>> 6] |= 1L << i;
+      } else if (JSONValueArrayDouble.isPlainDouble(value)) {
+        doubles[i] = ((JSONValueNumber) value).toDouble();
+      } else {
+        return new JSONValueArrayImmutable(values, begin, end, false);
+      }
+    }
+    return new JSONValueArrayDouble(doubles, integers, begin, end);
   }
 
   /** {@inheritDoc} */
@@ -216,108 +283,157 @@ public class JSONValueArrayImmutable extends JSONValueArray {
     throw new UnsupportedOperationException("this object is immutable.");
   }
 
+  /** {@inheritDoc} The hash code is computed once and cached. */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = super.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
   /**
-   * Return the copy of this JSON array as a mutable Java object.
+   * {@inheritDoc}
    *
-   * <p>All inner JSON objects and JSON arrays are also turned to be mutable.
-   *
-   * @return a mutable version of the same JSON array.
+   * <p>When the given object is also an immutable JSON array, their sizes and cached hash codes are
+   * compared before the values.
    */
-  public JSONValueArrayMutable toMutable() {
-    JSONValueArrayMutable ret = new JSONValueArrayMutable();
-    for (JSONValue value : this) {
-      if (value instanceof JSONValueArrayImmutable) {
-        ret.add(((JSONValueArrayImmutable) value).toMutable());
-      } else if (value instanceof JSONValueObjectImmutable) {
-        ret.add(((JSONValueObjectImmutable) value).toMutable());
-      } else {
-        ret.add(value);
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (o instanceof JSONValueArrayImmutable) {
+      JSONValueArrayImmutable a = (JSONValueArrayImmutable) o;
+      if (size() != a.size() || hashCode() != a.hashCode()) {
+        return false;
       }
     }
 
-    return ret;
+    return super.equals(o);
   }
 
-  @Override
+  /**
+   * Returns a JSON array which has the same values as this JSON array except that the value at the
+   * given position is replaced with the given value.
+   *
+   * <p>This JSON array is not modified. The returned JSON array shares the storage with this JSON
+   * array except the part which contains the given position, so this method does not copy all the
+   * values of a large JSON array. A mutable JSON array or object given as the value is turned to be
+   * immutable.
+   *
+   * @param i position of the value to replace
+   * @param value new value
+   * @return a JSON array which has the given value at the given position
+   * @throws IndexOutOfBoundsException if the position is out of range
+   */
   @NotNull
-  public String toTokenString() {
-    if (size() == 0) {
-      return JSONToken.JSON_BEGIN_ARRAY + JSONToken.JSON_END_ARRAY;
-    }
-
-    return toTokenStringSingleLine(false);
+  public JSONValueArrayImmutable with(int i, @NotNull JSONValue value) {
+    ChunkedList<JSONValue> list = modifiableCopy();
+    list.set(i, immutableCopyOf(value));
+    return derive(list);
   }
 
-  @Override
+  /**
+   * Returns a JSON array which has the same values as this JSON array and the given value at the
+   * end.
+   *
+   * <p>This JSON array is not modified. See {@link #with(int, JSONValue)} for the cost.
+   *
+   * @param value value to append
+   * @return a JSON array which has the given value at the end
+   */
   @NotNull
-  public String toTokenString(String newline, String indent) {
-    if (size() == 0) {
-      return JSONToken.JSON_BEGIN_ARRAY + " " + JSONToken.JSON_END_ARRAY;
-    }
+  public JSONValueArrayImmutable withAdded(@NotNull JSONValue value) {
+    ChunkedList<JSONValue> list = modifiableCopy();
+    list.add(immutableCopyOf(value));
+    return derive(list);
+  }
 
-    boolean multiLine =
-        this.stream()
-            .anyMatch(
-                (value) ->
-                    value.type() == JSONValueType.OBJECT || value.type() == JSONValueType.ARRAY);
+  /**
+   * Returns a JSON array which has the same values as this JSON array and the given value inserted
+   * at the given position.
+   *
+   * <p>This JSON array is not modified. The values after the given position are shifted in the
+   * returned JSON array, so the cost is proportional to the number of them.
+   *
+   * @param i position to insert the value at
+   * @param value value to insert
+   * @return a JSON array which has the given value at the given position
+   * @throws IndexOutOfBoundsException if the position is out of range
+   */
+  @NotNull
+  public JSONValueArrayImmutable withAdded(int i, @NotNull JSONValue value) {
+    ChunkedList<JSONValue> list = modifiableCopy();
+    list.add(i, immutableCopyOf(value));
+    return derive(list);
+  }
 
-    if (multiLine) {
-      return toTokenStringMultiLine(newline, indent);
-    }
+  /**
+   * Returns a JSON array which has the same values as this JSON array except the value at the given
+   * position.
+   *
+   * <p>This JSON array is not modified. The values after the given position are shifted in the
+   * returned JSON array, so the cost is proportional to the number of them.
+   *
+   * @param i position of the value to remove
+   * @return a JSON array which does not have the value at the given position
+   * @throws IndexOutOfBoundsException if the position is out of range
+   */
+  @NotNull
+  public JSONValueArrayImmutable without(int i) {
+    ChunkedList<JSONValue> list = modifiableCopy();
+    list.remove(i);
+    return derive(list);
+  }
 
-    String singleLine = toTokenStringSingleLine(true);
-    if (singleLine.length() <= 80) { // TODO: make this limit configurable
-      return singleLine;
+  /**
+   * Returns a modifiable list of the values in this JSON array which shares the storage with this
+   * JSON array as long as possible.
+   */
+  @NotNull
+  private ChunkedList<JSONValue> modifiableCopy() {
+    if (values instanceof ChunkedList) {
+      return ((ChunkedList<JSONValue>) values).thaw();
     } else {
-      return toTokenStringMultiLine(newline, indent);
+      return new ChunkedList<>(values);
     }
   }
 
-  private String toTokenStringSingleLine(boolean wsAfterSeparator) {
-    StringBuilder sb = new StringBuilder();
-    sb.append(JSONToken.JSON_BEGIN_ARRAY);
-
-    for (JSONValue value : this) {
-      sb.append(value.toTokenString());
-      sb.append(JSONToken.JSON_VALUE_SEPARATOR);
-      if (wsAfterSeparator) {
-        sb.append(" ");
-      }
-    }
-
-    if (wsAfterSeparator) {
-      sb.deleteCharAt(sb.length() - 1);
+  @NotNull
+  private JSONValueArrayImmutable derive(@NotNull ChunkedList<JSONValue> list) {
+    if (values instanceof ChunkedList) {
+      return new JSONValueArrayImmutable(list.freeze(), null, null, false);
+    } else {
+      // Keep the compact representation of an array of numbers if possible.
+      return of(list.freeze(), null, null);
     }
-    sb.deleteCharAt(sb.length() - 1);
-
-    sb.append(JSONToken.JSON_END_ARRAY);
-    return sb.toString();
   }
 
-  private String toTokenStringMultiLine(String newline, String indent) {
-    validateNewline(newline);
-    validateIndent(indent);
-
-    StringBuilder sb = new StringBuilder();
-    sb.append(JSONToken.JSON_BEGIN_ARRAY);
-
-    for (JSONValue value : this) {
-      sb.append(newline);
-      sb.append(indent);
+  /**
+   * Return the copy of this JSON array as a mutable Java object.
+   *
+   * <p>All inner JSON objects and JSON arrays are also turned to be mutable. They are converted
+   * when they are read from the returned JSON array for the first time, and the returned JSON array
+   * shares the storage with this JSON array until it is modified, so this method does not copy the
+   * values.
+   *
+   * @return a mutable version of the same JSON array.
+   */
+  public JSONValueArrayMutable toMutable() {
+    return new JSONValueArrayMutable(modifiableCopy(), true);
+  }
 
-      String[] lines = value.toTokenString(newline, indent).split(newline);
-      sb.append(lines[0]);
-      for (int i = 1; i < lines.length; i++) {
-        sb.append(newline);
-        sb.append(indent);
-        sb.append(lines[i]);
-      }
-      sb.append(JSONToken.JSON_VALUE_SEPARATOR);
-    }
-    sb.deleteCharAt(sb.length() - 1);
+  @Override
+  @NotNull
+  public String toTokenString() {
+    return JSONWriter.toTokenString(this);
+  }
 
-    sb.append(newline);
-    sb.append(JSONToken.JSON_END_ARRAY);
-    return sb.toString();
+  @Override
+  @NotNull
+  public String toTokenString(String newline, String indent) {
+    return JSONWriter.toTokenString(this, newline, indent);
   }
 }
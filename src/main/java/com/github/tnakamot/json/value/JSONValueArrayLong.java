@@ -0,0 +1,187 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import com.github.tnakamot.json.token.JSONToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+
+/**
+ * Represents one immutable JSON 'array' value which contains only integers, backed by a Java long
+ * array.
+ *
+ * <p>An immutable JSON array is represented by this class when all the values are JSON numbers
+ * written as plain integers within the range of Java long (e.g. [1, -2, 30]). The values are held
+ * as a Java long array instead of {@link JSONValueNumber} objects. {@link #getLong(int)}, {@link
+ * #toLongArray()} and {@link #longStream()} read the long array without creating any object.
+ *
+ * <p>{@link #get(int)} and the other methods of {@link List} create a {@link JSONValueNumber} for
+ * the value every time it is called. Because the source tokens of the values are not held, {@link
+ * JSONValueNumber#token()} of the created value returns null.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class JSONValueArrayLong extends JSONValueArrayImmutable {
+  private final long[] values;
+
+  /**
+   * Create a JSON array backed by the given long array.
+   *
+   * @param values values of this JSON array. The caller must not modify it.
+   * @param begin the beginning token of this JSON array. Null if this JSON array does not originate
+   *     from an exsiting JSON text.
+   * @param end the end token of this JSON array. Null if this JSON array does not originate from an
+   *     exsiting JSON text.
+   */
+  JSONValueArrayLong(long[] values, @Nullable JSONToken begin, @Nullable JSONToken end) {
+    super(new Values(values), begin, end, false);
+    this.values = values;
+  }
+
+  /**
+   * Returns if the given value is a JSON number written as a plain integer within the range of
+   * Java long, which can be restored from a Java long value as it is.
+   *
+   * @param value JSON value to check
+   * @return true if the given value can be held by this class without loss
+   */
+  static boolean isPlainLong(JSONValue value) {
+    if (!(value instanceof JSONValueNumber)) {
+      return false;
+    }
+
+    JSONValueNumber number = (JSONValueNumber) value;
+    String text = number.text();
+    if (!number.canBeLong() || text.equals("-0")) {
+      return false;
+    }
+
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '.' || c == 'e' || c == 'E') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public long getLong(int index) throws IndexOutOfBoundsException {
+    return values[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public double getDouble(int index) throws IndexOutOfBoundsException {
+    return values[index];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof JSONValueArrayLong) {
+      return this == o || Arrays.equals(values, ((JSONValueArrayLong) o).values);
+    } else {
+      return super.equals(o);
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public long[] toLongArray() {
+    return values.clone();
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public double[] toDoubleArray() {
+    double[] ret = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      ret[i] = values[i];
+    }
+    return ret;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public LongStream longStream() {
+    return Arrays.stream(values);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public DoubleStream doubleStream() {
+    return Arrays.stream(values).asDoubleStream();
+  }
+
+  /** A read-only view of a long array as a list of JSON values. */
+  private static final class Values extends AbstractList<JSONValue> implements RandomAccess {
+    private final long[] values;
+
+    Values(long[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public JSONValue get(int index) {
+      return JSONValueNumber.valueOf(values[index]);
+    }
+
+    @Override
+    public int size() {
+      return values.length;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+      if (o instanceof JSONValueNumber && ((JSONValueNumber) o).canBeLong()) {
+        long value = ((JSONValueNumber) o).toLong();
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] == value) {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+      if (o instanceof JSONValueNumber && ((JSONValueNumber) o).canBeLong()) {
+        long value = ((JSONValueNumber) o).toLong();
+        for (int i = values.length - 1; i >= 0; i--) {
+          if (values[i] == value) {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+  }
+}
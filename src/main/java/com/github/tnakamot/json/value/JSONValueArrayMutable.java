@@ -29,11 +29,18 @@ import org.jetbrains.annotations.NotNull;
  * @see JSONValueArrayImmutable
  */
 public class JSONValueArrayMutable extends JSONValueArray {
-  private final List<JSONValue> values;
+  private final ChunkedList<JSONValue> values;
+
+  /**
+   * Immutable JSON arrays and objects inherited from {@link JSONValueArrayImmutable#toMutable()}.
+   * They are converted to mutable ones when they are read from this array for the first time. Null
+   * if all the inner JSON arrays and objects are ready to be returned.
+   */
+  private Set<JSONValue> pending;
 
   /** Create an instance of a Java representation of an empty JSON 'array' value. */
   public JSONValueArrayMutable() {
-    this.values = new ArrayList<>();
+    this.values = new ChunkedList<>();
   }
 
   /**
@@ -43,9 +50,53 @@ public class JSONValueArrayMutable extends JSONValueArray {
    */
   public JSONValueArrayMutable(List<JSONValue> values) {
     if (values == null) {
-      this.values = new ArrayList<>();
+      this.values = new ChunkedList<>();
     } else {
-      this.values = new ArrayList<>(values);
+      this.values = new ChunkedList<>(values);
+    }
+  }
+
+  /**
+   * Create a JSON array which adopts the given list. Inner immutable JSON arrays and objects are
+   * converted to mutable ones lazily.
+   *
+   * @param values sequence of values. The caller must not use the list after this call.
+   * @param lazy true to convert inner immutable JSON arrays and objects lazily
+   */
+  JSONValueArrayMutable(@NotNull ChunkedList<JSONValue> values, boolean lazy) {
+    this.values = values;
+    this.pending = lazy ? immutableChildrenOf(values) : null;
+  }
+
+  /**
+   * Returns the value at the given position, converting it to a mutable one if it is an inner
+   * immutable JSON array or object that has not been converted yet.
+   */
+  private JSONValue materialize(int i) {
+    JSONValue value = values.get(i);
+    if (pending != null && pending.contains(value)) {
+      value = mutableCopyOf(value);
+      values.set(i, value);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the values as they are stored, without converting inner immutable JSON arrays and
+   * objects to mutable ones. The caller must not modify the returned list.
+   */
+  @NotNull
+  List<JSONValue> storedValues() {
+    return values;
+  }
+
+  /** Convert all the inner immutable JSON arrays and objects that have not been converted yet. */
+  private void materializeAll() {
+    if (pending != null) {
+      for (int i = 0; i < values.size(); i++) {
+        materialize(i);
+      }
+      pending = null;
     }
   }
 
@@ -71,6 +122,7 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public Iterator<JSONValue> iterator() {
+    materializeAll();
     return values.iterator();
   }
 
@@ -78,6 +130,7 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public Object[] toArray() {
+    materializeAll();
     return values.toArray();
   }
 
@@ -109,18 +162,21 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   public void clear() {
     values.clear();
+    pending = null;
   }
 
   /** {@inheritDoc} */
   @Override
   public JSONValue get(int i) {
-    return values.get(i);
+    return materialize(i);
   }
 
   /** {@inheritDoc} */
   @Override
   public JSONValue set(int i, JSONValue jsonValue) {
-    return values.set(i, jsonValue);
+    JSONValue old = materialize(i);
+    values.set(i, jsonValue);
+    return old;
   }
 
   /** {@inheritDoc} */
@@ -132,7 +188,9 @@ public class JSONValueArrayMutable extends JSONValueArray {
   /** {@inheritDoc} */
   @Override
   public JSONValue remove(int i) {
-    return values.remove(i);
+    JSONValue old = materialize(i);
+    values.remove(i);
+    return old;
   }
 
   /** {@inheritDoc} */
@@ -151,6 +209,7 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public ListIterator<JSONValue> listIterator() {
+    materializeAll();
     return values.listIterator();
   }
 
@@ -158,6 +217,7 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public ListIterator<JSONValue> listIterator(int i) {
+    materializeAll();
     return values.listIterator(i);
   }
 
@@ -165,6 +225,7 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public List<JSONValue> subList(int i, int i1) {
+    materializeAll();
     return values.subList(i, i1);
   }
 
@@ -190,13 +251,16 @@ public class JSONValueArrayMutable extends JSONValueArray {
   @Override
   @NotNull
   public <T> T[] toArray(T[] ts) {
+    materializeAll();
     return values.toArray(ts);
   }
 
   /**
    * Return the copy of this JSON array as an immutable Java array.
    *
-   * <p>All inner JSON objects and JSON arrays are also turned to be immutable.
+   * <p>All inner JSON objects and JSON arrays are also turned to be immutable. If all the values
+   * are numbers, the returned array may be {@link JSONValueArrayLong} or {@link
+   * JSONValueArrayDouble}, which hold the values as a Java primitive array.
    *
    * @return an immutable version of the same JSON array.
    */
@@ -216,29 +280,30 @@ public class JSONValueArrayMutable extends JSONValueArray {
    *     exsiting JSON text.
    */
   public JSONValueArrayImmutable toImmutable(JSONToken begin, JSONToken end) {
-    JSONValueArrayMutable ret = new JSONValueArrayMutable();
-    for (JSONValue value : this) {
+    // Share the storage with this array. Only the chunks which contain mutable values are copied
+    // here, and the other chunks are copied on the next write to this array.
+    ChunkedList<JSONValue> ret = values.thaw();
+    for (int i = 0; i < ret.size(); i++) {
+      JSONValue value = ret.get(i);
       if (value instanceof JSONValueArrayMutable) {
-        ret.add(((JSONValueArrayMutable) value).toImmutable());
+        ret.set(i, ((JSONValueArrayMutable) value).toImmutable());
       } else if (value instanceof JSONValueObjectMutable) {
-        ret.add(((JSONValueObjectMutable) value).toImmutable());
-      } else {
-        ret.add(value);
+        ret.set(i, ((JSONValueObjectMutable) value).toImmutable());
       }
     }
 
-    return new JSONValueArrayImmutable(ret, begin, end);
+    return JSONValueArrayImmutable.of(ret.freeze(), begin, end);
   }
 
   @Override
   @NotNull
   public String toTokenString() {
-    return toImmutable().toTokenString();
+    return JSONWriter.toTokenString(this);
   }
 
   @Override
   @NotNull
   public String toTokenString(String newline, String indent) {
-    return toImmutable().toTokenString(newline, indent);
+    return JSONWriter.toTokenString(this, newline, indent);
   }
 }
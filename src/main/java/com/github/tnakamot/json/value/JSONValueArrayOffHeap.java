@@ -0,0 +1,70 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static com.github.tnakamot.json.value.JSONOffHeapDocument.HEADER_SIZE;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents one immutable JSON 'array' value stored in a {@link JSONOffHeapDocument}.
+ *
+ * <p>An instance of this class is a light-weight view of the document. {@link #get(int)} and the
+ * other methods of {@link java.util.List} read the value from the document every time they are
+ * called. Because the source tokens of the values are not held, {@link #begin()} and {@link
+ * #end()} return null.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class JSONValueArrayOffHeap extends JSONValueArrayImmutable {
+  /**
+   * Create a view of the JSON array at the given offset of the document.
+   *
+   * @param document document which holds the JSON array
+   * @param offset offset of the JSON array in the document
+   */
+  JSONValueArrayOffHeap(@NotNull JSONOffHeapDocument document, int offset) {
+    super(new Values(document, offset), null, null, false);
+  }
+
+  /** A read-only view of a JSON array in a document as a list of JSON values. */
+  private static final class Values extends AbstractList<JSONValue> implements RandomAccess {
+    private final JSONOffHeapDocument document;
+    private final int offset;
+    private final int size;
+
+    Values(JSONOffHeapDocument document, int offset) {
+      this.document = document;
+      this.offset = offset;
+      this.size = document.intAt(offset + 1);
+    }
+
+    @Override
+    public JSONValue get(int index) {
+      Objects.checkIndex(index, size);
+      return document.valueAt(document.intAt(offset + HEADER_SIZE + 4 * index));
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Deduplicates equal JSON values so that they share one instance (hash-consing).
+ *
+ * <p>{@link #intern(JSONValue)} returns the first instance of the given value that this interner
+ * has seen. Immutable JSON arrays and objects are interned bottom-up: their names and values are
+ * interned first, then the array or object itself. Repeated strings and repeated sub-trees (e.g.
+ * the same small object in every record of a large JSON array) are held only once in memory.
+ *
+ * <p>Two values are regarded as the same only when they are equal and also look the same in a JSON
+ * text. For example, JSON numbers "1.0" and "1.00" are equal by {@link JSONValueNumber#equals}, but
+ * they are not interned into one instance so that {@link JSONValue#toTokenString()} of the interned
+ * value does not change. Mutable JSON arrays and objects are not interned and returned as they are.
+ *
+ * <p>An interned value keeps the source tokens of the instance that was interned first. Do not use
+ * an interner if you need the exact position of each value in the source JSON text.
+ *
+ * <p>An interner can be given to {@link com.github.tnakamot.json.JSONText#parse} to intern values
+ * while parsing, which interns each value once with {@link #internShallow(JSONValue)} as soon as it
+ * is parsed, or can be used for JSON values created in other ways:
+ *
+ * <pre>
+ * JSONValueInterner interner = new JSONValueInterner();
+ * JSONValue root = interner.intern(JSONText.fromString(text).parse().root());
+ * </pre>
+ *
+ * <p>Instances of this class are thread-safe. An interner holds strong references to all the values
+ * it has interned, so discard it or call {@link #clear()} when the values are no longer needed.
+ */
+public final class JSONValueInterner {
+  private final Map<Key, JSONValue> table;
+
+  /** Create an empty interner. */
+  public JSONValueInterner() {
+    this.table = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the canonical instance of the given value.
+   *
+   * @param value JSON value to intern
+   * @param <T> type of the JSON value
+   * @return an instance which is equal to the given value and looks the same in a JSON text. If
+   *     this interner has not seen such a value yet, the given value itself or, for JSON arrays and
+   *     objects, a copy of it which consists of interned values.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  public <T extends JSONValue> T intern(@NotNull T value) {
+    if (value == null) {
+      throw new NullPointerException("value cannot be null");
+    }
+
+    return (T) internValue(value);
+  }
+
+  /**
+   * Returns the canonical instance of the given value without interning its elements or members.
+   *
+   * <p>This method is for building a tree bottom-up, e.g. by a parser, where the elements or
+   * members of a JSON array or object have been interned by this interner already. Unlike {@link
+   * #intern(JSONValue)}, it takes constant time per value regardless of the depth of the tree. If
+   * the elements or members are not interned, the given value is still interned correctly, but it
+   * is not regarded as the same as an equal value which consists of other instances.
+   *
+   * @param value JSON value to intern
+   * @param <T> type of the JSON value
+   * @return an instance which is equal to the given value and looks the same in a JSON text. If
+   *     this interner has not seen such a value yet, the given value itself.
+   */
+  @NotNull
+  @SuppressWarnings("unchecked")
+  public <T extends JSONValue> T internShallow(@NotNull T value) {
+    if (value == null) {
+      throw new NullPointerException("value cannot be null");
+    }
+
+    return (T) put(value);
+  }
+
+  /**
+   * Returns the number of distinct values which this interner holds.
+   *
+   * @return the number of distinct values
+   */
+  public int size() {
+    return table.size();
+  }
+
+  /** Forget all the values which this interner holds. */
+  public void clear() {
+    table.clear();
+  }
+
+  private JSONValue internValue(JSONValue value) {
+    if (value instanceof JSONValueObjectImmutable) {
+      value = internMembers((JSONValueObjectImmutable) value);
+    } else if (value instanceof JSONValueArrayImmutable
+        && !(value instanceof JSONValueArrayLong)
+        && !(value instanceof JSONValueArrayDouble)) {
+      value = internElements((JSONValueArrayImmutable) value);
+    }
+    return put(value);
+  }
+
+  /** Intern the given value itself, assuming that its elements or members are interned. */
+  private JSONValue put(JSONValue value) {
+    if (value instanceof JSONValueArrayMutable || value instanceof JSONValueObjectMutable) {
+      return value;
+    }
+
+    JSONValue existing = table.putIfAbsent(new Key(value), value);
+    return existing == null ? value : existing;
+  }
+
+  private JSONValueArrayImmutable internElements(JSONValueArrayImmutable array) {
+    ChunkedList<JSONValue> elements = null;
+    for (int i = 0; i < array.size(); i++) {
+      JSONValue element = array.get(i);
+      JSONValue interned = internValue(element);
+      if (interned != element && elements == null) {
+        elements = new ChunkedList<>(array.subList(0, i));
+      }
+      if (elements != null) {
+        elements.add(interned);
+      }
+    }
+
+    if (elements == null) {
+      return array;
+    } else {
+      return new JSONValueArrayImmutable(elements.freeze(), array.begin(), array.end(), false);
+    }
+  }
+
+  private JSONValueObjectImmutable internMembers(JSONValueObjectImmutable object) {
+    int size = object.size();
+    JSONValueString[] keys = null;
+    JSONValue[] values = null;
+    for (int i = 0; i < size; i++) {
+      JSONValueString key = object.keyAt(i);
+      JSONValue value = object.valueAt(i);
+      JSONValueString internedKey = (JSONValueString) internValue(key);
+      JSONValue internedValue = internValue(value);
+      if ((internedKey != key || internedValue != value) && keys == null) {
+        keys = new JSONValueString[size];
+        values = new JSONValue[size];
+        for (int j = 0; j < i; j++) {
+          keys[j] = object.keyAt(j);
+          values[j] = object.valueAt(j);
+        }
+      }
+      if (keys != null) {
+        keys[i] = internedKey;
+        values[i] = internedValue;
+      }
+    }
+
+    if (keys == null) {
+      return object;
+    } else {
+      return new JSONValueObjectImmutable(keys, values, object.begin(), object.end());
+    }
+  }
+
+  /**
+   * Returns whether the given two values are the same in terms of this interner. The inner values
+   * of JSON arrays and objects are compared by identity because they have been interned already.
+   */
+  private static boolean same(JSONValue a, JSONValue b) {
+    if (a == b) {
+      return true;
+    } else if (a.getClass() != b.getClass()) {
+      return false;
+    } else if (a instanceof JSONValueArrayLong) {
+      // Plain integers have only one textual form.
+      return a.equals(b);
+    } else if (a instanceof JSONValueArrayDouble) {
+      // 1 and 1.0, or 0.0 and -0.0, are equal as doubles but written differently.
+      return ((JSONValueArrayDouble) a).sameText((JSONValueArrayDouble) b);
+    } else if (a instanceof JSONValueArrayImmutable) {
+      JSONValueArrayImmutable x = (JSONValueArrayImmutable) a;
+      JSONValueArrayImmutable y = (JSONValueArrayImmutable) b;
+      if (x.size() != y.size()) {
+        return false;
+      }
+      for (int i = 0; i < x.size(); i++) {
+        if (x.get(i) != y.get(i)) {
+          return false;
+        }
+      }
+      return true;
+    } else if (a instanceof JSONValueObjectImmutable) {
+      JSONValueObjectImmutable x = (JSONValueObjectImmutable) a;
+      JSONValueObjectImmutable y = (JSONValueObjectImmutable) b;
+      if (x.size() != y.size()) {
+        return false;
+      }
+      for (int i = 0; i < x.size(); i++) {
+        if (x.keyAt(i) != y.keyAt(i) || x.valueAt(i) != y.valueAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    } else {
+      return a.equals(b) && a.toTokenString().equals(b.toTokenString());
+    }
+  }
+
+  private static final class Key {
+    private final JSONValue value;
+    private final int hash;
+
+    Key(JSONValue value) {
+      this.value = value;
+      this.hash = value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key k = (Key) obj;
+        return hash == k.hash && same(value, k.value);
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -16,9 +16,11 @@
 
 package com.github.tnakamot.json.value;
 
+import com.github.tnakamot.json.token.JSONDecimal;
 import com.github.tnakamot.json.token.JSONToken;
 import com.github.tnakamot.json.token.JSONTokenNumber;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -31,17 +33,66 @@ import java.math.BigInteger;
  * cannot be represented by Java primitive types. Therefore, this class internally holds a text
  * representation of a JSON 'number' value.
  *
+ * <p>Besides the text, this class holds the {@link JSONDecimal} value of the text, which has been
+ * computed once when the text was scanned. The conversions to Java values, {@link #hashCode()} and
+ * {@link #equals(Object)} use it instead of parsing the text again. A {@link BigDecimal} is
+ * created only when {@link #toBigDecimal()} is called for the first time, and cached.
+ *
+ * <p>Use {@link #valueOf(long)} instead of {@link #JSONValueNumber(long)} to share instances of
+ * small integers.
+ *
  * <p>Instances of this class are immutable.
  */
 public class JSONValueNumber extends JSONValuePrimitive {
-  private final String text;
-
   /**
    * Regex pattern that exactly matches the "number" tokens defined in <a
    * href="https://tools.ietf.org/html/rfc8259#section-6">RFC 8259 - 6. Numbers</a>.
+   *
+   * <p>This library does not use this pattern to validate numbers. See {@link
+   * JSONDecimal#parse(CharSequence)}.
    */
   public static final String NUMBER_PATTERN = "-?(0|([1-9][0-9]*))(\\.[0-9]+)?([eE][-+]?[0-9]+)?";
 
+  /** Maximum number of significant digits held by {@link JSONDecimal#significand()}. */
+  private static final int MAX_SIGNIFICAND_DIGITS = 19;
+
+  /** Cached result of {@link #toBigDecimal()} which indicates that BigDecimal cannot hold it. */
+  private static final BigDecimal NOT_DECIMAL = new BigDecimal(BigInteger.ONE, 0);
+
+  private static final long CACHE_LOW = -128;
+  private static final long CACHE_HIGH = 1023;
+  private static final JSONValueNumber[] CACHE =
+      new JSONValueNumber[(int) (CACHE_HIGH - CACHE_LOW) + 1];
+
+  static {
+    for (int i = 0; i < CACHE.length; i++) {
+      CACHE[i] = new JSONValueNumber(CACHE_LOW + i);
+    }
+  }
+
+  private final String text;
+  private final JSONDecimal decimal;
+
+  private BigDecimal decimalValue;
+
+  /**
+   * Returns a JSON number value that represents the given Java long value.
+   *
+   * <p>Unlike {@link #JSONValueNumber(long)}, this method returns a shared instance for small
+   * integers which frequently appear in JSON texts (e.g. 0, 1, -1).
+   *
+   * @param value Java long value which the returned JSON number value represents
+   * @return a JSON number value that represents the given Java long value
+   */
+  @NotNull
+  public static JSONValueNumber valueOf(long value) {
+    if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+      return CACHE[(int) (value - CACHE_LOW)];
+    } else {
+      return new JSONValueNumber(value);
+    }
+  }
+
   /**
    * Create an instance of a Java representation of a JSON number value.
    *
@@ -51,19 +102,7 @@ public class JSONValueNumber extends JSONValuePrimitive {
    *     <a href="https://tools.ietf.org/html/rfc8259#section-6">RFC 8259 - 6. Numbers</a>.
    */
   public JSONValueNumber(String text) throws NumberFormatException {
-    super(JSONValueType.NUMBER);
-    this.text = text;
-
-    if (text == null) {
-      throw new NullPointerException("text cannot be null");
-    }
-
-    if (!text.matches(NUMBER_PATTERN)) {
-      throw new NumberFormatException(
-          "The given text '"
-              + text
-              + "' does not match the pattern of JSON numbers defined in RFC 8259.");
-    }
+    this(text, parse(text), null);
   }
 
   /**
@@ -72,8 +111,7 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * @param value Java long value which represents this JSON number value
    */
   public JSONValueNumber(long value) {
-    super(JSONValueType.NUMBER, null);
-    this.text = Long.toString(value, 10);
+    this(Long.toString(value, 10));
   }
 
   /**
@@ -83,14 +121,7 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * @throws IllegalArgumentException if the given value is NaN, +Inf or -Inf
    */
   public JSONValueNumber(double value) throws IllegalArgumentException {
-    super(JSONValueType.NUMBER, null);
-    this.text = Double.toString(value);
-
-    if (Double.isNaN(value)) {
-      throw new IllegalArgumentException("JSON number value cannot be NaN");
-    } else if (Double.isInfinite(value)) {
-      throw new IllegalArgumentException("JSON number value cannot be infinite");
-    }
+    this(validate(value));
   }
 
   /**
@@ -99,14 +130,38 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * @param token source token of this JSON string value.
    */
   public JSONValueNumber(JSONTokenNumber token) {
-    super(JSONValueType.NUMBER, token);
-    this.text = token.text();
+    this(token.text(), token.decimal(), token);
 
     // Because JSONTokenNumber#text() returns a text representation
     // of a JSON number value that complies with RFC 8259, this method
     // does not validate the text to minimize the computational overhead.
   }
 
+  private JSONValueNumber(
+      @NotNull String text, @NotNull JSONDecimal decimal, @Nullable JSONToken token) {
+    super(JSONValueType.NUMBER, token);
+    this.text = text;
+    this.decimal = decimal;
+  }
+
+  private static JSONDecimal parse(String text) throws NumberFormatException {
+    if (text == null) {
+      throw new NullPointerException("text cannot be null");
+    }
+
+    return JSONDecimal.parse(text);
+  }
+
+  private static String validate(double value) throws IllegalArgumentException {
+    if (Double.isNaN(value)) {
+      throw new IllegalArgumentException("JSON number value cannot be NaN");
+    } else if (Double.isInfinite(value)) {
+      throw new IllegalArgumentException("JSON number value cannot be infinite");
+    }
+
+    return Double.toString(value);
+  }
+
   /**
    * Return a JSON text representation of this JSON number value.
    *
@@ -134,14 +189,14 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * assume that the returned double value precisely represents the original number in the JSON
    * text.
    *
-   * <p>This method internally calls {@link Double#parseDouble(String)}. Too big values like "1e309"
-   * is converted to {@link Double#POSITIVE_INFINITY}, for example. Too small values like
-   * "-2.4E-324" is converted to -0.0.
+   * <p>The double value is converted by the same rule as {@link Double#parseDouble(String)} when
+   * this instance is created. Too big values like "1e309" is converted to {@link
+   * Double#POSITIVE_INFINITY}, for example. Too small values like "-2.4E-324" is converted to -0.0.
    *
    * @return a Java double value that this token represents
    */
   public double toDouble() {
-    return Double.parseDouble(text());
+    return decimal.toDouble();
   }
 
   /**
@@ -156,28 +211,14 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * @throws NumberFormatException if the value cannot be converted to a Java long value
    */
   public long toLong() throws NumberFormatException {
-    BigDecimal bd;
-
-    try {
-      bd = new BigDecimal(text());
-    } catch (NumberFormatException ex) {
+    if (decimal.canBeLong()) {
+      return decimal.toLong();
+    } else if (decimal.hasFraction()) {
       throw new NumberFormatException(
-          "Cannot convert '" + text() + "' to long. " + ex.getMessage());
-    }
-
-    BigInteger bi;
-    try {
-      bi = bd.toBigIntegerExact();
-    } catch (ArithmeticException ex) {
-      throw new NumberFormatException(
-          "Cannot convert '" + text() + "' to long because it has a fractional part.");
-    }
-
-    try {
-      return bi.longValueExact();
-    } catch (ArithmeticException ex) {
+          "Cannot convert '" + text + "' to long because it has a fractional part.");
+    } else {
       throw new NumberFormatException(
-          "Cannot convert '" + text() + "' to long because it is out of long range.");
+          "Cannot convert '" + text + "' to long because it is out of long range.");
     }
   }
 
@@ -188,64 +229,111 @@ public class JSONValueNumber extends JSONValuePrimitive {
    * @return whether this token can be converted to a Java long value.
    */
   public boolean canBeLong() {
-    try {
-      toLong();
-      return true;
-    } catch (NumberFormatException ex) {
-      return false;
+    return decimal.canBeLong();
+  }
+
+  /**
+   * This method returns a {@link BigDecimal} that exactly represents this JSON number value.
+   *
+   * <p>{@link BigDecimal} cannot hold a number whose exponent is too large or too small (e.g.
+   * 1e10000000000). This method raises {@link NumberFormatException} for such a number.
+   *
+   * @return a {@link BigDecimal} that exactly represents this JSON number value
+   * @throws NumberFormatException if the value cannot be represented by {@link BigDecimal}
+   */
+  @NotNull
+  public BigDecimal toBigDecimal() throws NumberFormatException {
+    BigDecimal decimal = bigDecimal();
+    if (decimal == NOT_DECIMAL) {
+      throw new NumberFormatException(
+          "Cannot convert '" + text + "' to BigDecimal because its exponent is out of range.");
     }
+    return decimal;
+  }
+
+  private BigDecimal bigDecimal() {
+    BigDecimal decimal = decimalValue;
+    if (decimal == null) {
+      try {
+        decimal = new BigDecimal(text);
+      } catch (NumberFormatException ex) {
+        decimal = NOT_DECIMAL;
+      }
+      decimalValue = decimal;
+    }
+    return decimal;
   }
 
   /**
    * To best comply with <a
    * href="https://tools.ietf.org/html/draft-handrews-json-schema-02#section-4.2.3">JSON Schema</a>
-   * this method tries to return the same hash for two JSONValueNumber which have mathematically
-   * have the same numeric value. For example, 10e9 and 1e10 returns the same hash.
+   * this method returns the same hash for two JSONValueNumber which have mathematically the same
+   * numeric value. For example, 10e9 and 1e10 returns the same hash.
    *
-   * <p>However, big values which {@link BigDecimal} cannot handle may or may not return the same
-   * hash.
+   * <p>The hash is computed from the sign, the significant digits and the exponent of {@link
+   * JSONDecimal}, which have been computed when the text was scanned.
    *
    * @return hash code for this JSONValueNumber
    */
   @Override
   public int hashCode() {
-    try {
-      BigDecimal a = new BigDecimal(this.text);
-      return a.intValue();
-    } catch (Exception e) {
-      return text.hashCode();
+    if (decimal.significantDigits() == 0) {
+      return 0;
     }
+
+    int hash = Long.hashCode(decimal.significand()) * 31 + Long.hashCode(decimal.exponent());
+    return decimal.isNegative() ? -hash : hash;
   }
 
   /**
    * To best comply with <a
    * href="https://tools.ietf.org/html/draft-handrews-json-schema-02#section-4.2.3">JSON Schema</a>
-   * this method tries to compare the value mathematically using {@link BigDecimal}. However, big
-   * values which {@link BigDecimal} cannot handle will not be mathematically evaluated. For
-   * example, 10e10000000000 and 1e10000000001 are mathematically equal, but this method considers
-   * that they are different.
+   * this method compares the value mathematically. For example, 1.0 and 1 are equal, and -0 and 0
+   * are equal.
+   *
+   * <p>Two numbers are compared by the sign, the significant digits and the exponent of {@link
+   * JSONDecimal} without creating any object, unless both of them have more than 19 significant
+   * digits. However, numbers whose exponents are out of the range of Java int will not be
+   * mathematically evaluated. For example, 10e10000000000 and 1e10000000001 are mathematically
+   * equal, but this method considers that they are different.
    *
    * @param obj Object to which this JSONValueNumber is to be compared.
-   * @return true if and only if the specified Object is a JSONValueNumber whose value and scale are
-   *     equal to this JSONValueNumber's.
+   * @return true if and only if the specified Object is a JSONValueNumber whose value is
+   *     mathematically equal to this JSONValueNumber's.
    */
   @Override
   public boolean equals(Object obj) {
-    if (obj instanceof JSONValueNumber) {
-      JSONValueNumber num = (JSONValueNumber) obj;
+    if (this == obj) {
+      return true;
+    } else if (!(obj instanceof JSONValueNumber)) {
+      return false;
+    }
+
+    JSONValueNumber num = (JSONValueNumber) obj;
+    JSONDecimal a = this.decimal;
+    JSONDecimal b = num.decimal;
+
+    if (a.significantDigits() != b.significantDigits()) {
+      return false;
+    } else if (a.significantDigits() == 0) {
+      // -0 and 0
+      return true;
+    } else if (a.isNegative() != b.isNegative()
+        || a.exponent() != b.exponent()
+        || a.significand() != b.significand()) {
+      return false;
+    } else if (a.exponent() != (int) a.exponent()) {
+      return this.text.equals(num.text);
+    } else if (a.significantDigits() <= MAX_SIGNIFICAND_DIGITS) {
+      return true;
+    } else {
+      // The first 19 digits are the same. Compare the rest.
       if (this.text.equals(num.text)) {
         return true;
-      } else {
-        try {
-          BigDecimal a = new BigDecimal(this.text);
-          BigDecimal b = new BigDecimal(num.text);
-          return a.compareTo(b) == 0;
-        } catch (Exception ex) {
-          return false;
-        }
       }
-    } else {
-      return false;
+      BigDecimal x = this.bigDecimal();
+      BigDecimal y = num.bigDecimal();
+      return x != NOT_DECIMAL && y != NOT_DECIMAL && x.compareTo(y) == 0;
     }
   }
 
@@ -18,9 +18,11 @@ package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 /** Represents one JSON 'object' value. */
@@ -64,6 +66,58 @@ public abstract class JSONValueObject extends JSONValueStructured
    */
   public abstract JSONValue get(String name);
 
+  /**
+   * Returns the JSON value which has the given name.
+   *
+   * <p>The default implementation converts the name to {@link String}. {@link
+   * JSONValueObjectImmutable} compares the name with the members without allocating any object.
+   *
+   * @param name name
+   * @return a JSON value of the given name
+   * @see #get(JSONValueString)
+   */
+  public JSONValue get(@NotNull CharSequence name) {
+    return get(name.toString());
+  }
+
+  /**
+   * Returns the JSON value which has the name of the given key.
+   *
+   * <p>Use this method to look up the same name repeatedly in a loop. See {@link JSONKey} for more
+   * details.
+   *
+   * @param key key which has the name
+   * @return a JSON value of the given name
+   * @see #get(JSONValueString)
+   */
+  public JSONValue get(@NotNull JSONKey key) {
+    return get(key.jsonName());
+  }
+
+  /**
+   * Returns the JSON value which has the given name.
+   *
+   * @param name name of the JSON value
+   * @return the JSON value of the given name, or an empty optional if this object has no such
+   *     member
+   */
+  @NotNull
+  public Optional<JSONValue> find(@NotNull String name) {
+    return Optional.ofNullable(get(name));
+  }
+
+  /**
+   * Returns the JSON value which has the name of the given key.
+   *
+   * @param key key which has the name
+   * @return the JSON value of the given name, or an empty optional if this object has no such
+   *     member
+   */
+  @NotNull
+  public Optional<JSONValue> find(@NotNull JSONKey key) {
+    return Optional.ofNullable(get(key));
+  }
+
   /** {@inheritDoc} */
   @Override
   public abstract int size();
@@ -85,6 +139,28 @@ public abstract class JSONValueObject extends JSONValueStructured
    */
   public abstract boolean containsKey(String name);
 
+  /**
+   * Check if this JSON object has a value which has the given name.
+   *
+   * @param name name
+   * @return true if a value with the given name exists
+   * @see #get(CharSequence)
+   */
+  public boolean containsKey(@NotNull CharSequence name) {
+    return containsKey(name.toString());
+  }
+
+  /**
+   * Check if this JSON object has a value which has the name of the given key.
+   *
+   * @param key key which has the name
+   * @return true if a value with the given name exists
+   * @see #get(JSONKey)
+   */
+  public boolean containsKey(@NotNull JSONKey key) {
+    return containsKey(key.jsonName());
+  }
+
   /** {@inheritDoc} */
   @Override
   public abstract boolean containsValue(Object o);
@@ -161,7 +237,7 @@ public abstract class JSONValueObject extends JSONValueStructured
    *     implementation supports null values.)
    */
   public JSONValue put(String key, long value) {
-    return put(key, new JSONValueNumber(value));
+    return put(key, JSONValueNumber.valueOf(value));
   }
 
   /**
@@ -201,7 +277,51 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public boolean getBoolean(String key) {
+    return asBoolean(key, get(key));
+  }
+
+  /**
+   * Returns the boolean value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not boolean
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public boolean getBoolean(@NotNull JSONKey key) {
+    return asBoolean(key.name(), get(key));
+  }
+
+  /**
+   * Returns the boolean value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not boolean
+   */
+  public boolean getBoolean(String key, boolean defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asBoolean(key, val);
+  }
+
+  /**
+   * Returns the boolean value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not boolean
+   */
+  public boolean getBoolean(@NotNull JSONKey key, boolean defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asBoolean(key.name(), val);
+  }
+
+  private static boolean asBoolean(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueBoolean) {
@@ -223,7 +343,54 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public long getLong(String key) {
+    return asLong(key, get(key));
+  }
+
+  /**
+   * Returns the long value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not number
+   * @throws NumberFormatException if the value cannot be converted to a Java long value
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public long getLong(@NotNull JSONKey key) {
+    return asLong(key.name(), get(key));
+  }
+
+  /**
+   * Returns the number value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not number
+   * @throws NumberFormatException if the value cannot be converted to a Java long value
+   */
+  public long getLong(String key, long defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asLong(key, val);
+  }
+
+  /**
+   * Returns the number value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not number
+   * @throws NumberFormatException if the value cannot be converted to a Java long value
+   */
+  public long getLong(@NotNull JSONKey key, long defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asLong(key.name(), val);
+  }
+
+  private static long asLong(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueNumber) {
@@ -244,7 +411,51 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public double getDouble(String key) {
+    return asDouble(key, get(key));
+  }
+
+  /**
+   * Returns the double value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not number
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public double getDouble(@NotNull JSONKey key) {
+    return asDouble(key.name(), get(key));
+  }
+
+  /**
+   * Returns the number value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not number
+   */
+  public double getDouble(String key, double defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asDouble(key, val);
+  }
+
+  /**
+   * Returns the number value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not number
+   */
+  public double getDouble(@NotNull JSONKey key, double defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asDouble(key.name(), val);
+  }
+
+  private static double asDouble(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueNumber) {
@@ -265,7 +476,53 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public String getString(String key) {
+    return asString(key, get(key));
+  }
+
+  /**
+   * Returns the string value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not string
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public String getString(@NotNull JSONKey key) {
+    return asString(key.name(), get(key));
+  }
+
+  /**
+   * Returns the string value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not string
+   */
+  @Nullable
+  public String getString(String key, @Nullable String defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asString(key, val);
+  }
+
+  /**
+   * Returns the string value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not string
+   */
+  @Nullable
+  public String getString(@NotNull JSONKey key, @Nullable String defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asString(key.name(), val);
+  }
+
+  private static String asString(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueString) {
@@ -286,7 +543,53 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public JSONValueArray getArray(String key) {
+    return asArray(key, get(key));
+  }
+
+  /**
+   * Returns the array value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not array
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public JSONValueArray getArray(@NotNull JSONKey key) {
+    return asArray(key.name(), get(key));
+  }
+
+  /**
+   * Returns the array value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not array
+   */
+  @Nullable
+  public JSONValueArray getArray(String key, @Nullable JSONValueArray defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asArray(key, val);
+  }
+
+  /**
+   * Returns the array value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not array
+   */
+  @Nullable
+  public JSONValueArray getArray(@NotNull JSONKey key, @Nullable JSONValueArray defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asArray(key.name(), val);
+  }
+
+  private static JSONValueArray asArray(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueArray) {
@@ -307,7 +610,53 @@ public abstract class JSONValueObject extends JSONValueStructured
    * @throws IllegalArgumentException if this object contains no mapping for the key
    */
   public JSONValueObject getObject(String key) {
+    return asObject(key, get(key));
+  }
+
+  /**
+   * Returns the object value to which the specified key is mapped, or null if this map contains no
+   * mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @return the value to which the specified key is mapped
+   * @throws WrongValueTypeException if the value type is not object
+   * @throws IllegalArgumentException if this object contains no mapping for the key
+   */
+  public JSONValueObject getObject(@NotNull JSONKey key) {
+    return asObject(key.name(), get(key));
+  }
+
+  /**
+   * Returns the object value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose associated value is to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not object
+   */
+  @Nullable
+  public JSONValueObject getObject(String key, @Nullable JSONValueObject defaultValue) {
+    JSONValue val = get(key);
+    return val == null ? defaultValue : asObject(key, val);
+  }
+
+  /**
+   * Returns the object value to which the specified key is mapped, or the given default value if
+   * this object contains no mapping for the key.
+   *
+   * @param key the key whose name is associated with the value to be returned
+   * @param defaultValue the value to return if this object contains no mapping for the key
+   * @return the value to which the specified key is mapped, or the default value
+   * @throws WrongValueTypeException if the value type is not object
+   */
+  @Nullable
+  public JSONValueObject getObject(@NotNull JSONKey key, @Nullable JSONValueObject defaultValue) {
     JSONValue val = get(key);
+    return val == null ? defaultValue : asObject(key.name(), val);
+  }
+
+  private static JSONValueObject asObject(String key, JSONValue val) {
     if (val == null) {
       throw new IllegalArgumentException("Key '" + key + "' does not exist.");
     } else if (val instanceof JSONValueObject) {
@@ -331,7 +680,9 @@ public abstract class JSONValueObject extends JSONValueStructured
 
   @Override
   public boolean equals(Object o) {
-    if (!(o instanceof JSONValueObject)) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof JSONValueObject)) {
       return false;
     }
     JSONValueObject obj = (JSONValueObject) o;
@@ -340,7 +691,8 @@ public abstract class JSONValueObject extends JSONValueStructured
     }
 
     for (Map.Entry<JSONValueString, JSONValue> entry : this.entrySet()) {
-      if (!obj.get(entry.getKey()).equals(entry.getValue())) {
+      JSONValue value = obj.get(entry.getKey());
+      if (value == null || !value.equals(entry.getValue())) {
         return false;
       }
     }
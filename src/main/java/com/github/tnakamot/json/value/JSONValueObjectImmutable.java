@@ -16,9 +16,14 @@
 
 package com.github.tnakamot.json.value;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 import com.github.tnakamot.json.token.JSONToken;
@@ -34,10 +39,24 @@ import org.jetbrains.annotations.Nullable;
  *
  * <p>This implementation retains the order.
  *
+ * <p>Members are stored in two parallel arrays of names and values in their original order. Small
+ * objects are searched linearly. Objects which have more than {@value #LINEAR_SCAN_THRESHOLD}
+ * members additionally have an open-addressing hash index over the names. Lookups by {@link
+ * String}, {@link CharSequence} and {@link JSONKey} do not allocate any object.
+ *
  * @see JSONValueObjectMutable
  */
 public class JSONValueObjectImmutable extends JSONValueObject {
-  private final LinkedHashMap<JSONValueString, JSONValue> members;
+  /** Maximum number of members which are looked up without the hash index. */
+  static final int LINEAR_SCAN_THRESHOLD = 8;
+
+  private static final JSONValueString[] EMPTY_KEYS = new JSONValueString[0];
+  private static final JSONValue[] EMPTY_VALUES = new JSONValue[0];
+
+  private final JSONValueString[] keys;
+  private final JSONValue[] values;
+  private final int[] index;
+  private int hash;
 
   /**
    * Create an instance of a Java representation of a JSON 'object' value.
@@ -62,50 +81,241 @@ public class JSONValueObjectImmutable extends JSONValueObject {
       @Nullable JSONToken begin,
       @Nullable JSONToken end) {
     super(begin, end);
-    if (members == null) {
-      this.members = new LinkedHashMap<>();
+    if (members == null || members.isEmpty()) {
+      this.keys = EMPTY_KEYS;
+      this.values = EMPTY_VALUES;
     } else {
-      this.members = new LinkedHashMap<>(members);
+      this.keys = new JSONValueString[members.size()];
+      this.values = new JSONValue[members.size()];
+
+      int i = 0;
+      for (Map.Entry<JSONValueString, JSONValue> entry : members.entrySet()) {
+        this.keys[i] = entry.getKey();
+        this.values[i] = entry.getValue();
+        i++;
+      }
+    }
+    this.index = buildIndex(this.keys);
+  }
+
+  /**
+   * Create an instance of a Java representation of a JSON 'object' value from the given arrays.
+   *
+   * <p>The given arrays are used as they are without being copied. The caller must not modify them
+   * after calling this constructor, and must guarantee that the names are unique.
+   *
+   * @param keys names of the members in order
+   * @param values values of the members in the same order as the names
+   * @param begin the beginning token of this JSON object. Null if this JSON object does not
+   *     originate from an exsiting JSON text.
+   * @param end the end token of this JSON object. Null if this JSON object does not originate from
+   *     an exsiting JSON text.
+   */
+  JSONValueObjectImmutable(
+      @NotNull JSONValueString[] keys,
+      @NotNull JSONValue[] values,
+      @Nullable JSONToken begin,
+      @Nullable JSONToken end) {
+    this(keys, values, buildIndex(keys), begin, end);
+  }
+
+  private JSONValueObjectImmutable(
+      @NotNull JSONValueString[] keys,
+      @NotNull JSONValue[] values,
+      @Nullable int[] index,
+      @Nullable JSONToken begin,
+      @Nullable JSONToken end) {
+    super(begin, end);
+    this.keys = keys;
+    this.values = values;
+    this.index = index;
+  }
+
+  /**
+   * Build an open-addressing hash index (linear probing) of the given names. Each slot holds the
+   * position of a member plus one, or zero if the slot is empty.
+   *
+   * @param keys names of the members
+   * @return the hash index, or null if the number of members is small enough to scan linearly
+   */
+  @Nullable
+  private static int[] buildIndex(@NotNull JSONValueString[] keys) {
+    if (keys.length <= LINEAR_SCAN_THRESHOLD) {
+      return null;
     }
+
+    int[] index = new int[Integer.highestOneBit(keys.length) << 2];
+    int mask = index.length - 1;
+    for (int i = 0; i < keys.length; i++) {
+      int slot = spread(keys[i].hashCode()) & mask;
+      while (index[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      index[slot] = i + 1;
+    }
+
+    return index;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Find the position of the member of the given name.
+   *
+   * @param name name of the member
+   * @return position of the member, or -1 if there is no member of the given name
+   */
+  private int indexOf(@NotNull JSONValueString name) {
+    return indexOf(name.value(), name.hashCode());
+  }
+
+  /**
+   * Find the position of the member of the given name without allocating any object.
+   *
+   * @param name name of the member
+   * @param hash hash code of the name which is equal to {@link String#hashCode()} of the name
+   * @return position of the member, or -1 if there is no member of the given name
+   */
+  private int indexOf(@NotNull CharSequence name, int hash) {
+    if (index == null) {
+      for (int i = 0; i < keys.length; i++) {
+        if (nameEquals(keys[i], name)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    int mask = index.length - 1;
+    int slot = spread(hash) & mask;
+    int pos;
+    while ((pos = index[slot]) != 0) {
+      if (nameEquals(keys[pos - 1], name)) {
+        return pos - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private static boolean nameEquals(@NotNull JSONValueString key, @NotNull CharSequence name) {
+    if (name instanceof String) {
+      return key.value().equals(name);
+    } else {
+      return key.value().contentEquals(name);
+    }
+  }
+
+  /**
+   * Compute the same hash code as {@link String#hashCode()} for the given sequence of characters.
+   *
+   * @param name sequence of characters
+   * @return hash code
+   */
+  private static int hash(@NotNull CharSequence name) {
+    if (name instanceof String) {
+      return name.hashCode();
+    }
+
+    int h = 0;
+    for (int i = 0; i < name.length(); i++) {
+      h = 31 * h + name.charAt(i);
+    }
+    return h;
   }
 
   /** {@inheritDoc} */
   public JSONValue get(JSONValueString name) {
-    return members.get(name);
+    int i = indexOf(name);
+    return i < 0 ? null : values[i];
   }
 
   /** {@inheritDoc} */
   public JSONValue get(String name) {
-    return members.get(new JSONValueString(name));
+    int i = indexOf(name, name.hashCode());
+    return i < 0 ? null : values[i];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public JSONValue get(@NotNull CharSequence name) {
+    int i = indexOf(name, hash(name));
+    return i < 0 ? null : values[i];
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public JSONValue get(@NotNull JSONKey key) {
+    int i = indexOf(key);
+    return i < 0 ? null : values[i];
+  }
+
+  /**
+   * Find the position of the member of the given key. The position where the member was found last
+   * time is checked first.
+   *
+   * @param key key of the member
+   * @return position of the member, or -1 if there is no member of the given key
+   */
+  private int indexOf(@NotNull JSONKey key) {
+    int hint = key.slotHint();
+    if (hint < keys.length && keys[hint].value().equals(key.name())) {
+      return hint;
+    }
+
+    int i = indexOf(key.name(), key.hash());
+    if (i >= 0) {
+      key.slotHint(i);
+    }
+    return i;
   }
 
   /** {@inheritDoc} */
   @Override
   public int size() {
-    return members.size();
+    return keys.length;
   }
 
   /** {@inheritDoc} */
   @Override
   public boolean isEmpty() {
-    return members.isEmpty();
+    return keys.length == 0;
   }
 
   /** {@inheritDoc} */
   @Override
   public boolean containsKey(Object o) {
-    return members.containsKey(o);
+    return (o instanceof JSONValueString) && indexOf((JSONValueString) o) >= 0;
   }
 
   /** {@inheritDoc} */
   public boolean containsKey(String name) {
-    return members.containsKey(new JSONValueString(name));
+    return indexOf(name, name.hashCode()) >= 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsKey(@NotNull CharSequence name) {
+    return indexOf(name, hash(name)) >= 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsKey(@NotNull JSONKey key) {
+    return indexOf(key) >= 0;
   }
 
   /** {@inheritDoc} */
   @Override
   public boolean containsValue(Object o) {
-    return members.containsValue(o);
+    for (JSONValue value : values) {
+      if (o == null ? value == null : o.equals(value)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /** {@inheritDoc} */
@@ -152,102 +362,265 @@ public class JSONValueObjectImmutable extends JSONValueObject {
   @Override
   @NotNull
   public Set<JSONValueString> keySet() {
-    return members.keySet();
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<JSONValueString> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          JSONValueString element(int i) {
+            return keys[i];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+    };
   }
 
   /** {@inheritDoc} */
   @Override
   @NotNull
   public Collection<JSONValue> values() {
-    return members.values();
+    return new AbstractCollection<>() {
+      @Override
+      public Iterator<JSONValue> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          JSONValue element(int i) {
+            return values[i];
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return values.length;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsValue(o);
+      }
+    };
   }
 
   /** {@inheritDoc} */
   @Override
   @NotNull
   public Set<Entry<JSONValueString, JSONValue>> entrySet() {
-    return members.entrySet();
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<JSONValueString, JSONValue>> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          Entry<JSONValueString, JSONValue> element(int i) {
+            return new AbstractMap.SimpleImmutableEntry<>(keys[i], values[i]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+
+  /** Read-only iterator over the members in order. */
+  private abstract class MemberIterator<E> implements Iterator<E> {
+    private int next = 0;
+
+    abstract E element(int i);
+
+    @Override
+    public boolean hasNext() {
+      return next < keys.length;
+    }
+
+    @Override
+    public E next() {
+      if (next >= keys.length) {
+        throw new NoSuchElementException();
+      }
+      return element(next++);
+    }
   }
 
   /**
-   * Return the copy of this JSON object as a mutable Java object.
+   * Returns the name of the member at the given position.
    *
-   * <p>All inner JSON objects and JSON arrays are also turned to be mutable.
+   * @param i position of the member in the original order
+   * @return name of the member
+   */
+  JSONValueString keyAt(int i) {
+    return keys[i];
+  }
+
+  /**
+   * Returns the value of the member at the given position.
    *
-   * @return a mutable version of the same JSON object.
+   * @param i position of the member in the original order
+   * @return value of the member
    */
-  public JSONValueObjectMutable toMutable() {
-    JSONValueObjectMutable ret = new JSONValueObjectMutable();
-
-    for (Map.Entry<JSONValueString, JSONValue> entry : entrySet()) {
-      JSONValue value = entry.getValue();
-      if (value instanceof JSONValueArrayImmutable) {
-        ret.put(entry.getKey(), ((JSONValueArrayImmutable) value).toMutable());
-      } else if (value instanceof JSONValueObjectImmutable) {
-        ret.put(entry.getKey(), ((JSONValueObjectImmutable) value).toMutable());
-      } else {
-        ret.put(entry.getKey(), value);
+  JSONValue valueAt(int i) {
+    return values[i];
+  }
+
+  /** {@inheritDoc} The hash code is computed once and cached. */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0) {
+      h = super.hashCode();
+      hash = h;
+    }
+    return h;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>When the given object is also an immutable JSON object, their sizes and cached hash codes
+   * are compared first, and the members are compared in the same order before looking them up by
+   * name.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    } else if (!(o instanceof JSONValueObjectImmutable)) {
+      return super.equals(o);
+    }
+
+    JSONValueObjectImmutable obj = (JSONValueObjectImmutable) o;
+    if (keys.length != obj.keys.length || hashCode() != obj.hashCode()) {
+      return false;
+    }
+
+    for (int i = 0; i < keys.length; i++) {
+      JSONValue value = keys[i].equals(obj.keys[i]) ? obj.values[i] : obj.get(keys[i]);
+      if (value == null || !values[i].equals(value)) {
+        return false;
       }
     }
 
-    return ret;
+    return true;
   }
 
-  @Override
+  /**
+   * Returns a JSON object which has the same members as this JSON object except that the member of
+   * the given name has the given value. The member is appended if this JSON object does not have a
+   * member of the given name.
+   *
+   * <p>This JSON object is not modified. The returned JSON object shares all the other values with
+   * this JSON object, so this method copies only the top-level members of this JSON object. A
+   * mutable JSON array or object given as the value is turned to be immutable.
+   *
+   * @param name name of the member
+   * @param value new value of the member
+   * @return a JSON object which has the member of the given name and value
+   */
   @NotNull
-  public String toTokenString() {
-    if (size() == 0) {
-      return JSONToken.JSON_BEGIN_OBJECT + JSONToken.JSON_END_OBJECT;
+  public JSONValueObjectImmutable with(@NotNull JSONValueString name, @NotNull JSONValue value) {
+    value = immutableCopyOf(value);
+
+    int i = indexOf(name);
+    if (i >= 0) {
+      JSONValue[] newValues = values.clone();
+      newValues[i] = value;
+      return new JSONValueObjectImmutable(keys, newValues, index, null, null);
     }
 
-    StringBuilder sb = new StringBuilder();
-    sb.append(JSONToken.JSON_BEGIN_OBJECT);
-    for (Map.Entry<JSONValueString, JSONValue> entry : this.entrySet()) {
-      sb.append(entry.getKey().toTokenString());
-      sb.append(JSONToken.JSON_NAME_SEPARATOR);
-      sb.append(entry.getValue().toTokenString());
-      sb.append(JSONToken.JSON_VALUE_SEPARATOR);
-    }
-    sb.deleteCharAt(sb.length() - 1);
-    sb.append(JSONToken.JSON_END_OBJECT);
-    return sb.toString();
+    JSONValueString[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+    JSONValue[] newValues = Arrays.copyOf(values, values.length + 1);
+    newKeys[keys.length] = name;
+    newValues[values.length] = value;
+    return new JSONValueObjectImmutable(newKeys, newValues, null, null);
   }
 
-  @Override
+  /**
+   * Returns a JSON object which has the same members as this JSON object except that the member of
+   * the given name has the given value.
+   *
+   * @param name name of the member
+   * @param value new value of the member
+   * @return a JSON object which has the member of the given name and value
+   * @see #with(JSONValueString, JSONValue)
+   */
   @NotNull
-  public String toTokenString(String newline, String indent) {
-    validateNewline(newline);
-    validateIndent(indent);
-
-    if (size() == 0) {
-      return JSONToken.JSON_BEGIN_OBJECT + " " + JSONToken.JSON_END_OBJECT;
-    }
-
-    StringBuilder sb = new StringBuilder();
-    sb.append(JSONToken.JSON_BEGIN_OBJECT);
-
-    for (Map.Entry<JSONValueString, JSONValue> entry : this.entrySet()) {
-      sb.append(newline);
-      sb.append(indent);
-      sb.append(entry.getKey().toTokenString(newline, indent));
-      sb.append(JSONToken.JSON_NAME_SEPARATOR);
-      sb.append(" ");
-
-      String value = entry.getValue().toTokenString(newline, indent);
-      String[] lines = value.split(newline);
-      sb.append(lines[0]);
-      for (int i = 1; i < lines.length; i++) {
-        sb.append(newline);
-        sb.append(indent);
-        sb.append(lines[i]);
-      }
+  public JSONValueObjectImmutable with(@NotNull String name, @NotNull JSONValue value) {
+    return with(new JSONValueString(name), value);
+  }
 
-      sb.append(JSONToken.JSON_VALUE_SEPARATOR);
+  /**
+   * Returns a JSON object which has the same members as this JSON object except the member of the
+   * given name.
+   *
+   * <p>This JSON object is not modified. If this JSON object does not have a member of the given
+   * name, this JSON object itself is returned.
+   *
+   * @param name name of the member to remove
+   * @return a JSON object which does not have the member of the given name
+   */
+  @NotNull
+  public JSONValueObjectImmutable without(@NotNull JSONValueString name) {
+    int i = indexOf(name);
+    if (i < 0) {
+      return this;
     }
-    sb.deleteCharAt(sb.length() - 1);
 
-    sb.append(newline);
-    sb.append(JSONToken.JSON_END_OBJECT);
-    return sb.toString();
+    JSONValueString[] newKeys = new JSONValueString[keys.length - 1];
+    JSONValue[] newValues = new JSONValue[values.length - 1];
+    System.arraycopy(keys, 0, newKeys, 0, i);
+    System.arraycopy(values, 0, newValues, 0, i);
+    System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+    System.arraycopy(values, i + 1, newValues, i, values.length - i - 1);
+    return new JSONValueObjectImmutable(newKeys, newValues, null, null);
+  }
+
+  /**
+   * Returns a JSON object which has the same members as this JSON object except the member of the
+   * given name.
+   *
+   * @param name name of the member to remove
+   * @return a JSON object which does not have the member of the given name
+   * @see #without(JSONValueString)
+   */
+  @NotNull
+  public JSONValueObjectImmutable without(@NotNull String name) {
+    return without(new JSONValueString(name));
+  }
+
+  /**
+   * Return the copy of this JSON object as a mutable Java object.
+   *
+   * <p>All inner JSON objects and JSON arrays are also turned to be mutable. They are converted
+   * when they are read from the returned JSON object for the first time, so this method copies only
+   * the top-level members of this JSON object.
+   *
+   * @return a mutable version of the same JSON object.
+   */
+  public JSONValueObjectMutable toMutable() {
+    return new JSONValueObjectMutable(keys, values);
+  }
+
+  @Override
+  @NotNull
+  public String toTokenString() {
+    return JSONWriter.toTokenString(this);
+  }
+
+  @Override
+  @NotNull
+  public String toTokenString(String newline, String indent) {
+    return JSONWriter.toTokenString(this, newline, indent);
   }
 }
@@ -17,6 +17,7 @@
 package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -35,6 +36,13 @@ import org.jetbrains.annotations.Nullable;
 public class JSONValueObjectMutable extends JSONValueObject {
   private final LinkedHashMap<JSONValueString, JSONValue> members;
 
+  /**
+   * Immutable JSON arrays and objects inherited from {@link JSONValueObjectImmutable#toMutable()}.
+   * They are converted to mutable ones when they are read from this object for the first time. Null
+   * if all the inner JSON arrays and objects are ready to be returned.
+   */
+  private Set<JSONValue> pending;
+
   /** Create an instance of a Java representation of an empty JSON 'object' value. */
   public JSONValueObjectMutable() {
     this.members = new LinkedHashMap<>();
@@ -53,6 +61,52 @@ public class JSONValueObjectMutable extends JSONValueObject {
     }
   }
 
+  /**
+   * Create a JSON object of the given members. Inner immutable JSON arrays and objects are
+   * converted to mutable ones lazily.
+   *
+   * @param keys names of the members in order
+   * @param values values of the members in the same order as the names
+   */
+  JSONValueObjectMutable(@NotNull JSONValueString[] keys, @NotNull JSONValue[] values) {
+    this.members = new LinkedHashMap<>(Math.max((int) (keys.length / .75f) + 1, 16));
+    for (int i = 0; i < keys.length; i++) {
+      this.members.put(keys[i], values[i]);
+    }
+    this.pending = immutableChildrenOf(Arrays.asList(values));
+  }
+
+  /**
+   * Convert the given value to a mutable one if it is an inner immutable JSON array or object that
+   * has not been converted yet.
+   */
+  private JSONValue materialize(JSONValue value) {
+    if (pending != null && pending.contains(value)) {
+      return mutableCopyOf(value);
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Returns the members as they are stored, without converting inner immutable JSON arrays and
+   * objects to mutable ones. The caller must not modify the returned map.
+   */
+  @NotNull
+  Map<JSONValueString, JSONValue> storedMembers() {
+    return members;
+  }
+
+  /** Convert all the inner immutable JSON arrays and objects that have not been converted yet. */
+  private void materializeAll() {
+    if (pending != null) {
+      for (Map.Entry<JSONValueString, JSONValue> entry : members.entrySet()) {
+        entry.setValue(materialize(entry.getValue()));
+      }
+      pending = null;
+    }
+  }
+
   /**
    * Returns the JSON value of the given name.
    *
@@ -64,7 +118,12 @@ public class JSONValueObjectMutable extends JSONValueObject {
    * @return a JSON value of the given name
    */
   public JSONValue get(JSONValueString name) {
-    return members.get(name);
+    JSONValue value = members.get(name);
+    JSONValue ret = materialize(value);
+    if (ret != value) {
+      members.put(name, ret);
+    }
+    return ret;
   }
 
   /**
@@ -75,7 +134,7 @@ public class JSONValueObjectMutable extends JSONValueObject {
    * @see #get(JSONValueString)
    */
   public JSONValue get(String name) {
-    return members.get(new JSONValueString(name));
+    return get(new JSONValueString(name));
   }
 
   /** {@inheritDoc} */
@@ -123,13 +182,13 @@ public class JSONValueObjectMutable extends JSONValueObject {
   /** {@inheritDoc} */
   @Override
   public JSONValue put(JSONValueString jsonValueString, JSONValue jsonValue) {
-    return members.put(jsonValueString, jsonValue);
+    return materialize(members.put(jsonValueString, jsonValue));
   }
 
   /** {@inheritDoc} */
   @Override
   public JSONValue remove(Object o) {
-    return members.remove(o);
+    return materialize(members.remove(o));
   }
 
   /** {@inheritDoc} */
@@ -142,6 +201,7 @@ public class JSONValueObjectMutable extends JSONValueObject {
   @Override
   public void clear() {
     members.clear();
+    pending = null;
   }
 
   /** {@inheritDoc} */
@@ -155,6 +215,7 @@ public class JSONValueObjectMutable extends JSONValueObject {
   @Override
   @NotNull
   public Collection<JSONValue> values() {
+    materializeAll();
     return members.values();
   }
 
@@ -162,6 +223,7 @@ public class JSONValueObjectMutable extends JSONValueObject {
   @Override
   @NotNull
   public Set<Entry<JSONValueString, JSONValue>> entrySet() {
+    materializeAll();
     return members.entrySet();
   }
 
@@ -188,31 +250,35 @@ public class JSONValueObjectMutable extends JSONValueObject {
    *     an exsiting JSON text.
    */
   public JSONValueObjectImmutable toImmutable(@Nullable JSONToken begin, @Nullable JSONToken end) {
-    JSONValueObjectMutable ret = new JSONValueObjectMutable();
+    JSONValueString[] keys = new JSONValueString[members.size()];
+    JSONValue[] values = new JSONValue[members.size()];
 
-    for (Map.Entry<JSONValueString, JSONValue> entry : entrySet()) {
+    int i = 0;
+    for (Map.Entry<JSONValueString, JSONValue> entry : members.entrySet()) {
       JSONValue value = entry.getValue();
       if (value instanceof JSONValueArrayMutable) {
-        ret.put(entry.getKey(), ((JSONValueArrayMutable) value).toImmutable());
+        value = ((JSONValueArrayMutable) value).toImmutable();
       } else if (value instanceof JSONValueObjectMutable) {
-        ret.put(entry.getKey(), ((JSONValueObjectMutable) value).toImmutable());
-      } else {
-        ret.put(entry.getKey(), value);
+        value = ((JSONValueObjectMutable) value).toImmutable();
       }
+
+      keys[i] = entry.getKey();
+      values[i] = value;
+      i++;
     }
 
-    return new JSONValueObjectImmutable(ret, begin, end);
+    return new JSONValueObjectImmutable(keys, values, begin, end);
   }
 
   @Override
   @NotNull
   public String toTokenString() {
-    return toImmutable().toTokenString();
+    return JSONWriter.toTokenString(this);
   }
 
   @Override
   @NotNull
   public String toTokenString(String newline, String indent) {
-    return toImmutable().toTokenString(newline, indent);
+    return JSONWriter.toTokenString(this, newline, indent);
   }
 }
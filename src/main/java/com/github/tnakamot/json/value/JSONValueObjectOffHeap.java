@@ -0,0 +1,394 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static com.github.tnakamot.json.value.JSONOffHeapDocument.ENTRY_SIZE;
+import static com.github.tnakamot.json.value.JSONOffHeapDocument.HASH_INDEX_THRESHOLD;
+import static com.github.tnakamot.json.value.JSONOffHeapDocument.HEADER_SIZE;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents one immutable JSON 'object' value stored in a {@link JSONOffHeapDocument}.
+ *
+ * <p>An instance of this class is a light-weight view of the document. The names and values are
+ * read from the document every time they are accessed. Lookups by name compare the hash codes
+ * stored in the document first, and objects which have more than {@value
+ * JSONOffHeapDocument#HASH_INDEX_THRESHOLD} members are searched with a binary search over the
+ * hash codes. Because the source tokens of the members are not held, {@link #begin()} and {@link
+ * #end()} return null.
+ *
+ * <p>Instances of this class are immutable.
+ */
+public final class JSONValueObjectOffHeap extends JSONValueObject {
+  private final JSONOffHeapDocument document;
+  private final int offset;
+  private final int size;
+
+  /**
+   * Create a view of the JSON object at the given offset of the document.
+   *
+   * @param document document which holds the JSON object
+   * @param offset offset of the JSON object in the document
+   */
+  JSONValueObjectOffHeap(@NotNull JSONOffHeapDocument document, int offset) {
+    this.document = document;
+    this.offset = offset;
+    this.size = document.intAt(offset + 1);
+  }
+
+  private int entry(int i) {
+    return offset + HEADER_SIZE + ENTRY_SIZE * i;
+  }
+
+  /**
+   * Returns the name of the member at the given position.
+   *
+   * @param i position of the member in the original order
+   * @return name of the member
+   */
+  JSONValueString keyAt(int i) {
+    return new JSONValueString(document.stringAt(document.intAt(entry(i) + 4)));
+  }
+
+  /**
+   * Returns the value of the member at the given position.
+   *
+   * @param i position of the member in the original order
+   * @return value of the member
+   */
+  JSONValue valueAt(int i) {
+    return document.valueAt(document.intAt(entry(i) + 8));
+  }
+
+  /**
+   * Find the position of the member of the given name.
+   *
+   * @param name name of the member
+   * @param hash hash code of the name which is equal to {@link String#hashCode()} of the name
+   * @return position of the member, or -1 if there is no member of the given name
+   */
+  private int indexOf(@NotNull CharSequence name, int hash) {
+    if (size <= HASH_INDEX_THRESHOLD) {
+      for (int i = 0; i < size; i++) {
+        if (nameEquals(i, name, hash)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    // binary search for the first member of the hash code in the index sorted by hash code
+    int index = entry(size);
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (document.intAt(entry(document.intAt(index + 4 * mid))) < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    for (int k = low; k < size; k++) {
+      int i = document.intAt(index + 4 * k);
+      if (document.intAt(entry(i)) != hash) {
+        break;
+      } else if (nameEquals(i, name, hash)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean nameEquals(int i, @NotNull CharSequence name, int hash) {
+    if (document.intAt(entry(i)) != hash) {
+      return false;
+    }
+
+    String key = document.stringAt(document.intAt(entry(i) + 4));
+    return name instanceof String ? key.equals(name) : key.contentEquals(name);
+  }
+
+  private static int hash(@NotNull CharSequence name) {
+    if (name instanceof String) {
+      return name.hashCode();
+    }
+
+    int h = 0;
+    for (int i = 0; i < name.length(); i++) {
+      h = 31 * h + name.charAt(i);
+    }
+    return h;
+  }
+
+  /** {@inheritDoc} */
+  public JSONValue get(JSONValueString name) {
+    return get(name.value());
+  }
+
+  /** {@inheritDoc} */
+  public JSONValue get(String name) {
+    int i = indexOf(name, name.hashCode());
+    return i < 0 ? null : valueAt(i);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public JSONValue get(@NotNull CharSequence name) {
+    int i = indexOf(name, hash(name));
+    return i < 0 ? null : valueAt(i);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public JSONValue get(@NotNull JSONKey key) {
+    int i = indexOf(key.name(), key.hash());
+    return i < 0 ? null : valueAt(i);
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsKey(Object o) {
+    if (o instanceof JSONValueString) {
+      return containsKey(((JSONValueString) o).value());
+    } else {
+      return false;
+    }
+  }
+
+  /** {@inheritDoc} */
+  public boolean containsKey(String name) {
+    return indexOf(name, name.hashCode()) >= 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsKey(@NotNull CharSequence name) {
+    return indexOf(name, hash(name)) >= 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsKey(@NotNull JSONKey key) {
+    return indexOf(key.name(), key.hash()) >= 0;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public boolean containsValue(Object o) {
+    for (int i = 0; i < size; i++) {
+      if (valueAt(i).equals(o)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  public JSONValue get(Object o) {
+    if (o instanceof JSONValueString) {
+      return get((JSONValueString) o);
+    } else if (o instanceof String) {
+      return get((String) o);
+    } else {
+      return null;
+    }
+  }
+
+  /** {@inheritDoc} */
+  @Deprecated
+  @Override
+  public JSONValue put(JSONValueString jsonValueString, JSONValue jsonValue) {
+    throw new UnsupportedOperationException("this object is immutable.");
+  }
+
+  /** {@inheritDoc} */
+  @Deprecated
+  @Override
+  public JSONValue remove(Object o) {
+    throw new UnsupportedOperationException("this object is immutable.");
+  }
+
+  /** {@inheritDoc} */
+  @Deprecated
+  @Override
+  public void putAll(@NotNull Map<? extends JSONValueString, ? extends JSONValue> map) {
+    throw new UnsupportedOperationException("this object is immutable.");
+  }
+
+  /** {@inheritDoc} */
+  @Deprecated
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("this object is immutable.");
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public Set<JSONValueString> keySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<JSONValueString> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          JSONValueString element(int i) {
+            return keyAt(i);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        return containsKey(o);
+      }
+    };
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public Collection<JSONValue> values() {
+    return new AbstractCollection<>() {
+      @Override
+      public Iterator<JSONValue> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          JSONValue element(int i) {
+            return valueAt(i);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /** {@inheritDoc} */
+  @Override
+  @NotNull
+  public Set<Entry<JSONValueString, JSONValue>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<JSONValueString, JSONValue>> iterator() {
+        return new MemberIterator<>() {
+          @Override
+          Entry<JSONValueString, JSONValue> element(int i) {
+            return new AbstractMap.SimpleImmutableEntry<>(keyAt(i), valueAt(i));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /** Read-only iterator over the members in order. */
+  private abstract class MemberIterator<E> implements Iterator<E> {
+    private int next = 0;
+
+    abstract E element(int i);
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    public E next() {
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      return element(next++);
+    }
+  }
+
+  /**
+   * Return the copy of this JSON object as a mutable Java object.
+   *
+   * <p>All inner JSON objects and JSON arrays are also turned to be mutable. They are converted
+   * when they are read from the returned JSON object for the first time.
+   *
+   * @return a mutable version of the same JSON object.
+   */
+  public JSONValueObjectMutable toMutable() {
+    return toImmutable().toMutable();
+  }
+
+  /**
+   * Return the copy of this JSON object as an immutable Java object on the Java heap. Inner JSON
+   * arrays and objects are still views of the document.
+   *
+   * @return an immutable JSON object on the Java heap which has the same members
+   */
+  @NotNull
+  public JSONValueObjectImmutable toImmutable() {
+    JSONValueString[] keys = new JSONValueString[size];
+    JSONValue[] values = new JSONValue[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = keyAt(i);
+      values[i] = valueAt(i);
+    }
+    return new JSONValueObjectImmutable(keys, values, null, null);
+  }
+
+  @Override
+  @NotNull
+  public String toTokenString() {
+    return JSONWriter.toTokenString(this);
+  }
+
+  @Override
+  @NotNull
+  public String toTokenString(String newline, String indent) {
+    return JSONWriter.toTokenString(this, newline, indent);
+  }
+}
@@ -17,6 +17,7 @@
 package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
+import java.io.IOException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,4 +61,19 @@ public abstract class JSONValuePrimitive extends JSONValue {
   public JSONToken token() {
     return token;
   }
+
+  @Override
+  @Nullable
+  public CharSequence rawText() {
+    return token == null ? null : token.text();
+  }
+
+  @Override
+  boolean appendRawText(@NotNull Appendable out) throws IOException {
+    if (token == null) {
+      return false;
+    }
+    out.append(token.text());
+    return true;
+  }
 }
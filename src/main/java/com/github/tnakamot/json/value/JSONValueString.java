@@ -18,7 +18,7 @@ package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
 import com.github.tnakamot.json.token.JSONTokenString;
-import org.apache.commons.text.StringEscapeUtils;
+import java.nio.charset.StandardCharsets;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -85,7 +85,7 @@ public class JSONValueString extends JSONValuePrimitive {
   public String toTokenString() {
     JSONToken token = token();
     if (token == null) {
-      return "\"" + StringEscapeUtils.escapeJson(value) + "\"";
+      return JSONStringEncoder.toQuotedString(value);
     } else {
       return token.text();
     }
@@ -96,4 +96,21 @@ public class JSONValueString extends JSONValuePrimitive {
   public String toTokenString(String newline, String indent) {
     return toTokenString();
   }
+
+  @Override
+  @NotNull
+  public byte[] toTokenBytes() {
+    JSONToken token = token();
+    if (token == null) {
+      return JSONStringEncoder.toQuotedBytes(value);
+    } else {
+      return token.text().getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Override
+  @NotNull
+  public byte[] toTokenBytes(String newline, String indent) {
+    return toTokenBytes();
+  }
 }
@@ -1,6 +1,12 @@
 package com.github.tnakamot.json.value;
 
 import com.github.tnakamot.json.token.JSONToken;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,4 +66,124 @@ public abstract class JSONValueStructured extends JSONValue {
   public JSONToken end() {
     return end;
   }
+
+  @Override
+  @Nullable
+  public CharSequence rawText() {
+    if (begin == null || end == null) {
+      return null;
+    }
+    return CharBuffer.wrap(begin.source().get(), rawBegin(), rawEnd());
+  }
+
+  @Override
+  boolean appendRawText(@NotNull Appendable out) throws IOException {
+    if (begin == null || end == null) {
+      return false;
+    }
+    out.append(begin.source().get(), rawBegin(), rawEnd());
+    return true;
+  }
+
+  private int rawBegin() {
+    return begin.beginningLocation().position();
+  }
+
+  private int rawEnd() {
+    return end.endLocation().position() + 1;
+  }
+
+  /**
+   * Collect immutable JSON arrays and objects in the given values so that mutable JSON values can
+   * convert them on demand.
+   *
+   * @param values values of a JSON array or a JSON object
+   * @return identity set of immutable JSON arrays and objects in the given values, or null if there
+   *     is none
+   */
+  @Nullable
+  static Set<JSONValue> immutableChildrenOf(@NotNull Iterable<JSONValue> values) {
+    Set<JSONValue> ret = null;
+    for (JSONValue value : values) {
+      if (value instanceof JSONValueArrayImmutable
+          || value instanceof JSONValueObjectImmutable
+          || value instanceof JSONValueObjectOffHeap) {
+        if (ret == null) {
+          ret = Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+        ret.add(value);
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Returns the elements of the given JSON array for reading. Mutable JSON arrays convert their
+   * inner immutable JSON arrays and objects to mutable ones when they are iterated, so their
+   * storage is read directly instead.
+   *
+   * @param array JSON array
+   * @return the elements of the given JSON array, which must not be modified
+   */
+  @NotNull
+  static Iterable<JSONValue> elementsOf(@NotNull JSONValueArray array) {
+    if (array instanceof JSONValueArrayMutable) {
+      return ((JSONValueArrayMutable) array).storedValues();
+    } else {
+      return array;
+    }
+  }
+
+  /**
+   * Returns the members of the given JSON object for reading. See {@link
+   * #elementsOf(JSONValueArray)}.
+   *
+   * @param object JSON object
+   * @return the members of the given JSON object, which must not be modified
+   */
+  @NotNull
+  static Iterable<Map.Entry<JSONValueString, JSONValue>> membersOf(
+      @NotNull JSONValueObject object) {
+    if (object instanceof JSONValueObjectMutable) {
+      return ((JSONValueObjectMutable) object).storedMembers().entrySet();
+    } else {
+      return object.entrySet();
+    }
+  }
+
+  /**
+   * Convert the given value to a mutable one if it is an immutable JSON array or object.
+   *
+   * @param value JSON value
+   * @return mutable version of the given value, or the given value itself if it is not an immutable
+   *     JSON array or object
+   */
+  static JSONValue mutableCopyOf(JSONValue value) {
+    if (value instanceof JSONValueArrayImmutable) {
+      return ((JSONValueArrayImmutable) value).toMutable();
+    } else if (value instanceof JSONValueObjectImmutable) {
+      return ((JSONValueObjectImmutable) value).toMutable();
+    } else if (value instanceof JSONValueObjectOffHeap) {
+      return ((JSONValueObjectOffHeap) value).toMutable();
+    } else {
+      return value;
+    }
+  }
+
+  /**
+   * Convert the given value to an immutable one if it is a mutable JSON array or object.
+   *
+   * @param value JSON value
+   * @return immutable version of the given value, or the given value itself if it is not a mutable
+   *     JSON array or object
+   */
+  static JSONValue immutableCopyOf(JSONValue value) {
+    if (value instanceof JSONValueArrayMutable) {
+      return ((JSONValueArrayMutable) value).toImmutable();
+    } else if (value instanceof JSONValueObjectMutable) {
+      return ((JSONValueObjectMutable) value).toImmutable();
+    } else {
+      return value;
+    }
+  }
 }
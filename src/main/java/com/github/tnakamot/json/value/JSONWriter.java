@@ -0,0 +1,363 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import com.github.tnakamot.json.token.JSONToken;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Writes JSON values as a JSON text to an {@link Appendable} (e.g. {@link Writer} or {@link
+ * StringBuilder}).
+ *
+ * <p>The JSON value tree is walked only once, and each token is written to the output directly,
+ * so no intermediate string is built for JSON arrays and objects. The output is the same as {@link
+ * JSONValue#toTokenString()} or {@link JSONValue#toTokenString(String, String)}.
+ *
+ * <pre>
+ * try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+ *   new JSONWriter(out, "\n", "  ").write(root);
+ * }
+ * </pre>
+ *
+ * <p>One instance can write multiple JSON values to the same output. This class does not flush or
+ * close the output. Instances of this class are not thread-safe.
+ *
+ * @see JSONValue#writeTo(Appendable)
+ */
+public final class JSONWriter {
+  /**
+   * Default maximum length of a JSON array of primitive values which is written in a single line.
+   * This is the width used by {@link JSONValue#toTokenString(String, String)}.
+   */
+  public static final int DEFAULT_WIDTH = 80;
+
+  private final Appendable out;
+  private final String newline;
+  private final String indent;
+  private final int width;
+  private final boolean verbatim;
+
+  /**
+   * Create a writer which writes JSON texts optimized for machine. No indent or new lines are
+   * inserted. The output is the same as {@link JSONValue#toTokenString()}.
+   *
+   * @param out destination of JSON texts
+   */
+  public JSONWriter(@NotNull Appendable out) {
+    this(out, null, null, DEFAULT_WIDTH, false, false);
+  }
+
+  /**
+   * Create a writer which writes JSON texts optimized for human. Indents and new line characters
+   * are inserted. The output is the same as {@link JSONValue#toTokenString(String, String)}.
+   *
+   * @param out destination of JSON texts
+   * @param newline line separator; "\r", "\n" or "\r\n"
+   * @param indent indent string. Must consist of " " and "\t".
+   * @throws IllegalArgumentException if newline or indent is invalid
+   */
+  public JSONWriter(@NotNull Appendable out, @NotNull String newline, @NotNull String indent) {
+    this(out, newline, indent, DEFAULT_WIDTH, true, false);
+  }
+
+  /**
+   * Create a writer which writes JSON texts optimized for human. Indents and new line characters
+   * are inserted. A JSON array which consists only of primitive values is written in a single line
+   * if the length of the line (excluding the indent) does not exceed the given width. Otherwise,
+   * each element is written in its own line.
+   *
+   * @param out destination of JSON texts
+   * @param newline line separator; "\r", "\n" or "\r\n"
+   * @param indent indent string. Must consist of " " and "\t".
+   * @param width maximum length of a JSON array written in a single line. 0 means that all
+   *     non-empty JSON arrays are written in multiple lines.
+   * @throws IllegalArgumentException if newline, indent or width is invalid
+   */
+  public JSONWriter(
+      @NotNull Appendable out, @NotNull String newline, @NotNull String indent, int width) {
+    this(out, newline, indent, width, true, false);
+  }
+
+  private JSONWriter(
+      @NotNull Appendable out,
+      @Nullable String newline,
+      @Nullable String indent,
+      int width,
+      boolean pretty,
+      boolean verbatim) {
+    if (out == null) {
+      throw new NullPointerException("out cannot be null");
+    }
+    if (pretty) {
+      JSONValue.validateNewline(newline);
+      JSONValue.validateIndent(indent);
+    }
+    if (width < 0) {
+      throw new IllegalArgumentException("width must not be negative");
+    }
+
+    this.out = out;
+    this.newline = newline;
+    this.indent = indent;
+    this.width = width;
+    this.verbatim = verbatim;
+  }
+
+  /**
+   * Create a writer which copies the source text of parsed JSON values as it is.
+   *
+   * <p>JSON values which have {@link JSONValue#rawText()} (i.e. parsed from a JSON text and not
+   * modified since then) are written by copying the raw text, including the whitespaces in it,
+   * without walking their children. The other JSON values are written in the same way as {@link
+   * #JSONWriter(Appendable)}, and their children are copied as they are if possible. This is useful
+   * to forward a part of a parsed JSON text to somewhere else, or to embed it in a new JSON text.
+   *
+   * @param out destination of JSON texts
+   * @return a writer which copies the source text of parsed JSON values
+   */
+  @NotNull
+  public static JSONWriter verbatim(@NotNull Appendable out) {
+    return new JSONWriter(out, null, null, DEFAULT_WIDTH, false, true);
+  }
+
+  /**
+   * Write the given JSON value.
+   *
+   * @param value JSON value to write
+   * @throws IOException if an I/O error occurs
+   */
+  public void write(@NotNull JSONValue value) throws IOException {
+    if (newline == null) {
+      writeCompact(value);
+    } else {
+      writePretty(value, 0);
+    }
+  }
+
+  /** Returns {@link JSONValue#toTokenString()} of the given JSON value. */
+  @NotNull
+  static String toTokenString(@NotNull JSONValue value) {
+    StringBuilder sb = new StringBuilder();
+    try {
+      new JSONWriter(sb).write(value);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex); // never happens with StringBuilder
+    }
+    return sb.toString();
+  }
+
+  /** Returns {@link JSONValue#toTokenString(String, String)} of the given JSON value. */
+  @NotNull
+  static String toTokenString(@NotNull JSONValue value, String newline, String indent) {
+    StringBuilder sb = new StringBuilder();
+    try {
+      new JSONWriter(sb, newline, indent).write(value);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex); // never happens with StringBuilder
+    }
+    return sb.toString();
+  }
+
+  private void writeCompact(@NotNull JSONValue value) throws IOException {
+    if (verbatim && value.appendRawText(out)) {
+      return;
+    }
+
+    switch (value.type()) {
+      case ARRAY:
+        {
+          out.append(JSONToken.JSON_BEGIN_ARRAY);
+          boolean first = true;
+          for (JSONValue element : JSONValueStructured.elementsOf((JSONValueArray) value)) {
+            if (!first) {
+              out.append(JSONToken.JSON_VALUE_SEPARATOR);
+            }
+            writeCompact(element);
+            first = false;
+          }
+          out.append(JSONToken.JSON_END_ARRAY);
+          break;
+        }
+      case OBJECT:
+        {
+          out.append(JSONToken.JSON_BEGIN_OBJECT);
+          if (value instanceof JSONValueObjectImmutable) {
+            JSONValueObjectImmutable object = (JSONValueObjectImmutable) value;
+            for (int i = 0; i < object.size(); i++) {
+              if (i > 0) {
+                out.append(JSONToken.JSON_VALUE_SEPARATOR);
+              }
+              writePrimitive(object.keyAt(i));
+              out.append(JSONToken.JSON_NAME_SEPARATOR);
+              writeCompact(object.valueAt(i));
+            }
+          } else {
+            boolean first = true;
+            JSONValueObject object = (JSONValueObject) value;
+            for (Map.Entry<JSONValueString, JSONValue> entry :
+                JSONValueStructured.membersOf(object)) {
+              if (!first) {
+                out.append(JSONToken.JSON_VALUE_SEPARATOR);
+              }
+              writePrimitive(entry.getKey());
+              out.append(JSONToken.JSON_NAME_SEPARATOR);
+              writeCompact(entry.getValue());
+              first = false;
+            }
+          }
+          out.append(JSONToken.JSON_END_OBJECT);
+          break;
+        }
+      default:
+        writePrimitive(value);
+    }
+  }
+
+  private void writePretty(@NotNull JSONValue value, int depth) throws IOException {
+    switch (value.type()) {
+      case ARRAY:
+        writePrettyArray((JSONValueArray) value, depth);
+        break;
+      case OBJECT:
+        writePrettyObject((JSONValueObject) value, depth);
+        break;
+      default:
+        writePrimitive(value);
+    }
+  }
+
+  private void writePrettyArray(@NotNull JSONValueArray array, int depth) throws IOException {
+    if (array.isEmpty()) {
+      out.append(JSONToken.JSON_BEGIN_ARRAY).append(' ').append(JSONToken.JSON_END_ARRAY);
+      return;
+    }
+
+    if (fitsInSingleLine(array)) {
+      out.append(JSONToken.JSON_BEGIN_ARRAY);
+      boolean first = true;
+      for (JSONValue element : JSONValueStructured.elementsOf(array)) {
+        if (!first) {
+          out.append(JSONToken.JSON_VALUE_SEPARATOR).append(' ');
+        }
+        writePrimitive(element);
+        first = false;
+      }
+      out.append(JSONToken.JSON_END_ARRAY);
+      return;
+    }
+
+    out.append(JSONToken.JSON_BEGIN_ARRAY);
+    boolean first = true;
+    for (JSONValue element : JSONValueStructured.elementsOf(array)) {
+      if (!first) {
+        out.append(JSONToken.JSON_VALUE_SEPARATOR);
+      }
+      newline(depth + 1);
+      writePretty(element, depth + 1);
+      first = false;
+    }
+    newline(depth);
+    out.append(JSONToken.JSON_END_ARRAY);
+  }
+
+  /**
+   * Returns true if the given non-empty JSON array should be written in a single line, which is
+   * the case if all the elements are primitive values and the line does not exceed the width. The
+   * elements are measured without being written, and only until the line turns out to be too
+   * long.
+   */
+  private boolean fitsInSingleLine(@NotNull JSONValueArray array) {
+    // Each element is followed by ", " except the last one, whose 2 characters are used by "[" and
+    // "]" instead.
+    int length = 0;
+    for (JSONValue element : JSONValueStructured.elementsOf(array)) {
+      if (element.type() == JSONValueType.ARRAY || element.type() == JSONValueType.OBJECT) {
+        return false;
+      }
+
+      length += primitiveLength(element) + 2;
+      if (length > width) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the length of the token string of the given primitive JSON value. */
+  private static int primitiveLength(@NotNull JSONValue value) {
+    if (value instanceof JSONValueString && ((JSONValueString) value).token() == null) {
+      return JSONStringEncoder.quotedLength(((JSONValueString) value).value());
+    } else {
+      return value.toTokenString().length();
+    }
+  }
+
+  private void writePrettyObject(@NotNull JSONValueObject object, int depth) throws IOException {
+    if (object.isEmpty()) {
+      out.append(JSONToken.JSON_BEGIN_OBJECT).append(' ').append(JSONToken.JSON_END_OBJECT);
+      return;
+    }
+
+    out.append(JSONToken.JSON_BEGIN_OBJECT);
+    if (object instanceof JSONValueObjectImmutable) {
+      JSONValueObjectImmutable immutable = (JSONValueObjectImmutable) object;
+      for (int i = 0; i < immutable.size(); i++) {
+        writePrettyMember(immutable.keyAt(i), immutable.valueAt(i), depth, i == 0);
+      }
+    } else {
+      boolean first = true;
+      for (Map.Entry<JSONValueString, JSONValue> entry : JSONValueStructured.membersOf(object)) {
+        writePrettyMember(entry.getKey(), entry.getValue(), depth, first);
+        first = false;
+      }
+    }
+    newline(depth);
+    out.append(JSONToken.JSON_END_OBJECT);
+  }
+
+  private void writePrettyMember(
+      @NotNull JSONValueString key, @NotNull JSONValue value, int depth, boolean first)
+      throws IOException {
+    if (!first) {
+      out.append(JSONToken.JSON_VALUE_SEPARATOR);
+    }
+    newline(depth + 1);
+    writePrimitive(key);
+    out.append(JSONToken.JSON_NAME_SEPARATOR).append(' ');
+    writePretty(value, depth + 1);
+  }
+
+  private void newline(int depth) throws IOException {
+    out.append(newline);
+    for (int i = 0; i < depth; i++) {
+      out.append(indent);
+    }
+  }
+
+  private void writePrimitive(@NotNull JSONValue value) throws IOException {
+    if (value instanceof JSONValueString && ((JSONValueString) value).token() == null) {
+      JSONStringEncoder.appendQuoted(((JSONValueString) value).value(), out);
+    } else {
+      out.append(value.toTokenString());
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json;
+
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerIndexOutOfBoundsException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerMemberNotExistException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerNotIndexException;
+import com.github.tnakamot.json.pointer.InvalidJSONPointerReachedPrimitiveException;
+import com.github.tnakamot.json.value.JSONValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONFileIndexTest {
+  private Path directory;
+  private File source;
+  private File indexFile;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("json-file-index");
+    source = directory.resolve("source.json").toFile();
+    indexFile = directory.resolve("source.json.index").toFile();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private void writeSource(String text, long lastModified) throws IOException {
+    Files.write(source.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(source.toPath(), FileTime.fromMillis(lastModified));
+  }
+
+  private static String records(int count) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\"title\": \"records [1] {2}\",\n \"records\": [\n");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        sb.append(",\n");
+      }
+      sb.append("  {\"id\": ").append(i);
+      sb.append(", \"name\": \"r\\\"").append(i).append("]\"");
+      sb.append(", \"tags\": [").append(i % 3 == 0 ? "" : "\"a\", [true, null]").append("]");
+      sb.append(", \"k\\u0065y\": {\"}\": ").append(i * 0.5).append("}}");
+    }
+    sb.append("\n ],\n \"\u3042\": [[], {}, -1.5e3]\n}\n");
+    return sb.toString();
+  }
+
+  private static final String[] POINTERS = {
+    "",
+    "/title",
+    "/records",
+    "/records/0",
+    "/records/0/id",
+    "/records/6",
+    "/records/7",
+    "/records/8/name",
+    "/records/13/tags/1/0",
+    "/records/48/key",
+    "/records/48/key/}",
+    "/records/199/tags",
+    "/\u3042/1",
+    "/\u3042/2",
+  };
+
+  private void assertSameAsParser(JSONFileIndex index)
+      throws IOException, JSONParserException, InvalidJSONPointerException {
+    JSONText text = JSONText.fromFile(source);
+    text.parse();
+    for (String pointer : POINTERS) {
+      JSONValue expected = text.evaluate(pointer);
+      assertEquals(expected, index.evaluate(pointer), pointer);
+    }
+  }
+
+  @Test
+  public void testEvaluate() throws IOException, JSONParserException, InvalidJSONPointerException {
+    writeSource(records(200), 1_000_000L);
+
+    JSONFileIndex index = JSONFileIndex.build(source, 64, 7);
+    assertTrue(index.containerCount() > 100);
+    assertSameAsParser(index);
+
+    // without any indexed JSON arrays or objects
+    JSONFileIndex empty = JSONFileIndex.build(source, Integer.MAX_VALUE, 7);
+    assertEquals(0, empty.containerCount());
+    assertSameAsParser(empty);
+
+    // indexed JSON arrays without any recorded elements
+    assertSameAsParser(JSONFileIndex.build(source, 1, 1000));
+    assertSameAsParser(JSONFileIndex.build(source, 1, 1));
+  }
+
+  @Test
+  public void testEvaluateDuplicateMembers()
+      throws IOException, JSONParserException, InvalidJSONPointerException {
+    writeSource("{\"a\": {\"x\": 1}, \"b\": [0], \"a\": {\"y\": 2}, \"b\": [3]}", 1_000_000L);
+    JSONText text = JSONText.fromFile(source);
+    text.parse();
+
+    for (JSONFileIndex index :
+        new JSONFileIndex[] {
+          JSONFileIndex.build(source, 1, 1), JSONFileIndex.build(source, Integer.MAX_VALUE, 1)
+        }) {
+      assertEquals(text.evaluate("/a/y"), index.evaluate("/a/y"));
+      assertEquals(text.evaluate("/a"), index.evaluate("/a"));
+      assertEquals(text.evaluate("/b/0"), index.evaluate("/b/0"));
+      assertThrows(InvalidJSONPointerMemberNotExistException.class, () -> index.evaluate("/a/x"));
+    }
+  }
+
+  @Test
+  public void testEvaluateErrors() throws IOException {
+    writeSource(records(20), 1_000_000L);
+    JSONFileIndex index = JSONFileIndex.build(source, 16, 3);
+
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> index.evaluate("/none"));
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> index.evaluate("/records/3/nme"));
+    assertThrows(
+        InvalidJSONPointerIndexOutOfBoundsException.class, () -> index.evaluate("/records/20"));
+    assertThrows(
+        InvalidJSONPointerIndexOutOfBoundsException.class,
+        () -> index.evaluate("/records/0/tags/0"));
+    assertThrows(
+        InvalidJSONPointerNotIndexException.class, () -> index.evaluate("/records/id"));
+    assertThrows(
+        InvalidJSONPointerReachedPrimitiveException.class, () -> index.evaluate("/title/0"));
+  }
+
+  @Test
+  public void testLoad() throws IOException, JSONParserException, InvalidJSONPointerException {
+    writeSource(records(5000), 1_000_000L);
+
+    JSONFileIndex index = JSONFileIndex.load(source, indexFile);
+    assertTrue(indexFile.exists());
+    assertTrue(index.containerCount() > 0);
+    assertSameAsParser(index);
+    assertEquals("4999", index.evaluate("/records/4999/id").toTokenString());
+
+    FileTime indexTime = FileTime.fromMillis(2_000_000L);
+    Files.setLastModifiedTime(indexFile.toPath(), indexTime);
+    JSONFileIndex reloaded = JSONFileIndex.load(source, indexFile);
+    assertEquals(index.containerCount(), reloaded.containerCount());
+    assertEquals(indexTime, Files.getLastModifiedTime(indexFile.toPath())); // not rebuilt
+    assertSameAsParser(reloaded);
+    try (Stream<Path> paths = Files.list(directory)) {
+      assertEquals(2, paths.count()); // no temporary file is left
+    }
+
+    // broken index file
+    Files.write(indexFile.toPath(), new byte[] {'J', 'S'});
+    assertSameAsParser(JSONFileIndex.load(source, indexFile));
+  }
+
+  @Test
+  public void testStale() throws IOException, JSONParserException, InvalidJSONPointerException {
+    writeSource("[1, 2, 3]", 1_000_000L);
+    JSONFileIndex index = JSONFileIndex.load(source, indexFile);
+    assertEquals("3", index.evaluate("/2").toTokenString());
+
+    writeSource("[4, 5, 6]", 3_000_000L);
+    assertThrows(IOException.class, () -> index.evaluate("/2"));
+    assertEquals("6", JSONFileIndex.load(source, indexFile).evaluate("/2").toTokenString());
+  }
+
+  @Test
+  public void testMalformed() throws IOException {
+    writeSource("{\"a\": [1, 2}", 1_000_000L);
+    assertThrows(IOException.class, () -> JSONFileIndex.build(source));
+
+    writeSource("{\"a\": [1, 2]", 1_000_000L);
+    assertThrows(IOException.class, () -> JSONFileIndex.build(source));
+
+    writeSource("{\"a\": \"b}", 1_000_000L);
+    assertThrows(IOException.class, () -> JSONFileIndex.build(source));
+
+    writeSource("[1, 2]", 1_000_000L);
+    assertThrows(IllegalArgumentException.class, () -> JSONFileIndex.build(source, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> JSONFileIndex.build(source, 1, 0));
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json;
+
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONOffHeapDocument;
+import com.github.tnakamot.json.value.JSONValueObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONSnapshotTest {
+  private Path directory;
+  private File source;
+  private File snapshot;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("json-snapshot");
+    source = directory.resolve("source.json").toFile();
+    snapshot = directory.resolve("source.json.snapshot").toFile();
+  }
+
+  @AfterEach
+  public void tearDown() throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  private void writeSource(String text, long lastModified) throws IOException {
+    Files.write(source.toPath(), text.getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(source.toPath(), FileTime.fromMillis(lastModified));
+  }
+
+  private static long value(JSONOffHeapDocument document) {
+    return ((JSONValueObject) document.root()).getLong("value");
+  }
+
+  @Test
+  public void testLoad() throws IOException, JSONParserException {
+    writeSource("{\"value\": 1, \"array\": [\"a\", {\"b\": null}]}", 1_000_000L);
+
+    JSONOffHeapDocument document = JSONSnapshot.load(source, snapshot);
+    assertTrue(snapshot.exists());
+    assertEquals(JSONText.fromFile(source).parse().root(), document.root());
+
+    FileTime snapshotTime = FileTime.fromMillis(2_000_000L);
+    Files.setLastModifiedTime(snapshot.toPath(), snapshotTime);
+    JSONOffHeapDocument reopened = JSONSnapshot.load(source, snapshot);
+    assertEquals(document.root(), reopened.root());
+    assertEquals(snapshotTime, Files.getLastModifiedTime(snapshot.toPath())); // not rebuilt
+    try (Stream<Path> paths = Files.list(directory)) {
+      assertEquals(2, paths.count()); // no temporary file is left
+    }
+  }
+
+  @Test
+  public void testStale() throws IOException, JSONParserException {
+    writeSource("{\"value\": 1}", 1_000_000L);
+    assertEquals(1, value(JSONSnapshot.load(source, snapshot)));
+
+    // size changed
+    writeSource("{\"value\": 10}", 1_000_000L);
+    assertEquals(10, value(JSONSnapshot.load(source, snapshot)));
+
+    // last modified time changed
+    writeSource("{\"value\": 20}", 3_000_000L);
+    assertEquals(20, value(JSONSnapshot.load(source, snapshot)));
+
+    // only the content changed
+    writeSource("{\"value\": 30}", 3_000_000L);
+    assertEquals(20, value(JSONSnapshot.load(source, snapshot)));
+    assertEquals(30, value(JSONSnapshot.load(source, snapshot, true)));
+    assertEquals(30, value(JSONSnapshot.load(source, snapshot, true)));
+  }
+
+  @Test
+  public void testBrokenSnapshot() throws IOException, JSONParserException {
+    writeSource("{\"value\": 1}", 1_000_000L);
+    Files.write(snapshot.toPath(), new byte[] {'J', 'S'});
+    assertEquals(1, value(JSONSnapshot.load(source, snapshot)));
+
+    byte[] bytes = Files.readAllBytes(snapshot.toPath());
+    Files.write(snapshot.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+    assertEquals(1, value(JSONSnapshot.load(source, snapshot)));
+    assertArrayEquals(bytes, Files.readAllBytes(snapshot.toPath()));
+  }
+
+  @Test
+  public void testInvalidSource() throws IOException {
+    writeSource("{\"value\": }", 1_000_000L);
+    assertThrows(JSONParserException.class, () -> JSONSnapshot.load(source, snapshot));
+    assertFalse(snapshot.exists());
+    assertThrows(
+        IOException.class, () -> JSONSnapshot.load(directory.resolve("none").toFile(), snapshot));
+  }
+}
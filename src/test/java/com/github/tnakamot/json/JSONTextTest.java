@@ -125,4 +125,20 @@ public class JSONTextTest {
     log.info(() -> methodName + ": uri()     : " + jsText.uri());
     log.info(() -> methodName + ": name()    : " + jsText.name());
   }
+
+  @Test
+  public void testLine() {
+    JSONText jsText = JSONText.fromString("a\r\nbc\rd\n\r\n\ne");
+    String[] expected = {"a", "bc", "d", "", "", "e"};
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], jsText.line(i + 1));
+    }
+    assertThrows(IndexOutOfBoundsException.class, () -> jsText.line(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> jsText.line(7));
+
+    JSONText trailing = JSONText.fromString("{}\n");
+    assertEquals("{}", trailing.line(1));
+    assertEquals("", trailing.line(2));
+    assertEquals("", JSONText.fromString("").line(1));
+  }
 }
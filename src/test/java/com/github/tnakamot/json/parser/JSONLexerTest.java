@@ -391,6 +391,32 @@ public class JSONLexerTest {
     assertEquals(9, range.end().column());
   }
 
+  @Test
+  public void testNoDigitBeforeExponent() {
+    JSONText jsText = JSONText.fromString("1.e5");
+
+    JSONParserException ex = assertThrows(JSONParserException.class, jsText::tokens);
+    assertEquals(jsText, ex.source());
+    StringRange range = ex.location();
+    assertNotNull(range);
+    assertEquals(2, range.beginning().position());
+    assertEquals(1, range.beginning().line());
+    assertEquals(3, range.beginning().column());
+  }
+
+  @Test
+  public void testTwoSignsInExponent() {
+    JSONText jsText = JSONText.fromString("1e+-5");
+
+    JSONParserException ex = assertThrows(JSONParserException.class, jsText::tokens);
+    assertEquals(jsText, ex.source());
+    StringRange range = ex.location();
+    assertNotNull(range);
+    assertEquals(3, range.beginning().position());
+    assertEquals(1, range.beginning().line());
+    assertEquals(4, range.beginning().column());
+  }
+
   @Test
   public void testControlCharacterInString() {
     JSONText jsText = JSONText.fromString("{ \"key\": \"hello\nworld\" }");
@@ -47,6 +47,7 @@ public class JSONParserErrorHandlingOptionsTest {
     assertFalse(opt.failOnDuplicateKey());
     assertFalse(opt.failOnTooBigNumber());
     assertEquals(System.err, opt.warningStream());
+    assertTrue(opt.captureStackTrace());
   }
 
   @Test
@@ -59,6 +60,7 @@ public class JSONParserErrorHandlingOptionsTest {
             .failOnDuplicateKey(true)
             .failOnTooBigNumber(true)
             .warningStream(System.out)
+            .captureStackTrace(false)
             .build();
 
     assertTrue(opt.showURI());
@@ -67,6 +69,7 @@ public class JSONParserErrorHandlingOptionsTest {
     assertTrue(opt.failOnDuplicateKey());
     assertTrue(opt.failOnTooBigNumber());
     assertEquals(System.out, opt.warningStream());
+    assertFalse(opt.captureStackTrace());
   }
 
   @ParameterizedTest
@@ -241,4 +241,36 @@ public class JSONParserExceptionTest {
     String expectedLine = JSON_STR_MULTI_LINES.split("\n")[1];
     assertEquals(expectedLine, errorLine);
   }
+
+  @Test
+  public void testErrorLineCrLf() {
+    JSONParserErrorHandlingOptions opt =
+        JSONParserErrorHandlingOptions.builder().showErrorLine(true).build();
+
+    JSONText source = JSONText.fromString("[1,\r\n 2,\r 3,\n\r\n  x]");
+    JSONParserException ex = assertThrows(JSONParserException.class, () -> source.parse(opt));
+    assertEquals(5, ex.location().beginning().line());
+    String[] lines = ex.getMessage().split(System.lineSeparator());
+    assertEquals("  x]", lines[1]);
+    assertEquals("  ^", lines[2]);
+  }
+
+  @Test
+  public void testCaptureStackTrace() {
+    JSONText source = JSONText.fromString(JSON_STR_MULTI_LINES);
+
+    JSONParserException ex = assertThrows(JSONParserException.class, source::parse);
+    assertTrue(ex.getStackTrace().length > 0);
+
+    JSONParserErrorHandlingOptions opt =
+        JSONParserErrorHandlingOptions.builder()
+            .captureStackTrace(false)
+            .showErrorLine(true)
+            .build();
+    JSONParserException stackless =
+        assertThrows(JSONParserException.class, () -> source.parse(opt));
+    assertEquals(0, stackless.getStackTrace().length);
+    assertTrue(stackless.getMessage().startsWith(source.name() + ":2:10: "));
+    assertSame(stackless.getMessage(), stackless.getMessage());
+  }
 }
@@ -0,0 +1,218 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.patch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONValue;
+import com.github.tnakamot.json.value.JSONValueArrayMutable;
+import com.github.tnakamot.json.value.JSONValueObject;
+import com.github.tnakamot.json.value.JSONValueObjectImmutable;
+import com.github.tnakamot.json.value.JSONValueObjectMutable;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public class JSONPatchTest {
+  private static JSONValue parse(String text) throws IOException, JSONParserException {
+    return JSONText.fromString(text).parse().root();
+  }
+
+  private static JSONValue apply(String document, String patch)
+      throws IOException, JSONParserException, JSONPatchException {
+    return JSONPatch.compile(parse(patch)).apply(parse(document));
+  }
+
+  private static void assertPatch(String document, String patch, String expected)
+      throws IOException, JSONParserException, JSONPatchException {
+    assertEquals(parse(expected), apply(document, patch));
+
+    JSONValueObjectMutable mutable = ((JSONValueObjectImmutable) parse(document)).toMutable();
+    assertEquals(parse(expected), JSONPatch.compile(parse(patch)).applyInPlace(mutable));
+    assertEquals(parse(expected), mutable);
+  }
+
+  private static void assertPatchFails(String document, String patch)
+      throws IOException, JSONParserException, JSONPatchException {
+    JSONPatch compiled = JSONPatch.compile(parse(patch));
+    JSONValue root = parse(document);
+    assertThrows(JSONPatchException.class, () -> compiled.apply(root));
+    assertEquals(parse(document), root);
+  }
+
+  @Test
+  public void testRFC6902Examples() throws IOException, JSONParserException, JSONPatchException {
+    // A.1 - A.16 of RFC 6902
+    assertPatch(
+        "{\"foo\": \"bar\"}",
+        "[{\"op\": \"add\", \"path\": \"/baz\", \"value\": \"qux\"}]",
+        "{\"baz\": \"qux\", \"foo\": \"bar\"}");
+    assertPatch(
+        "{\"foo\": [\"bar\", \"baz\"]}",
+        "[{\"op\": \"add\", \"path\": \"/foo/1\", \"value\": \"qux\"}]",
+        "{\"foo\": [\"bar\", \"qux\", \"baz\"]}");
+    assertPatch(
+        "{\"baz\": \"qux\", \"foo\": \"bar\"}",
+        "[{\"op\": \"remove\", \"path\": \"/baz\"}]",
+        "{\"foo\": \"bar\"}");
+    assertPatch(
+        "{\"foo\": [\"bar\", \"qux\", \"baz\"]}",
+        "[{\"op\": \"remove\", \"path\": \"/foo/1\"}]",
+        "{\"foo\": [\"bar\", \"baz\"]}");
+    assertPatch(
+        "{\"baz\": \"qux\", \"foo\": \"bar\"}",
+        "[{\"op\": \"replace\", \"path\": \"/baz\", \"value\": \"boo\"}]",
+        "{\"baz\": \"boo\", \"foo\": \"bar\"}");
+    assertPatch(
+        "{\"foo\": {\"bar\": \"baz\", \"waldo\": \"fred\"}, \"qux\": {\"corge\": \"grault\"}}",
+        "[{\"op\": \"move\", \"from\": \"/foo/waldo\", \"path\": \"/qux/thud\"}]",
+        "{\"foo\": {\"bar\": \"baz\"}, \"qux\": {\"corge\": \"grault\", \"thud\": \"fred\"}}");
+    assertPatch(
+        "{\"foo\": [\"all\", \"grass\", \"cows\", \"eat\"]}",
+        "[{\"op\": \"move\", \"from\": \"/foo/1\", \"path\": \"/foo/3\"}]",
+        "{\"foo\": [\"all\", \"cows\", \"eat\", \"grass\"]}");
+    assertPatch(
+        "{\"baz\": \"qux\", \"foo\": [\"a\", 2, \"c\"]}",
+        "[{\"op\": \"test\", \"path\": \"/baz\", \"value\": \"qux\"},"
+            + "{\"op\": \"test\", \"path\": \"/foo/1\", \"value\": 2}]",
+        "{\"baz\": \"qux\", \"foo\": [\"a\", 2, \"c\"]}");
+    assertPatchFails(
+        "{\"baz\": \"qux\"}", "[{\"op\": \"test\", \"path\": \"/baz\", \"value\": \"bar\"}]");
+    assertPatch(
+        "{\"foo\": \"bar\"}",
+        "[{\"op\": \"add\", \"path\": \"/child\", \"value\": {\"grandchild\": {}}}]",
+        "{\"foo\": \"bar\", \"child\": {\"grandchild\": {}}}");
+    assertPatch(
+        "{\"foo\": \"bar\"}",
+        "[{\"op\": \"add\", \"path\": \"/baz\", \"value\": \"qux\", \"xyz\": 123}]",
+        "{\"foo\": \"bar\", \"baz\": \"qux\"}");
+    assertPatchFails(
+        "{\"foo\": \"bar\"}", "[{\"op\": \"add\", \"path\": \"/baz/bat\", \"value\": \"qux\"}]");
+    assertPatch(
+        "{\"/\": 9, \"~1\": 10}",
+        "[{\"op\": \"test\", \"path\": \"/~01\", \"value\": 10}]",
+        "{\"/\": 9, \"~1\": 10}");
+    assertPatchFails(
+        "{\"/\": 9, \"~1\": 10}", "[{\"op\": \"test\", \"path\": \"/~01\", \"value\": \"10\"}]");
+    assertPatch(
+        "{\"foo\": [\"bar\"]}",
+        "[{\"op\": \"add\", \"path\": \"/foo/-\", \"value\": [\"abc\", \"def\"]}]",
+        "{\"foo\": [\"bar\", [\"abc\", \"def\"]]}");
+  }
+
+  @Test
+  public void testCopyAndRoot() throws IOException, JSONParserException, JSONPatchException {
+    assertPatch(
+        "{\"a\": {\"b\": [1, 2]}}",
+        "[{\"op\": \"copy\", \"from\": \"/a\", \"path\": \"/c\"},"
+            + "{\"op\": \"add\", \"path\": \"/c/b/0\", \"value\": 0}]",
+        "{\"a\": {\"b\": [1, 2]}, \"c\": {\"b\": [0, 1, 2]}}");
+    JSONPatch replaceRoot =
+        JSONPatch.compile(
+            parse(
+                "[{\"op\": \"test\", \"path\": \"\", \"value\": {\"a\": 1}},"
+                    + "{\"op\": \"replace\", \"path\": \"\", \"value\": {\"b\": 2}}]"));
+    assertEquals(parse("{\"b\": 2}"), replaceRoot.apply(parse("{\"a\": 1}")));
+    JSONValue replaced =
+        replaceRoot.applyInPlace(((JSONValueObjectImmutable) parse("{\"a\": 1}")).toMutable());
+    assertEquals(parse("{\"b\": 2}"), replaced);
+    assertTrue(replaced instanceof JSONValueObjectMutable);
+    assertPatchFails("{\"a\": 1}", "[{\"op\": \"remove\", \"path\": \"\"}]");
+    assertPatchFails("[1, 2]", "[{\"op\": \"add\", \"path\": \"/3\", \"value\": 3}]");
+    assertPatchFails("[1, 2]", "[{\"op\": \"replace\", \"path\": \"/-\", \"value\": 3}]");
+    assertPatchFails("[1, 2]", "[{\"op\": \"remove\", \"path\": \"/01\"}]");
+    assertPatchFails("{\"a\": 1}", "[{\"op\": \"replace\", \"path\": \"/b\", \"value\": 3}]");
+    assertPatchFails("{\"a\": 1}", "[{\"op\": \"copy\", \"from\": \"/b\", \"path\": \"/c\"}]");
+  }
+
+  @Test
+  public void testCompile() throws IOException, JSONParserException, JSONPatchException {
+    assertEquals(2, JSONPatch.compile(parse("[{\"op\": \"remove\", \"path\": \"/a\"},"
+        + "{\"op\": \"remove\", \"path\": \"/b\"}]")).size());
+
+    String[] invalid = {
+      "{}",
+      "[1]",
+      "[{\"path\": \"/a\"}]",
+      "[{\"op\": \"delete\", \"path\": \"/a\"}]",
+      "[{\"op\": \"remove\"}]",
+      "[{\"op\": \"remove\", \"path\": \"a\"}]",
+      "[{\"op\": \"add\", \"path\": \"/a\"}]",
+      "[{\"op\": \"copy\", \"path\": \"/a\"}]",
+      "[{\"op\": \"move\", \"from\": \"/a\", \"path\": \"/a/b\"}]",
+    };
+    for (String patch : invalid) {
+      JSONValue document = parse(patch);
+      assertThrows(JSONPatchException.class, () -> JSONPatch.compile(document), patch);
+    }
+
+    JSONPatchException ex =
+        assertThrows(
+            JSONPatchException.class,
+            () -> JSONPatch.compile(parse("[{\"op\": \"remove\", \"path\": \"/a\"}, {}]")));
+    assertEquals(1, ex.operation());
+  }
+
+  @Test
+  public void testCopyOnWrite() throws IOException, JSONParserException, JSONPatchException {
+    JSONValueObject root =
+        (JSONValueObject) parse("{\"a\": {\"b\": {\"c\": 1, \"d\": 2}}, \"e\": [3]}");
+    JSONPatch patch =
+        JSONPatch.compile(
+            parse(
+                "[{\"op\": \"replace\", \"path\": \"/a/b/c\", \"value\": 10},"
+                    + "{\"op\": \"remove\", \"path\": \"/a/b/d\"},"
+                    + "{\"op\": \"add\", \"path\": \"/a/f\", \"value\": true}]"));
+
+    JSONValueObject patched = (JSONValueObject) patch.apply(root);
+    assertEquals(parse("{\"a\": {\"b\": {\"c\": 10}, \"f\": true}, \"e\": [3]}"), patched);
+    assertEquals(parse("{\"a\": {\"b\": {\"c\": 1, \"d\": 2}}, \"e\": [3]}"), root);
+    assertTrue(patched instanceof JSONValueObjectImmutable);
+    assertSame(root.get("e"), patched.get("e"));
+    assertNotSame(root.get("a"), patched.get("a"));
+
+    // The given mutable document is not modified either.
+    JSONValueObjectMutable mutable = ((JSONValueObjectImmutable) root).toMutable();
+    assertEquals(patched, patch.apply(mutable));
+    assertEquals(root, mutable);
+  }
+
+  @Test
+  public void testApplyInPlace() throws IOException, JSONParserException, JSONPatchException {
+    JSONValueObjectMutable root =
+        ((JSONValueObjectImmutable) parse("{\"a\": [{\"b\": 1}], \"c\": 2}")).toMutable();
+    JSONValue a = root.get("a");
+    JSONPatch patch =
+        JSONPatch.compile(
+            parse(
+                "[{\"op\": \"add\", \"path\": \"/a/-\", \"value\": {\"x\": []}},"
+                    + "{\"op\": \"add\", \"path\": \"/a/1/x/0\", \"value\": 5},"
+                    + "{\"op\": \"remove\", \"path\": \"/c\"},"
+                    + "{\"op\": \"test\", \"path\": \"/c\", \"value\": 2}]"));
+
+    assertThrows(JSONPatchException.class, () -> patch.applyInPlace(root));
+    // The operations before the failed one remain applied.
+    assertEquals(parse("{\"a\": [{\"b\": 1}, {\"x\": [5]}]}"), root);
+    assertSame(a, root.get("a"));
+    assertTrue(((JSONValueArrayMutable) a).get(1) instanceof JSONValueObjectMutable);
+  }
+}
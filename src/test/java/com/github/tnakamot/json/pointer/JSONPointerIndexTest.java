@@ -0,0 +1,84 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.pointer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONValue;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public class JSONPointerIndexTest {
+  private static final String TEXT =
+      "{\"users\": [{\"name\": \"a\", \"tags\": []}, {\"name\": \"b\", \"a/b~c\": {\"\": 1}}],"
+          + " \"\": [null, true]}";
+
+  @Test
+  public void testGet() throws InvalidJSONPointerException, IOException, JSONParserException {
+    JSONValue root = JSONText.fromString(TEXT).parse().root();
+    JSONPointerIndex index = new JSONPointerIndex(root);
+    assertSame(root, index.root());
+    assertEquals(12, index.size());
+
+    String[] pointers = {
+      "", "/users", "/users/0", "/users/0/name", "/users/0/tags", "/users/1/name",
+      "/users/1/a~1b~0c", "/users/1/a~1b~0c/", "/", "//0", "//1",
+    };
+    for (String pointer : pointers) {
+      JSONPointer p = new JSONPointer(pointer);
+      assertSame(p.evaluate(root), index.get(pointer), pointer);
+      assertSame(p.evaluate(root), index.get(p), pointer);
+    }
+    assertSame(root, index.get(new JSONPointer("#", true)));
+    assertSame(
+        new JSONPointer("/users/0").evaluate(root), index.get(new JSONPointer("#/users/0", true)));
+
+    assertNull(index.get("/users/2"));
+    assertNull(index.get("/users/01"));
+    assertNull(index.get("/users/1/a/b~c"));
+    assertNull(index.get("/none"));
+    assertNull(index.get("users"));
+    assertThrows(NullPointerException.class, () -> new JSONPointerIndex(null));
+  }
+
+  @Test
+  public void testJSONText() throws InvalidJSONPointerException, IOException, JSONParserException {
+    JSONText text = JSONText.fromString(TEXT);
+    assertThrows(IllegalStateException.class, text::pointerIndex);
+    JSONValue root = text.parse().root();
+
+    JSONValue name = text.evaluate("/users/1/name");
+    assertSame(name, text.evaluate("/users/1/name"));
+    assertSame(name, new JSONPointer("/users/1/name").evaluate(root));
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> text.evaluate("/users/1/none"));
+    assertThrows(InvalidJSONPointerSyntaxException.class, () -> text.evaluate("#/users"));
+
+    JSONPointerIndex index = text.pointerIndex();
+    assertSame(index, text.pointerIndex());
+    assertSame(name, text.evaluate("/users/1/name"));
+    assertSame(index.get("/users/0"), text.evaluate("#/users/0", true));
+    assertThrows(
+        InvalidJSONPointerIndexOutOfBoundsException.class, () -> text.evaluate("/users/2"));
+    assertThrows(InvalidJSONPointerNotIndexException.class, () -> text.evaluate("/users/01"));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.pointer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import com.github.tnakamot.json.value.JSONValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class JSONPointerSetTest {
+  private static JSONValue parse(String text) throws IOException, JSONParserException {
+    return JSONText.fromString(text).parse().root();
+  }
+
+  @Test
+  public void testValues() throws InvalidJSONPointerException, IOException, JSONParserException {
+    JSONValue root =
+        parse(
+            "{\"user\": {\"name\": \"a\", \"address\": {\"city\": \"b\", \"zip\": 1}},"
+                + " \"tags\": [\"x\", \"y\"], \"a/b\": true, \"\": null}");
+    String[] pointers = {
+      "",
+      "/user/name",
+      "/user/address/city",
+      "/user/address",
+      "/user/address/zip",
+      "/tags/1",
+      "/tags/2",
+      "/tags/-",
+      "/tags/01",
+      "/user/age",
+      "/user/name/first",
+      "/a~1b",
+      "/",
+      "/user/name",
+    };
+
+    JSONPointerSet set = JSONPointerSet.of(pointers);
+    assertEquals(pointers.length, set.size());
+    JSONValue[] values = set.values(root);
+    assertEquals(pointers.length, values.length);
+    for (int i = 0; i < pointers.length; i++) {
+      JSONValue expected;
+      try {
+        expected = new JSONPointer(pointers[i]).evaluate(root);
+      } catch (InvalidJSONPointerWithTokenException ex) {
+        expected = null;
+      }
+      assertSame(expected, values[i], pointers[i]);
+    }
+  }
+
+  @Test
+  public void testEvaluate() throws InvalidJSONPointerException, IOException, JSONParserException {
+    JSONPointer name = new JSONPointer("/0/name");
+    JSONPointer missing = new JSONPointer("/1/name");
+    JSONPointer id = new JSONPointer("/0/id");
+    JSONPointerSet set = new JSONPointerSet(name, missing, id);
+    assertEquals(Arrays.asList(name, missing, id), set.pointers());
+
+    Map<JSONPointer, JSONValue> result = set.evaluate(parse("[{\"id\": 1, \"name\": \"n\"}]"));
+    assertEquals(List.of(name, id), List.copyOf(result.keySet()));
+    assertEquals("\"n\"", result.get(name).toTokenString());
+    assertEquals("1", result.get(id).toTokenString());
+    assertNull(result.get(missing));
+    assertEquals("\"n\"", result.get(new JSONPointer("/0/name")).toTokenString());
+    assertEquals("1", result.get(new JSONPointer("#/0/id", true)).toTokenString());
+
+    assertArrayEquals(new JSONValue[3], set.values(parse("\"primitive\"")));
+    assertEquals(0, new JSONPointerSet().values(parse("{}")).length);
+    assertThrows(NullPointerException.class, () -> new JSONPointerSet(name, null));
+    assertThrows(InvalidJSONPointerSyntaxException.class, () -> JSONPointerSet.of("/a", "b"));
+  }
+
+  @Test
+  public void testValuesStream()
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    String text =
+        "{\"user\": {\"name\": \"a\", \"address\": {\"city\": \"b\", \"zip\": 1}},"
+            + " \"tags\": [\"x\", {\"y\": [2]}, \"z\"], \"a/b\": true, \"\": null}";
+    JSONValue root = parse(text);
+    JSONPointerSet set =
+        JSONPointerSet.of(
+            "/user/address/zip",
+            "/user/name",
+            "/user/address",
+            "/user/address/city",
+            "/tags/2",
+            "/tags/1/y/0",
+            "/tags/1/y/1",
+            "/tags/0/x",
+            "/tags/x",
+            "/a~1b",
+            "/",
+            "/none");
+
+    JSONValue[] expected = set.values(root);
+    JSONValue[] actual = set.values(new StringReader(text));
+    for (int i = 0; i < set.size(); i++) {
+      assertEquals(expected[i], actual[i], set.pointers().get(i).text());
+    }
+    assertArrayEquals(actual, set.values(JSONText.fromString(text)));
+    assertArrayEquals(
+        new JSONValue[] {root}, JSONPointerSet.of("").values(new StringReader(text)));
+    assertThrows(IOException.class, () -> set.values(new StringReader("{\"user\": {")));
+  }
+
+  @Test
+  public void testValuesStreamStopsEarly()
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    StringBuilder sb = new StringBuilder("[{\"id\": 7, \"type\": \"t\"}, ");
+    for (int i = 0; i < 100000; i++) {
+      sb.append(i).append(", ");
+    }
+    sb.append("0]");
+    String text = sb.toString();
+
+    int[] read = new int[1];
+    Reader reader =
+        new StringReader(text) {
+          @Override
+          public int read(char[] cbuf, int off, int len) throws IOException {
+            int n = super.read(cbuf, off, len);
+            read[0] += Math.max(n, 0);
+            return n;
+          }
+        };
+    JSONValue[] values = JSONPointerSet.of("/0/type", "/0/id").values(reader);
+    assertEquals("\"t\"", values[0].toTokenString());
+    assertEquals("7", values[1].toTokenString());
+    assertTrue(read[0] < text.length() / 10);
+  }
+
+  @Test
+  public void testValuesStreamDuplicateMembers()
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    String text = "{\"a\": {\"x\": 1}, \"a\": {\"y\": 2}, \"b\": 3}";
+    JSONPointerSet set = JSONPointerSet.of("/a/y", "/b", "/a/x", "/a");
+    JSONValue[] expected = set.values(parse(text));
+    assertEquals("2", expected[0].toTokenString());
+    assertEquals("3", expected[1].toTokenString());
+    assertNull(expected[2]);
+    assertArrayEquals(expected, set.values(new StringReader(text)));
+
+    text = "[{\"a\": [1], \"a\": [2, 3]}, 4]";
+    set = JSONPointerSet.of("/0/a/1", "/0/a/0", "/1");
+    expected = set.values(parse(text));
+    assertEquals("3", expected[0].toTokenString());
+    assertArrayEquals(expected, set.values(new StringReader(text)));
+  }
+}
@@ -1,7 +1,11 @@
 package com.github.tnakamot.json.pointer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -14,7 +18,10 @@ import com.github.tnakamot.json.value.JSONValueNull;
 import com.github.tnakamot.json.value.JSONValueNumber;
 import com.github.tnakamot.json.value.JSONValueString;
 import com.github.tnakamot.json.value.JSONValueType;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.net.URISyntaxException;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.logging.Logger;
@@ -437,4 +444,133 @@ public class JSONPointerTest {
     assertEquals("hello!", val3.value());
     System.out.println(val3.value());
   }
+
+  @Test
+  public void testOf() throws InvalidJSONPointerException {
+    JSONPointer p = JSONPointer.of("/a~1b/0");
+    assertSame(p, JSONPointer.of("/a~1b/0"));
+    assertSame(p, JSONPointer.of("/a~1b/0", false));
+    assertNotSame(p, JSONPointer.of("/a~1b/1"));
+    assertEquals(2, p.size());
+    assertEquals("a/b", p.token(0).name());
+    assertEquals(0, p.token(1).index());
+
+    JSONPointer f = JSONPointer.of("#/a", true);
+    assertSame(f, JSONPointer.of("#/a", true));
+    assertEquals("a", f.token(0).name());
+    assertThrows(InvalidJSONPointerSyntaxException.class, () -> JSONPointer.of("#/a"));
+    assertThrows(InvalidJSONPointerSyntaxException.class, () -> JSONPointer.of("a"));
+
+    // the returned tokens are copies
+    p.tokens()[0] = p.tokens()[1];
+    assertEquals("a~1b", p.tokens()[0].text());
+  }
+
+  @Test
+  public void testEquals() throws InvalidJSONPointerException {
+    JSONPointer pointer = new JSONPointer("/a~1b/0");
+    assertEquals(pointer, new JSONPointer("/a~1b/0"));
+    assertEquals(pointer.hashCode(), new JSONPointer("/a~1b/0").hashCode());
+    assertEquals(pointer, new JSONPointer("#/a~1b/0", true));
+    assertEquals(new JSONPointer(""), new JSONPointer("#", true));
+    assertNotEquals(pointer, new JSONPointer("/a/b/0"));
+    assertNotEquals(pointer, new JSONPointer("/a~1b"));
+    assertNotEquals(new JSONPointer("/"), new JSONPointer(""));
+  }
+
+  @Test
+  public void testIndex() throws InvalidJSONPointerException {
+    JSONPointer p = new JSONPointer("/0/10/123456789/1234567890/2147483648/01/-1/1a/");
+    assertEquals(0, p.token(0).index());
+    assertEquals(10, p.token(1).index());
+    assertEquals(123456789, p.token(2).index());
+    assertEquals(1234567890, p.token(3).index());
+    assertThrows(NumberFormatException.class, () -> p.token(4).index());
+    for (int i = 5; i < p.size(); i++) {
+      int index = i;
+      assertThrows(InvalidJSONPointerNotIndexException.class, () -> p.token(index).index());
+    }
+  }
+
+  private static JSONValue evaluateStream(String pointer, String text)
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    return new JSONPointer(pointer).evaluate(new StringReader(text));
+  }
+
+  @Test
+  public void testEvaluateStream()
+      throws InvalidJSONPointerException, IOException, JSONParserException {
+    String text =
+        "{\"meta\": {\"i\\u0064\": [1, \"]}\\\"\", {\"x\": -1.5e3}], \"name\": \"\\u3042\"},"
+            + " \"a/b\": {\"c~d\": null}, \"\": true, \"rest\": [1, 2, 3]}";
+    assertEquals("-1.5e3", evaluateStream("/meta/id/2/x", text).toTokenString());
+    assertEquals("\"]}\\\"\"", evaluateStream("/meta/id/1", text).toTokenString());
+    assertEquals("\u3042", ((JSONValueString) evaluateStream("/meta/name", text)).value());
+    assertEquals(JSONValueType.NULL, evaluateStream("/a~1b/c~0d", text).type());
+    assertEquals(JSONValueType.BOOLEAN, evaluateStream("/", text).type());
+    assertEquals(
+        "[1,\"]}\\\"\",{\"x\":-1.5e3}]",
+        new JSONPointer("/meta/id")
+            .evaluate(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)))
+            .toTokenString());
+
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> evaluateStream("/meta/x", text));
+    assertThrows(
+        InvalidJSONPointerIndexOutOfBoundsException.class,
+        () -> evaluateStream("/meta/id/3", text));
+    assertThrows(
+        InvalidJSONPointerNotIndexException.class, () -> evaluateStream("/meta/id/x", text));
+    assertThrows(
+        InvalidJSONPointerReachedPrimitiveException.class,
+        () -> evaluateStream("/meta/name/0", text));
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> evaluateStream("/none", text));
+    assertEquals("1", evaluateStream("/0/x", "[{\"x\": 1}, 2, [3").toTokenString());
+    assertThrows(IOException.class, () -> evaluateStream("/a", "{\"a\": 1, \"b\": [3"));
+    assertThrows(IOException.class, () -> evaluateStream("", ""));
+    assertThrows(JSONParserException.class, () -> evaluateStream("/a", "{\"a\": tru}"));
+
+    String duplicate = "{\"a\": {\"x\": 1}, \"a\": {\"y\": 2}}";
+    assertEquals("2", evaluateStream("/a/y", duplicate).toTokenString());
+    assertEquals(
+        new JSONPointer("/a/y").evaluate(JSONText.fromString(duplicate)),
+        evaluateStream("/a/y", duplicate));
+    assertThrows(
+        InvalidJSONPointerMemberNotExistException.class, () -> evaluateStream("/a/x", duplicate));
+    assertEquals("3", evaluateStream("/a", "{\"a\": 1, \"b\": 2, \"a\": 3}").toTokenString());
+    assertEquals("4", evaluateStream("/a/0", "{\"a\": [], \"a\": [4]}").toTokenString());
+
+    JSONText jsText = JSONText.fromString("{\"a\": [true]}");
+    assertEquals(JSONValueType.BOOLEAN, new JSONPointer("/a/0").evaluate(jsText).type());
+    JSONValue parsed = jsText.parse().root();
+    assertSame(new JSONPointer("/a/0").evaluate(parsed), new JSONPointer("/a/0").evaluate(jsText));
+  }
+
+  @Test
+  public void testFind() throws InvalidJSONPointerException, IOException, JSONParserException {
+    JSONValue root =
+        JSONText.fromString("{\"a\": [1, {\"b\": null}], \"c~d\": \"e\"}").parse().root();
+    JSONValue def = new JSONValueString("default");
+
+    String[] found = {"", "/a", "/a/0", "/a/1/b", "/c~0d"};
+    for (String pointer : found) {
+      JSONPointer p = new JSONPointer(pointer);
+      assertSame(p.evaluate(root), p.evaluate(root, def), pointer);
+      assertSame(p.evaluate(root), p.find(root).orElseThrow(), pointer);
+    }
+
+    String[] missing = {"/x", "/a/2", "/a/-", "/a/01", "/a/x", "/a/0/0", "/c~0d/0"};
+    for (String pointer : missing) {
+      JSONPointer p = new JSONPointer(pointer);
+      assertThrows(InvalidJSONPointerException.class, () -> p.evaluate(root), pointer);
+      assertSame(def, p.evaluate(root, def), pointer);
+      assertNull(p.evaluate(root, null), pointer);
+      assertTrue(p.find(root).isEmpty(), pointer);
+    }
+
+    JSONPointer tooLarge = new JSONPointer("/a/2147483648");
+    assertThrows(NumberFormatException.class, () -> tooLarge.evaluate(root));
+    assertTrue(tooLarge.find(root).isEmpty());
+  }
 }
@@ -0,0 +1,169 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.token;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+public class JSONDecimalTest {
+  @ParameterizedTest(name = "testComponents: \"{0}\"")
+  @ValueSource(
+      strings = {
+        "0", "-0", "0.000", "1", "-12.300e2", "1e3", "0.00123", "120", "12345678901234567890",
+      })
+  public void testComponents(String text) {
+    JSONDecimal decimal = JSONDecimal.parse(text);
+    BigDecimal expected = new BigDecimal(text).stripTrailingZeros();
+
+    assertEquals(text.startsWith("-"), decimal.isNegative());
+    if (expected.signum() == 0) {
+      assertEquals(0, decimal.significantDigits());
+      assertEquals(0, decimal.significand());
+      assertEquals(0, decimal.exponent());
+    } else {
+      assertEquals(expected.precision(), decimal.significantDigits());
+      assertEquals(
+          expected.unscaledValue().abs().toString(),
+          Long.toUnsignedString(decimal.significand()));
+      assertEquals(-expected.scale(), decimal.exponent());
+    }
+  }
+
+  @ParameterizedTest(name = "testDouble: \"{0}\"")
+  @ValueSource(
+      strings = {
+        "0",
+        "-0.0",
+        "1.7976931348623157e308",
+        "1.7976931348623158e308",
+        "1.7976931348623159e308",
+        "2.2250738585072011e-308",
+        "2.2250738585072012e-308",
+        "4.9406564584124654e-324",
+        "2.4703282292062327e-324",
+        "2.4703282292062328e-324",
+        "9007199254740993",
+        "9007199254740992.9999999999999999999",
+        "123456789012345678901234567890e-10",
+        "0.1000000000000000055511151231257827021181583404541015625",
+        "0.1000000000000000055511151231257827021181583404541015624",
+        "0.1000000000000000055511151231257827021181583404541015626",
+        "7.0420557077594588669468784357561207962098443483187940792729600000e59",
+        "1e23",
+        "8.41e21",
+        "1e-400",
+        "1e400",
+        "1e100000000000000000000",
+      })
+  public void testDouble(String text) {
+    assertEquals(Double.parseDouble(text), JSONDecimal.parse(text).toDouble());
+  }
+
+  @Test
+  public void testRandomDouble() {
+    Random random = new Random(20201019L);
+
+    for (int i = 0; i < 100000; i++) {
+      StringBuilder sb = new StringBuilder();
+      if (random.nextBoolean()) {
+        sb.append('-');
+      }
+
+      int digits = 1 + random.nextInt(i % 2 == 0 ? 17 : 25);
+      sb.append(1 + random.nextInt(9));
+      for (int j = 1; j < digits; j++) {
+        sb.append(random.nextInt(10));
+      }
+      if (random.nextBoolean()) {
+        sb.insert(sb.length() - random.nextInt(digits), '.');
+        if (sb.charAt(sb.length() - 1) == '.') {
+          sb.append('0');
+        }
+        if (sb.charAt(0) == '.' || sb.toString().startsWith("-.")) {
+          sb.insert(sb.charAt(0) == '-' ? 1 : 0, '0');
+        }
+      }
+      sb.append('e').append(random.nextInt(700) - 350);
+
+      String text = sb.toString();
+      assertEquals(Double.parseDouble(text), JSONDecimal.parse(text).toDouble(), text);
+    }
+  }
+
+  @Test
+  public void testRandomBits() {
+    Random random = new Random(20201020L);
+
+    for (int i = 0; i < 100000; i++) {
+      double d = Double.longBitsToDouble(random.nextLong());
+      if (Double.isNaN(d) || Double.isInfinite(d)) {
+        continue;
+      }
+
+      String text = Double.toString(d);
+      assertEquals(d, JSONDecimal.parse(text).toDouble(), text);
+    }
+  }
+
+  @Test
+  public void testLong() {
+    assertTrue(JSONDecimal.parse("9223372036854775807").canBeLong());
+    assertEquals(Long.MAX_VALUE, JSONDecimal.parse("9223372036854775807").toLong());
+    assertEquals(Long.MIN_VALUE, JSONDecimal.parse("-9223372036854775808").toLong());
+    assertEquals(1500, JSONDecimal.parse("1.5e3").toLong());
+
+    assertFalse(JSONDecimal.parse("9223372036854775808").canBeLong());
+    assertFalse(JSONDecimal.parse("9223372036854775808").hasFraction());
+    assertFalse(JSONDecimal.parse("1.5").canBeLong());
+    assertTrue(JSONDecimal.parse("1.5").hasFraction());
+    assertTrue(JSONDecimal.parse("12345678901234567890.5").hasFraction());
+    assertFalse(JSONDecimal.parse("12345678901234567890.5").canBeLong());
+  }
+
+  @ParameterizedTest(name = "testInvalid: \"{0}\"")
+  @ValueSource(strings = {"", "-", "01", "1.", ".1", "1e", "1e+", "1e+-1", "1.e1", "+1", "1 "})
+  public void testInvalid(String text) {
+    assertThrows(NumberFormatException.class, () -> JSONDecimal.parse(text));
+  }
+
+  @Test
+  public void testScannedByLexer() throws IOException, JSONParserException {
+    String json = "[0, -1.5e3, 3.14159, 12345678901234567890, 1e-320, 2.2250738585072012e-308]";
+    List<JSONToken> tokens = JSONText.fromString(json).tokens();
+
+    for (JSONToken token : tokens) {
+      if (token instanceof JSONTokenNumber) {
+        JSONDecimal decimal = ((JSONTokenNumber) token).decimal();
+        JSONDecimal expected = JSONDecimal.parse(token.text());
+        assertEquals(expected.toDouble(), decimal.toDouble());
+        assertEquals(expected.significand(), decimal.significand());
+        assertEquals(expected.exponent(), decimal.exponent());
+        assertEquals(expected.canBeLong(), decimal.canBeLong());
+      }
+    }
+  }
+}
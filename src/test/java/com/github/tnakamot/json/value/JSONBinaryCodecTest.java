@@ -0,0 +1,212 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import com.github.tnakamot.json.JSONText;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONBinaryCodecTest {
+  private static final String TEXT =
+      "{\"null\": null, \"bool\": [true, false], \"numbers\": [0, -1, 1.0, 1E2, -0, 1e400,"
+          + " 9223372036854775807, -9223372036854775808, 9223372036854775808, 0.1],"
+          + " \"longs\": [1, 2, 3], \"doubles\": [1.5, 2], \"strings\": [\"\", \"abc\","
+          + " \"\\u00e9\\u3042\\ud83d\\ude00\", \"\\ud800\", \"\\u0000\"],"
+          + " \"nested\": {\"empty\": {}, \"array\": [[], [{\"null\": null}]]}}";
+
+  private static JSONValue parse(String text) throws Exception {
+    return JSONText.fromString(text).parse().root();
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    JSONValue root = parse(TEXT);
+    byte[] data = JSONBinaryCodec.encode(root);
+    JSONValue decoded = JSONBinaryCodec.decode(data);
+
+    assertEquals(root, decoded);
+    assertTrue(decoded instanceof JSONValueObjectImmutable);
+    assertEquals(parse(root.toTokenString()), parse(decoded.toTokenString()));
+
+    JSONValueArray numbers = ((JSONValueObject) decoded).getArray("numbers");
+    String[] texts = {
+      "0", "-1", "1.0", "1E2", "-0", "1e400", "9223372036854775807", "-9223372036854775808",
+      "9223372036854775808", "0.1"
+    };
+    for (int i = 0; i < texts.length; i++) {
+      assertEquals(texts[i], ((JSONValueNumber) numbers.get(i)).text());
+    }
+
+    JSONValueArray strings = ((JSONValueObject) decoded).getArray("strings");
+    assertEquals("\u00e9\u3042\ud83d\ude00", strings.getString(2));
+    assertEquals("\ud800", strings.getString(3));
+    assertEquals("\u0000", strings.getString(4));
+
+    assertTrue(((JSONValueObject) decoded).getArray("longs") instanceof JSONValueArrayLong);
+    assertTrue(((JSONValueObject) decoded).getArray("doubles") instanceof JSONValueArrayDouble);
+  }
+
+  @Test
+  public void testPrimitiveRoot() {
+    JSONValue[] values = {
+      JSONValueNull.INSTANCE,
+      JSONValueBoolean.TRUE,
+      new JSONValueNumber(-123),
+      new JSONValueNumber("1.50"),
+      new JSONValueString("abc")
+    };
+    for (JSONValue value : values) {
+      assertEquals(value, JSONBinaryCodec.decode(JSONBinaryCodec.encode(value)));
+    }
+    JSONValueNumber decoded =
+        (JSONValueNumber) JSONBinaryCodec.decode(JSONBinaryCodec.encode(values[3]));
+    assertEquals("1.50", decoded.text());
+  }
+
+  @Test
+  public void testMutable() throws Exception {
+    JSONValueObject root = new JSONValueObjectMutable();
+    root.put("key1", "value");
+    root.put("key2", new JSONValueArrayMutable());
+    ((JSONValueArray) root.get("key2")).add(new JSONValueNumber(1.5));
+    root.put("key3", ((JSONValueObjectImmutable) parse("{\"key1\": 1}")).toMutable());
+
+    JSONValue decoded = JSONBinaryCodec.decode(JSONBinaryCodec.encode(root));
+    assertEquals(root, decoded);
+    assertTrue(decoded instanceof JSONValueObjectImmutable);
+  }
+
+  @Test
+  public void testKeyDictionary() throws Exception {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < 100; i++) {
+      sb.append(i == 0 ? "" : ",").append("{\"a_long_member_name\": ").append(i).append("}");
+    }
+    JSONValue root = parse(sb.append("]").toString());
+    byte[] data = JSONBinaryCodec.encode(root);
+
+    // The name appears only once in the encoded data.
+    assertTrue(data.length < root.toTokenBytes().length / 2);
+    JSONValueArray decoded = (JSONValueArray) JSONBinaryCodec.decode(data);
+    assertEquals(root, decoded);
+    assertSame(
+        decoded.getObject(0).keySet().iterator().next(),
+        decoded.getObject(99).keySet().iterator().next());
+  }
+
+  @Test
+  public void testDecodePath() throws Exception {
+    byte[] data = JSONBinaryCodec.encode(parse(TEXT));
+
+    assertEquals(parse(TEXT), JSONBinaryCodec.decode(data, new String[0]));
+    assertEquals(new JSONValueNumber("1E2"), JSONBinaryCodec.decode(data, "numbers", "3"));
+    assertEquals(JSONValueNull.INSTANCE, JSONBinaryCodec.decode(data, "null"));
+    assertEquals(
+        JSONValueNull.INSTANCE, JSONBinaryCodec.decode(data, "nested", "array", "1", "0", "null"));
+    assertEquals(parse("{}"), JSONBinaryCodec.decode(data, "nested", "empty"));
+    assertEquals(new JSONValueString("abc"), JSONBinaryCodec.decode(data, "strings", "1"));
+
+    assertNull(JSONBinaryCodec.decode(data, "unknown"));
+    assertNull(JSONBinaryCodec.decode(data, "numbers", "10"));
+    assertNull(JSONBinaryCodec.decode(data, "numbers", "01"));
+    assertNull(JSONBinaryCodec.decode(data, "numbers", "-1"));
+    assertNull(JSONBinaryCodec.decode(data, "null", "0"));
+  }
+
+  @Test
+  public void testStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JSONBinaryCodec.encode(parse(TEXT), out);
+    JSONBinaryCodec.encode(new JSONValueString("second"), out);
+    assertArrayEquals(
+        JSONBinaryCodec.encode(parse(TEXT)),
+        Arrays.copyOf(out.toByteArray(), JSONBinaryCodec.encode(parse(TEXT)).length));
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(out.size());
+    buffer.put(out.toByteArray()).flip();
+    assertEquals(parse(TEXT), JSONBinaryCodec.decode(buffer));
+    assertEquals(new JSONValueString("second"), JSONBinaryCodec.decode(buffer));
+    assertFalse(buffer.hasRemaining());
+  }
+
+  private static byte[] concat(byte[]... arrays) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] array : arrays) {
+      out.write(array, 0, array.length);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testMalformed() throws Exception {
+    byte[] data = JSONBinaryCodec.encode(parse(TEXT));
+
+    assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(new byte[0]));
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONBinaryCodec.decode(new byte[] {'J', 'B', 2}));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> JSONBinaryCodec.decode(Arrays.copyOf(data, data.length - 1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> JSONBinaryCodec.decode(Arrays.copyOf(data, data.length + 1)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> JSONBinaryCodec.decode(new byte[] {'J', 'B', 1, 0, 0x7F}));
+
+    // A varint of -1 (ten bytes with bit 63 set) as the key count, the element count of an array
+    // and the key index of an object member.
+    byte[] minusOne = {-1, -1, -1, -1, -1, -1, -1, -1, -1, 0x01};
+    byte[][] negatives = {
+      concat(new byte[] {'J', 'B', 1}, minusOne),
+      concat(new byte[] {'J', 'B', 1, 0, 0x06, 0, 0, 0, 10}, minusOne),
+      concat(new byte[] {'J', 'B', 1, 1, 1, 'a', 0x07, 0, 0, 0, 12, 1}, minusOne, new byte[] {0}),
+    };
+    for (byte[] negative : negatives) {
+      assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(negative));
+    }
+    byte[] tooLong = {'J', 'B', 1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 0x01};
+    assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(tooLong));
+
+    // {"a": 1, "a": 2}
+    byte[] duplicate = {'J', 'B', 1, 1, 1, 'a', 0x07, 0, 0, 0, 7, 2, 0, 0x03, 2, 0, 0x03, 4};
+    assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(duplicate));
+
+    // {"a": {"a": null}, "a": null}
+    byte[] nestedDuplicate = {
+      'J', 'B', 1, 1, 1, 'a', 0x07, 0, 0, 0, 12, 2, 0, 0x07, 0, 0, 0, 3, 1, 0, 0x00, 0, 0x00
+    };
+    assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(nestedDuplicate));
+
+    // {"a": {"a": null}, "b": null}
+    byte[] nested = {
+      'J', 'B', 1, 2, 1, 'a', 1, 'b', 0x07, 0, 0, 0, 12, 2, 0, 0x07, 0, 0, 0, 3, 1, 0, 0x00, 1, 0x00
+    };
+    assertEquals(parse("{\"a\": {\"a\": null}, \"b\": null}"), JSONBinaryCodec.decode(nested));
+
+    // {"a": 1}
+    byte[] valid = {'J', 'B', 1, 1, 1, 'a', 0x07, 0, 0, 0, 4, 1, 0, 0x03, 2};
+    assertEquals(parse("{\"a\": 1}"), JSONBinaryCodec.decode(valid));
+    valid[10] = 3;
+    assertThrows(IllegalArgumentException.class, () -> JSONBinaryCodec.decode(valid));
+  }
+}
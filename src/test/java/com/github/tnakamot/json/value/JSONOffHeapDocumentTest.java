@@ -0,0 +1,206 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class JSONOffHeapDocumentTest {
+  private static final String TEXT =
+      "{"
+          + "\"null\": null,"
+          + "\"true\": true,"
+          + "\"false\": false,"
+          + "\"integer\": -123,"
+          + "\"decimal\": 1.50e+3,"
+          + "\"string\": \"h\\u00e9llo \\u3042 \\ud83d\\ude00\","
+          + "\"empty\": \"\","
+          + "\"array\": [1, 2.5, \"x\", [], {}, [null, {\"a\": [true]}]],"
+          + "\"object\": {\"b\": {\"c\": 3}},"
+          + "\"\\u540d\\u524d\": \"name\""
+          + "}";
+
+  private static JSONValue parse(String text) throws IOException, JSONParserException {
+    return JSONText.fromString(text).parse().root();
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException, JSONParserException {
+    JSONValue heap = parse(TEXT);
+    JSONOffHeapDocument document = JSONOffHeapDocument.of(heap);
+    JSONValue root = document.root();
+
+    assertTrue(root instanceof JSONValueObjectOffHeap);
+    assertEquals(heap, root);
+    assertEquals(root, heap);
+    assertEquals(heap.hashCode(), root.hashCode());
+    // the source tokens are not stored, so the strings are escaped again
+    assertEquals(heap, parse(root.toTokenString()));
+    assertEquals(heap, parse(root.toTokenString("\n", "  ")));
+
+    JSONValueObject obj = (JSONValueObject) root;
+    assertEquals(10, obj.size());
+    assertEquals(JSONValueNull.INSTANCE, obj.get("null"));
+    assertTrue(obj.getBoolean("true"));
+    assertFalse(obj.getBoolean("false"));
+    assertEquals(-123, obj.getLong("integer"));
+    assertEquals(1500.0, obj.getDouble("decimal"));
+    assertEquals("1.50e+3", ((JSONValueNumber) obj.get("decimal")).text());
+    assertEquals("h\u00e9llo \u3042 \ud83d\ude00", obj.getString("string"));
+    assertEquals("", obj.getString("empty"));
+    assertEquals("name", obj.getString("\u540d\u524d"));
+    assertNull(obj.get("missing"));
+    assertTrue(obj.containsKey("array"));
+    assertTrue(obj.containsKey(new JSONKey("object")));
+    assertFalse(obj.containsKey("missing"));
+
+    JSONValueArray array = obj.getArray("array");
+    assertTrue(array instanceof JSONValueArrayOffHeap);
+    assertEquals(6, array.size());
+    assertEquals("x", array.getString(2));
+    assertTrue(array.getArray(3).isEmpty());
+    assertTrue(array.getObject(4).isEmpty());
+    assertTrue(array.getArray(5).getObject(1).getArray("a").getBoolean(0));
+    assertEquals(3, obj.getObject("object").getObject("b").getLong("c"));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.get(6));
+
+    int i = 0;
+    for (Map.Entry<JSONValueString, JSONValue> entry : obj.entrySet()) {
+      assertEquals(((JSONValueObject) heap).get(entry.getKey()), entry.getValue());
+      i++;
+    }
+    assertEquals(10, i);
+  }
+
+  @Test
+  public void testLargeObject() {
+    JSONValueObjectMutable heap = new JSONValueObjectMutable();
+    for (int i = 0; i < 1000; i++) {
+      heap.put("key" + i, i);
+    }
+    // members of the same hash code
+    heap.put("Aa", "first");
+    heap.put("BB", "second");
+
+    JSONValueObject obj = (JSONValueObject) JSONOffHeapDocument.of(heap).root();
+    assertEquals(1002, obj.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, obj.getLong("key" + i));
+      assertEquals(new JSONValueNumber(i), obj.get(new StringBuilder("key").append(i)));
+    }
+    assertEquals("first", obj.getString("Aa"));
+    assertEquals("second", obj.getString("BB"));
+    assertNull(obj.get("key1000"));
+    assertEquals(heap, obj);
+  }
+
+  @Test
+  public void testAllocator() throws IOException, JSONParserException {
+    JSONValue heap = parse(TEXT);
+    int[] requested = new int[1];
+    JSONOffHeapDocument document =
+        JSONOffHeapDocument.of(
+            heap,
+            size -> {
+              requested[0] = size;
+              return ByteBuffer.allocate(size + 10).position(10);
+            });
+    assertEquals(requested[0], document.byteSize());
+    assertEquals(heap, document.root());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> JSONOffHeapDocument.of(heap, size -> ByteBuffer.allocate(size - 1)));
+  }
+
+  @Test
+  public void testImmutableAndToMutable() throws IOException, JSONParserException {
+    JSONValueObject obj = (JSONValueObject) JSONOffHeapDocument.of(parse(TEXT)).root();
+    assertThrows(UnsupportedOperationException.class, () -> obj.put("a", 1));
+    assertThrows(UnsupportedOperationException.class, () -> obj.remove("null"));
+    assertThrows(UnsupportedOperationException.class, obj::clear);
+    assertThrows(UnsupportedOperationException.class, () -> obj.getArray("array").add(1));
+
+    JSONValueObjectMutable mutable = ((JSONValueObjectOffHeap) obj).toMutable();
+    mutable.getObject("object").getObject("b").put("d", 4);
+    mutable.getArray("array").add(7);
+    assertEquals(4, mutable.getObject("object").getObject("b").getLong("d"));
+    assertEquals(7, mutable.getArray("array").getLong(6));
+    assertFalse(obj.getObject("object").getObject("b").containsKey("d"));
+  }
+
+  @Test
+  public void testPrimitiveRoot() throws IOException, JSONParserException {
+    assertEquals(new JSONValueString("abc"), JSONOffHeapDocument.of(parse("\"abc\"")).root());
+    assertEquals(new JSONValueNumber(12), JSONOffHeapDocument.of(parse("12")).root());
+    assertEquals(JSONValueNull.INSTANCE, JSONOffHeapDocument.of(parse("null")).root());
+    assertEquals(JSONValueBoolean.TRUE, JSONOffHeapDocument.of(parse("true")).root());
+    assertEquals(1, JSONOffHeapDocument.of(parse("false")).byteSize());
+  }
+
+  @Test
+  public void testLoneSurrogates() throws IOException, JSONParserException {
+    String text = "{\"k\\ud800\": \"v\\udc00x\", \"pair\": \"\\ud83d\\ude00\\udc00\"}";
+    JSONValue heap = parse(text);
+    JSONOffHeapDocument document = JSONOffHeapDocument.of(heap);
+    JSONValueObject root = (JSONValueObject) document.root();
+
+    assertEquals(heap, root);
+    assertEquals("v\udc00x", root.getString("k\ud800"));
+    assertEquals("\ud83d\ude00\udc00", root.getString("pair"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    document.writeTo(Channels.newChannel(out));
+    assertEquals(heap, JSONOffHeapDocument.wrap(ByteBuffer.wrap(out.toByteArray())).root());
+  }
+
+  @Test
+  public void testWriteToAndWrap() throws IOException, JSONParserException {
+    JSONOffHeapDocument document = JSONOffHeapDocument.of(parse(TEXT));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(new byte[] {1, 2, 3});
+    document.writeTo(Channels.newChannel(out));
+    assertEquals(3 + document.byteSize(), out.size());
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    buffer.position(3);
+    JSONOffHeapDocument wrapped = JSONOffHeapDocument.wrap(buffer);
+    assertEquals(document.byteSize(), wrapped.byteSize());
+    assertEquals(parse(TEXT), wrapped.root());
+
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONOffHeapDocument.wrap(ByteBuffer.allocate(0)));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> JSONOffHeapDocument.wrap(ByteBuffer.wrap(new byte[] {9})));
+    byte[] truncated = {JSONOffHeapDocument.TAG_ARRAY, 0};
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONOffHeapDocument.wrap(ByteBuffer.wrap(truncated)));
+  }
+}
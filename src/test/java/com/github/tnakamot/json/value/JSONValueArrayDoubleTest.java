@@ -0,0 +1,99 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class JSONValueArrayDoubleTest {
+  @Test
+  public void testParse() throws IOException, JSONParserException {
+    String text = "[1.5,-0.25,3,-0.0,1.0E-5,100.0,9007199254740992]";
+    JSONValue root = JSONText.fromString(text).parse().root();
+
+    assertTrue(root instanceof JSONValueArrayDouble);
+    JSONValueArray array = (JSONValueArray) root;
+    assertEquals(7, array.size());
+    assertEquals(-0.25, array.getDouble(1));
+    assertEquals(3, array.getLong(2));
+    assertEquals(100, array.getLong(5));
+    assertThrows(NumberFormatException.class, () -> array.getLong(0));
+    assertEquals(new JSONValueNumber("3"), array.get(2));
+    assertEquals("3", ((JSONValueNumber) array.get(2)).text());
+    assertEquals("-0.0", ((JSONValueNumber) array.get(3)).text());
+    assertArrayEquals(
+        new double[] {1.5, -0.25, 3, -0.0, 1.0E-5, 100.0, 9007199254740992.0},
+        array.toDoubleArray());
+    assertEquals(4.25, array.doubleStream().limit(3).sum());
+    assertEquals(text, array.toTokenString());
+  }
+
+  @Test
+  public void testNotDouble() throws IOException, JSONParserException {
+    for (String text :
+        new String[] {"[1.5,1e-5]", "[1.50,2]", "[0.1,9007199254740993]", "[1.5,null]"}) {
+      JSONValue root = JSONText.fromString(text).parse().root();
+      assertFalse(root instanceof JSONValueArrayDouble, text);
+      assertEquals(text, root.toTokenString());
+    }
+  }
+
+  @Test
+  public void testMutable() {
+    JSONValueArrayMutable array = new JSONValueArrayMutable();
+    array.add(0.5);
+    array.add(2);
+
+    assertArrayEquals(new double[] {0.5, 2.0}, array.toDoubleArray());
+    assertThrows(NumberFormatException.class, array::toLongArray);
+
+    array.add("text");
+    assertThrows(WrongValueTypeException.class, array::toDoubleArray);
+  }
+
+  @Test
+  public void testEquality() throws IOException, JSONParserException {
+    JSONValueArray a1 = (JSONValueArray) JSONText.fromString("[1, 2.5, -0.0]").parse().root();
+    JSONValueArray a2 = (JSONValueArray) JSONText.fromString("[1.0, 2.5, 0.0]").parse().root();
+    JSONValueArray a3 = (JSONValueArray) JSONText.fromString("[1, 2.5, 0.1]").parse().root();
+    assertTrue(a1 instanceof JSONValueArrayDouble);
+    assertTrue(a2 instanceof JSONValueArrayDouble);
+
+    assertEquals(a1, a2);
+    assertEquals(a1.hashCode(), a2.hashCode());
+    assertNotEquals(a1, a3);
+
+    JSONValueArray generic = (JSONValueArray) JSONText.fromString("[1, 2.50, 0]").parse().root();
+    assertFalse(generic instanceof JSONValueArrayDouble);
+    assertEquals(a1, generic);
+    assertEquals(generic, a1);
+    assertEquals(a1.hashCode(), generic.hashCode());
+
+    JSONValueArray longs = (JSONValueArray) JSONText.fromString("[1, 2, 3]").parse().root();
+    JSONValueArray doubles = (JSONValueArray) JSONText.fromString("[1.0, 2.0, 3.0]").parse().root();
+    assertTrue(longs instanceof JSONValueArrayLong);
+    assertEquals(longs, doubles);
+    assertEquals(doubles, longs);
+    assertEquals(longs, JSONText.fromString("[1, 2, 3]").parse().root());
+    assertNotEquals(longs, JSONText.fromString("[1, 2, 4]").parse().root());
+  }
+}
@@ -2,6 +2,7 @@ package com.github.tnakamot.json.value;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -139,4 +140,75 @@ public class JSONValueArrayImmutableTest {
     assertThrows(UnsupportedOperationException.class, () -> array.addAll(values));
     assertThrows(UnsupportedOperationException.class, () -> array.addAll(1, values));
   }
+
+  @Test
+  public void testWith() {
+    int n = 3000;
+    JSONValueArrayMutable arrayM = new JSONValueArrayMutable();
+    for (int i = 0; i < n; i++) {
+      arrayM.add(new JSONValueObjectMutable());
+    }
+    JSONValueArrayImmutable array = arrayM.toImmutable();
+
+    JSONValueArrayImmutable replaced = array.with(2000, new JSONValueString("x"));
+    assertEquals(n, replaced.size());
+    assertEquals("x", replaced.getString(2000));
+    assertTrue(array.get(2000) instanceof JSONValueObjectImmutable);
+    assertSame(array.get(0), replaced.get(0));
+    assertSame(array.get(2999), replaced.get(2999));
+
+    JSONValueArrayImmutable appended = array.withAdded(new JSONValueArrayMutable());
+    assertEquals(n + 1, appended.size());
+    assertEquals(n, array.size());
+    assertTrue(appended.get(n) instanceof JSONValueArrayImmutable);
+
+    JSONValueArrayImmutable inserted = replaced.withAdded(1, new JSONValueString("y"));
+    assertEquals(n + 1, inserted.size());
+    assertEquals("y", inserted.getString(1));
+    assertEquals("x", inserted.getString(2001));
+    assertEquals(n, replaced.size());
+    assertSame(replaced.get(n - 1), inserted.get(n));
+
+    JSONValueArrayImmutable removed = replaced.without(0);
+    assertEquals(n - 1, removed.size());
+    assertEquals("x", removed.getString(1999));
+
+    assertThrows(IndexOutOfBoundsException.class, () -> array.with(n, JSONValueNull.INSTANCE));
+    assertThrows(IndexOutOfBoundsException.class, () -> array.without(-1));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> array.withAdded(n + 1, JSONValueNull.INSTANCE));
+
+    JSONValueArrayMutable numbersM = new JSONValueArrayMutable();
+    numbersM.add(1);
+    numbersM.add(2);
+    JSONValueArrayImmutable numbers = numbersM.toImmutable().with(1, new JSONValueNumber(3));
+    assertTrue(numbers instanceof JSONValueArrayLong);
+    assertEquals(3, numbers.getLong(1));
+  }
+
+  @Test
+  public void testToMutableLazy() {
+    JSONValueArrayMutable arrayM = new JSONValueArrayMutable();
+    for (int i = 0; i < 2000; i++) {
+      JSONValueArrayMutable inner = new JSONValueArrayMutable();
+      inner.add(i);
+      arrayM.add(inner);
+    }
+    JSONValueArrayImmutable array = arrayM.toImmutable();
+
+    JSONValueArrayMutable mutable = array.toMutable();
+    assertTrue(mutable.get(1500) instanceof JSONValueArrayMutable);
+    mutable.getArray(1500).add(-1);
+    assertEquals(2, mutable.getArray(1500).size());
+    assertEquals(1, array.getArray(1500).size());
+
+    JSONValueArrayImmutable modified = mutable.toImmutable();
+    assertEquals(2, modified.getArray(1500).size());
+    assertSame(array.get(0), modified.get(0));
+    assertEquals(array.size(), modified.size());
+
+    for (JSONValue value : array.toMutable()) {
+      assertTrue(value instanceof JSONValueArrayMutable);
+    }
+  }
 }
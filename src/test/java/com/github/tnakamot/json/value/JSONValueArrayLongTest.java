@@ -0,0 +1,81 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class JSONValueArrayLongTest {
+  @Test
+  public void testParse() throws IOException, JSONParserException {
+    String text = "[1,-2,30,9223372036854775807,-9223372036854775808]";
+    JSONValue root = JSONText.fromString(text).parse().root();
+
+    assertTrue(root instanceof JSONValueArrayLong);
+    JSONValueArray array = (JSONValueArray) root;
+    assertEquals(5, array.size());
+    assertEquals(-2, array.getLong(1));
+    assertEquals(30.0, array.getDouble(2));
+    assertEquals(Long.MAX_VALUE, array.getLong(3));
+    assertEquals(new JSONValueNumber("1"), array.get(0));
+    assertNull(((JSONValueNumber) array.get(0)).token());
+    assertArrayEquals(
+        new long[] {1, -2, 30, Long.MAX_VALUE, Long.MIN_VALUE}, array.toLongArray());
+    assertEquals(29, array.longStream().limit(3).sum());
+    assertEquals(text, array.toTokenString());
+    assertThrows(IndexOutOfBoundsException.class, () -> array.getLong(5));
+  }
+
+  @Test
+  public void testNotLong() throws IOException, JSONParserException {
+    for (String text : new String[] {"[1,2.0]", "[1,1e3]", "[-0,1]", "[1,\"2\"]", "[1,[2]]"}) {
+      JSONValue root = JSONText.fromString(text).parse().root();
+      assertFalse(root instanceof JSONValueArrayLong, text);
+      assertEquals(text, root.toTokenString());
+    }
+  }
+
+  @Test
+  public void testEqualityAndSearch() {
+    JSONValueArrayMutable mutable = new JSONValueArrayMutable();
+    mutable.add(3);
+    mutable.add(1000000);
+    mutable.add(3);
+    JSONValueArrayImmutable array = mutable.toImmutable();
+
+    assertTrue(array instanceof JSONValueArrayLong);
+    assertEquals(mutable, array);
+    assertEquals(array, mutable);
+    assertEquals(mutable.hashCode(), array.hashCode());
+    assertEquals(0, array.indexOf(new JSONValueNumber("3.0")));
+    assertEquals(2, array.lastIndexOf(new JSONValueNumber(3)));
+    assertTrue(array.contains(new JSONValueNumber("1e6")));
+    assertFalse(array.contains(new JSONValueNumber("3.5")));
+    assertFalse(array.contains(new JSONValueString("3")));
+    assertThrows(UnsupportedOperationException.class, () -> array.add(1));
+
+    JSONValueArrayMutable copy = array.toMutable();
+    copy.add(4);
+    assertEquals(4, copy.size());
+    assertEquals(3, array.size());
+  }
+}
@@ -2,6 +2,7 @@ package com.github.tnakamot.json.value;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -144,4 +145,72 @@ public class JSONValueArrayMutableTest {
     assertEquals(new JSONValueNumber(999), array.get(0));
     assertEquals(new JSONValueNumber(999), array.get(1));
   }
+
+  @Test
+  public void testLargeArray() {
+    int n = 5000;
+    JSONValueArrayMutable array = new JSONValueArrayMutable();
+    for (int i = 0; i < n; i++) {
+      array.add("v" + i);
+    }
+    assertEquals(n, array.size());
+    for (int i = 0; i < n; i++) {
+      assertEquals("v" + i, array.getString(i));
+    }
+
+    array.add(1000, new JSONValueString("inserted"));
+    assertEquals(n + 1, array.size());
+    assertEquals("v999", array.getString(999));
+    assertEquals("inserted", array.getString(1000));
+    assertEquals("v1000", array.getString(1001));
+    assertEquals("v4999", array.getString(n));
+
+    assertEquals(new JSONValueString("inserted"), array.remove(1000));
+    assertEquals(n, array.size());
+    assertEquals("v1024", array.getString(1024));
+
+    array.removeIf(v -> ((JSONValueString) v).value().hashCode() % 2 == 0);
+    for (JSONValue v : array) {
+      assertTrue(((JSONValueString) v).value().hashCode() % 2 != 0);
+    }
+
+    Object[] objects = array.toArray();
+    assertEquals(array.size(), objects.length);
+    for (int i = 0; i < objects.length; i++) {
+      assertEquals(array.get(i), objects[i]);
+    }
+
+    array.clear();
+    assertTrue(array.isEmpty());
+    array.add(1);
+    assertEquals(1, array.getLong(0));
+  }
+
+  @Test
+  public void testMutationAfterToImmutable() {
+    int n = 3000;
+    JSONValueArrayMutable array = new JSONValueArrayMutable();
+    for (int i = 0; i < n; i++) {
+      array.add("v" + i);
+    }
+
+    JSONValueArrayImmutable immutable = array.toImmutable();
+    array.set(0, new JSONValueString("changed"));
+    array.set(2500, new JSONValueString("changed"));
+    array.add("appended");
+    array.remove(1500);
+
+    assertEquals(n, immutable.size());
+    for (int i = 0; i < n; i++) {
+      assertEquals("v" + i, immutable.getString(i));
+    }
+    assertEquals("changed", array.getString(0));
+    assertEquals("v1501", array.getString(1500));
+    assertEquals("appended", array.getString(n - 1));
+
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> immutable.subList(0, 10).set(0, new JSONValueString("x")));
+    assertThrows(UnsupportedOperationException.class, () -> immutable.subList(0, 10).clear());
+  }
 }
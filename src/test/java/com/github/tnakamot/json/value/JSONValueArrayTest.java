@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -277,4 +279,31 @@ public class JSONValueArrayTest {
     assertEquals(1, end.beginningLocation().line());
     assertEquals(2, end.beginningLocation().column());
   }
+
+  @Test
+  public void testDefaultValues() throws IOException, JSONParserException {
+    JSONValueArray array =
+        (JSONValueArray)
+            JSONText.fromString("[true, 12, 1.5, \"x\", [], {}]").parse().root();
+
+    assertTrue(array.getBoolean(0, false));
+    assertTrue(array.getBoolean(6, true));
+    assertEquals(12, array.getLong(1, -1));
+    assertEquals(-1, array.getLong(-1, -1));
+    assertEquals(1.5, array.getDouble(2, 0.0));
+    assertEquals(0.5, array.getDouble(100, 0.5));
+    assertEquals("x", array.getString(3, null));
+    assertNull(array.getString(6, null));
+    assertEquals(0, array.getArray(4, null).size());
+    assertSame(array, array.getArray(6, array));
+    assertEquals(0, array.getObject(5, null).size());
+    assertNull(array.getObject(6, null));
+
+    assertThrows(WrongValueTypeException.class, () -> array.getLong(3, 0));
+    assertThrows(WrongValueTypeException.class, () -> array.getObject(4, null));
+
+    assertEquals(new JSONValueString("x"), array.find(3).orElseThrow());
+    assertTrue(array.find(6).isEmpty());
+    assertTrue(array.find(-1).isEmpty());
+  }
 }
@@ -0,0 +1,168 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.tnakamot.json.JSONText;
+import com.github.tnakamot.json.parser.JSONParserErrorHandlingOptions;
+import com.github.tnakamot.json.parser.JSONParserException;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public class JSONValueInternerTest {
+  private static final String RECORDS =
+      "["
+          + "{\"id\": 1, \"price\": {\"currency\": \"USD\", \"unit\": \"kg\"}},"
+          + "{\"id\": 2, \"price\": {\"currency\": \"USD\", \"unit\": \"kg\"}},"
+          + "{\"id\": 3, \"price\": {\"currency\": \"EUR\", \"unit\": \"kg\"}}"
+          + "]";
+
+  @Test
+  public void testInternStrings() {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONValueString s1 = new JSONValueString("USD");
+    JSONValueString s2 = new JSONValueString("USD");
+    assertSame(s1, interner.intern(s1));
+    assertSame(s1, interner.intern(s2));
+    assertNotSame(s1, interner.intern(new JSONValueString("EUR")));
+    assertEquals(2, interner.size());
+
+    interner.clear();
+    assertEquals(0, interner.size());
+    assertSame(s2, interner.intern(s2));
+  }
+
+  @Test
+  public void testInternKeepsTextRepresentation() throws IOException, JSONParserException {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONValueArray array =
+        (JSONValueArray) JSONText.fromString("[1.0, 1.00, \"A\", \"\\u0041\"]").parse().root();
+    JSONValueArray interned = interner.intern(array);
+
+    assertNotSame(interned.get(0), interned.get(1));
+    assertNotSame(interned.get(2), interned.get(3));
+    assertEquals("[1.0,1.00,\"A\",\"\\u0041\"]", interned.toTokenString());
+  }
+
+  @Test
+  public void testInternKeepsTextOfNumberArrays() throws IOException, JSONParserException {
+    JSONValueInterner interner = new JSONValueInterner();
+    String[][] pairs = {{"[1,0.5]", "[1.0,0.5]"}, {"[0.0,0.5]", "[-0.0,0.5]"}};
+    for (String[] pair : pairs) {
+      JSONValueArray first = (JSONValueArray) JSONText.fromString(pair[0]).parse().root();
+      JSONValueArray second = (JSONValueArray) JSONText.fromString(pair[1]).parse().root();
+      assertTrue(first instanceof JSONValueArrayDouble);
+      assertTrue(second instanceof JSONValueArrayDouble);
+
+      assertSame(first, interner.intern(first));
+      JSONValueArray interned = interner.intern(second);
+      assertNotSame(first, interned);
+      assertEquals(pair[1], interned.toTokenString());
+    }
+
+    JSONValueArray same = (JSONValueArray) JSONText.fromString("[1.0,0.5]").parse().root();
+    assertEquals("[1.0,0.5]", interner.intern(same).toTokenString());
+  }
+
+  @Test
+  public void testInternSubtrees() throws IOException, JSONParserException {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONValueArray records = (JSONValueArray) JSONText.fromString(RECORDS).parse().root();
+    JSONValueArray interned = interner.intern(records);
+
+    assertEquals(records, interned);
+    assertEquals(records.toTokenString(), interned.toTokenString());
+    assertSame(interned.getObject(0).get("price"), interned.getObject(1).get("price"));
+    assertNotSame(interned.getObject(0).get("price"), interned.getObject(2).get("price"));
+    assertSame(
+        interned.getObject(0).getObject("price").get("unit"),
+        interned.getObject(2).getObject("price").get("unit"));
+
+    // interning again returns the same instance
+    assertSame(interned, interner.intern(interned));
+    assertSame(interned, interner.intern(JSONText.fromString(RECORDS).parse().root()));
+  }
+
+  @Test
+  public void testParseWithInterner() throws IOException, JSONParserException {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONParserErrorHandlingOptions options = JSONParserErrorHandlingOptions.builder().build();
+    JSONValueArray records1 =
+        (JSONValueArray) JSONText.fromString(RECORDS).parse(options, interner).root();
+    JSONValueArray records2 =
+        (JSONValueArray) JSONText.fromString(RECORDS).parse(options, interner).root();
+
+    assertSame(records1, records2);
+    assertSame(records1.getObject(0).get("price"), records1.getObject(1).get("price"));
+
+    JSONValueObject object =
+        (JSONValueObject)
+            JSONText.fromString("{\"currency\": \"USD\", \"unit\": \"kg\"}")
+                .parse(options, interner)
+                .root();
+    assertSame(records1.getObject(0).get("price"), object);
+  }
+
+  @Test
+  public void testInternShallow() throws IOException, JSONParserException {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONValueArray records =
+        interner.intern((JSONValueArray) JSONText.fromString(RECORDS).parse().root());
+    JSONValueObjectImmutable price =
+        (JSONValueObjectImmutable) records.getObject(0).getObject("price");
+
+    JSONValueObjectMutable object = new JSONValueObjectMutable();
+    for (int i = 0; i < price.size(); i++) {
+      object.put(price.keyAt(i), price.valueAt(i));
+    }
+    assertSame(price, interner.internShallow(object.toImmutable()));
+    assertSame(object, interner.internShallow(object));
+
+    // the elements are not interned, so an equal array of other instances is not found
+    JSONValueArray copy = (JSONValueArray) JSONText.fromString(RECORDS).parse().root();
+    assertSame(copy, interner.internShallow(copy));
+    assertNotSame(copy, interner.internShallow(JSONText.fromString(RECORDS).parse().root()));
+    assertSame(records, interner.intern(copy));
+  }
+
+  @Test
+  public void testParseDeepWithInterner() throws IOException, JSONParserException {
+    int depth = 500;
+    String text = "[".repeat(depth) + "1" + "]".repeat(depth);
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONParserErrorHandlingOptions options = JSONParserErrorHandlingOptions.builder().build();
+    JSONValue root = JSONText.fromString(text).parse(options, interner).root();
+
+    assertEquals(depth + 1, interner.size());
+    assertSame(root, JSONText.fromString(text).parse(options, interner).root());
+    assertSame(root, interner.intern(JSONText.fromString(text).parse().root()));
+    assertEquals(depth + 1, interner.size());
+  }
+
+  @Test
+  public void testMutableIsNotInterned() {
+    JSONValueInterner interner = new JSONValueInterner();
+    JSONValueObjectMutable object = new JSONValueObjectMutable();
+    object.put("a", 1);
+    assertSame(object, interner.intern(object));
+    assertEquals(0, interner.size());
+  }
+}
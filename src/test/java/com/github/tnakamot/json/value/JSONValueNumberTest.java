@@ -29,6 +29,9 @@ import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public class JSONValueNumberTest {
@@ -146,6 +149,12 @@ public class JSONValueNumberTest {
         Arguments.of("1.52e2", 152L),
         Arguments.of("0.000", 0L),
         Arguments.of("2.00000", 2L),
+        Arguments.of("-0.0", 0L),
+        Arguments.of("1.0", 1L),
+        Arguments.of("0e99999999999", 0L),
+        Arguments.of("1.23456789012345e18", 1234567890123450000L),
+        Arguments.of("92233720368547758.07e2", 9223372036854775807L),
+        Arguments.of("-9.223372036854775808e18", -9223372036854775808L),
         Arguments.of("1", 1L));
   }
 
@@ -157,7 +166,11 @@ public class JSONValueNumberTest {
         "-9223372036854775809",
         "1e2147483648",
         "1e-2147483649",
-        "1.523e2"
+        "1.523e2",
+        "0.99999999999999999",
+        "1.00000000000000001",
+        "9.223372036854775808e18",
+        "1e19"
       })
   public void testInvalidLongNumber(String text) {
     JSONValueNumber num = new JSONValueNumber(text);
@@ -201,6 +214,45 @@ public class JSONValueNumberTest {
     assertNotEquals(val3, val2);
   }
 
+  @ParameterizedTest(name = "testCanonicalEquality: \"{0}\" and \"{1}\"")
+  @MethodSource("equalNumbersProvider")
+  public void testCanonicalEquality(String text1, String text2) {
+    JSONValueNumber val1 = new JSONValueNumber(text1);
+    JSONValueNumber val2 = new JSONValueNumber(text2);
+
+    assertEquals(val1, val2);
+    assertEquals(val2, val1);
+    assertEquals(val1.hashCode(), val2.hashCode());
+  }
+
+  static Stream<Arguments> equalNumbersProvider() {
+    return Stream.of(
+        Arguments.of("1", "1.0"),
+        Arguments.of("1", "100e-2"),
+        Arguments.of("0", "-0"),
+        Arguments.of("0", "0.000e5"),
+        Arguments.of("-12.5", "-1250E-2"),
+        Arguments.of("18446744073709551615", "1.8446744073709551615e19"),
+        Arguments.of("12345678901234567890123", "1.2345678901234567890123000e22"),
+        Arguments.of("1e2147483647", "10e2147483646"));
+  }
+
+  @Test
+  public void testCanonicalInequality() {
+    Set<JSONValueNumber> set = new HashSet<>();
+    for (String text :
+        new String[] {
+          "1", "1.0", "-1", "10", "0.1", "0", "-0.0", "1.5", "15e-1",
+          "12345678901234567890123", "12345678901234567890124", "1.2345678901234567890123e22"
+        }) {
+      set.add(new JSONValueNumber(text));
+    }
+
+    assertEquals(8, set.size());
+    assertTrue(set.contains(new JSONValueNumber("100e-1")));
+    assertFalse(set.contains(new JSONValueNumber("12345678901234567890125")));
+  }
+
   @Test
   public void testInequalityTooBigValues() {
     JSONValueNumber val1 = new JSONValueNumber("10e10000000000");
@@ -227,6 +279,41 @@ public class JSONValueNumberTest {
     assertEquals("512", val.toTokenString());
   }
 
+  @Test
+  public void testValueOf() {
+    assertSame(JSONValueNumber.valueOf(0), JSONValueNumber.valueOf(0));
+    assertSame(JSONValueNumber.valueOf(-1), JSONValueNumber.valueOf(-1));
+    assertEquals(new JSONValueNumber(100000), JSONValueNumber.valueOf(100000));
+    assertEquals("-128", JSONValueNumber.valueOf(-128).toString());
+    assertEquals(1023, JSONValueNumber.valueOf(1023).toLong());
+    assertEquals(Long.MIN_VALUE, JSONValueNumber.valueOf(Long.MIN_VALUE).toLong());
+  }
+
+  @Test
+  public void testToBigDecimal() {
+    assertEquals(new BigDecimal("123"), new JSONValueNumber("123").toBigDecimal());
+    assertEquals(new BigDecimal("1.5e-3"), new JSONValueNumber("1.5e-3").toBigDecimal());
+    assertEquals(
+        new BigDecimal("9223372036854775808"),
+        new JSONValueNumber("9223372036854775808").toBigDecimal());
+    assertThrows(
+        NumberFormatException.class, () -> new JSONValueNumber("1e10000000000").toBigDecimal());
+  }
+
+  @Test
+  public void testEqualityAcrossRepresentations() {
+    assertEquals(new JSONValueNumber("1"), new JSONValueNumber("1.0"));
+    assertEquals(new JSONValueNumber("0.5"), new JSONValueNumber("5e-1"));
+    assertEquals(new JSONValueNumber("0"), new JSONValueNumber("-0.0"));
+    assertEquals(
+        new JSONValueNumber("9223372036854775807"), new JSONValueNumber("9.223372036854775807e18"));
+    assertEquals(
+        new JSONValueNumber("12345678901234567890").hashCode(),
+        new JSONValueNumber("1.234567890123456789e19").hashCode());
+    assertNotEquals(new JSONValueNumber("0.1"), new JSONValueNumber("0.10000000000000001"));
+    assertNotEquals(new JSONValueNumber("1"), new JSONValueNumber("1.00000000000000001"));
+  }
+
   @Test
   public void testNaN() {
     assertThrows(IllegalArgumentException.class, () -> new JSONValueNumber(Double.NaN));
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -12,6 +13,7 @@ import com.github.tnakamot.json.JSONText;
 import com.github.tnakamot.json.parser.JSONParserException;
 import com.github.tnakamot.json.token.JSONToken;
 import java.io.IOException;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.platform.commons.logging.Logger;
 import org.junit.platform.commons.logging.LoggerFactory;
@@ -264,6 +266,71 @@ public class JSONValueObjectTest {
         rootObjMutable.toTokenString());
   }
 
+  @Test
+  public void testToMutableLazy() throws IOException, JSONParserException {
+    JSONValueObjectImmutable root =
+        (JSONValueObjectImmutable)
+            JSONText.fromString("{\"a\": {\"b\": [1, 2]}, \"c\": {\"d\": true}, \"e\": 1}")
+                .parse()
+                .root();
+
+    JSONValueObjectMutable mutable = root.toMutable();
+    assertTrue(mutable.get("a") instanceof JSONValueObjectMutable);
+    assertSame(mutable.get("a"), mutable.get("a"));
+    assertTrue(mutable.getObject("a").get("b") instanceof JSONValueArrayMutable);
+    mutable.getObject("a").getArray("b").add(3);
+
+    for (Map.Entry<JSONValueString, JSONValue> entry : mutable.entrySet()) {
+      assertFalse(entry.getValue() instanceof JSONValueObjectImmutable);
+    }
+    assertEquals("{\"a\":{\"b\":[1,2]},\"c\":{\"d\":true},\"e\":1}", root.toTokenString());
+
+    JSONValueObjectImmutable modified = mutable.toImmutable();
+    assertEquals(
+        "{\"a\":{\"b\":[1,2,3]},\"c\":{\"d\":true},\"e\":1}", modified.toTokenString());
+
+    JSONValueObjectMutable untouched = root.toMutable();
+    untouched.put("e", new JSONValueNumber(2));
+    assertSame(root.get("a"), untouched.toImmutable().get("a"));
+  }
+
+  @Test
+  public void testWithWithout() throws IOException, JSONParserException {
+    JSONValueObjectImmutable root =
+        (JSONValueObjectImmutable)
+            JSONText.fromString("{\"a\": {\"b\": [1, 2]}, \"c\": {\"d\": true}, \"e\": 1}")
+                .parse()
+                .root();
+
+    JSONValueObjectImmutable replaced = root.with("e", new JSONValueNumber(2));
+    assertEquals("{\"a\":{\"b\":[1,2]},\"c\":{\"d\":true},\"e\":2}", replaced.toTokenString());
+    assertEquals("{\"a\":{\"b\":[1,2]},\"c\":{\"d\":true},\"e\":1}", root.toTokenString());
+    assertSame(root.get("a"), replaced.get("a"));
+    assertSame(root.get("c"), replaced.get("c"));
+
+    JSONValueObjectImmutable a = (JSONValueObjectImmutable) root.getObject("a");
+    JSONValueObjectImmutable nested = root.with("a", a.with("x", new JSONValueObjectMutable()));
+    assertEquals(
+        "{\"a\":{\"b\":[1,2],\"x\":{}},\"c\":{\"d\":true},\"e\":1}", nested.toTokenString());
+    assertTrue(nested.getObject("a").get("x") instanceof JSONValueObjectImmutable);
+    assertSame(root.get("c"), nested.get("c"));
+
+    JSONValueObjectImmutable removed = root.without("c");
+    assertEquals("{\"a\":{\"b\":[1,2]},\"e\":1}", removed.toTokenString());
+    assertNull(removed.get("c"));
+    assertSame(root, root.without("z"));
+
+    JSONValueObjectImmutable large = new JSONValueObjectImmutable(null);
+    for (int i = 0; i < 100; i++) {
+      large = large.with("k" + i, new JSONValueNumber(i));
+    }
+    large = large.without("k50").with("k10", new JSONValueString("ten"));
+    assertEquals(99, large.size());
+    assertNull(large.get("k50"));
+    assertEquals("ten", large.getString("k10"));
+    assertEquals(99, large.getLong("k99"));
+  }
+
   @Test
   public void testEquality() throws IOException, JSONParserException {
     JSONValue obj1 =
@@ -311,6 +378,39 @@ public class JSONValueObjectTest {
     assertNotEquals(obj1, obj2);
   }
 
+  @Test
+  public void testEqualityOfImmutableObjects() throws IOException, JSONParserException {
+    JSONValueObject obj1 =
+        (JSONValueObject)
+            JSONText.fromString("{\"a\": 1, \"b\": [1, 2.5, \"x\"], \"c\": {\"d\": null}}")
+                .parse()
+                .root();
+    JSONValueObject obj2 =
+        (JSONValueObject)
+            JSONText.fromString("{\"c\": {\"d\": null}, \"a\": 1.0, \"b\": [1, 2.50, \"x\"]}")
+                .parse()
+                .root();
+    JSONValueObject obj3 =
+        (JSONValueObject)
+            JSONText.fromString("{\"a\": 1, \"b\": [1, 2.5, \"x\"], \"e\": {\"d\": null}}")
+                .parse()
+                .root();
+
+    assertEquals(obj1, obj1);
+    assertEquals(obj1, obj2);
+    assertEquals(obj2, obj1);
+    assertEquals(obj1.hashCode(), obj2.hashCode());
+    assertEquals(obj1.hashCode(), obj1.hashCode());
+    assertNotEquals(obj1, obj3);
+    assertNotEquals(obj3, obj1);
+
+    JSONValueObjectMutable mutable = ((JSONValueObjectImmutable) obj3).toMutable();
+    assertEquals(obj3, mutable);
+    assertEquals(mutable, obj3);
+    assertNotEquals(mutable, obj1);
+    assertEquals(obj3.hashCode(), mutable.hashCode());
+  }
+
   @Test
   public void testToken() throws IOException, JSONParserException {
     JSONValue root =
@@ -367,4 +467,109 @@ public class JSONValueObjectTest {
     assertEquals(1, end.beginningLocation().line());
     assertEquals(2, end.beginningLocation().column());
   }
+
+  @Test
+  public void testImmutableLargeObject() {
+    JSONValueObjectMutable obj = new JSONValueObjectMutable();
+    for (int i = 0; i < 100; i++) {
+      obj.put("key" + i, i);
+    }
+
+    JSONValueObjectImmutable immutable = obj.toImmutable();
+    assertEquals(100, immutable.size());
+    for (int i = 0; i < 100; i++) {
+      assertTrue(immutable.containsKey("key" + i));
+      assertEquals(i, immutable.getLong("key" + i));
+    }
+    assertFalse(immutable.containsKey("key100"));
+    assertNull(immutable.get("key100"));
+
+    int i = 0;
+    for (Map.Entry<JSONValueString, JSONValue> entry : immutable.entrySet()) {
+      assertEquals(new JSONValueString("key" + i), entry.getKey());
+      assertEquals(new JSONValueNumber(i), entry.getValue());
+      i++;
+    }
+    assertEquals(obj, immutable);
+    assertEquals(obj.hashCode(), immutable.hashCode());
+
+    assertThrows(
+        UnsupportedOperationException.class, () -> immutable.keySet().iterator().remove());
+    assertThrows(UnsupportedOperationException.class, () -> immutable.values().clear());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> immutable.entrySet().iterator().next().setValue(JSONValueNull.INSTANCE));
+  }
+
+  @Test
+  public void testKey() throws IOException, JSONParserException {
+    JSONValue root =
+        JSONText.fromString(
+                "[{\"id\": 1, \"name\": \"a\"},"
+                    + " {\"id\": 2, \"name\": \"b\"},"
+                    + " {\"name\": \"c\", \"id\": 3},"
+                    + " {\"name\": \"d\"}]")
+            .parse()
+            .root();
+    JSONValueArray records = (JSONValueArray) root;
+    assertNotNull(records);
+
+    JSONKey id = new JSONKey("id");
+    JSONKey name = new JSONKey("name");
+    assertEquals(1, records.getObject(0).getLong(id));
+    assertEquals("a", records.getObject(0).getString(name));
+    assertEquals(2, records.getObject(1).getLong(id));
+    assertEquals("b", records.getObject(1).getString(name));
+    assertEquals(3, records.getObject(2).getLong(id));
+    assertEquals("c", records.getObject(2).getString(name));
+    assertFalse(records.getObject(3).containsKey(id));
+    assertNull(records.getObject(3).get(id));
+    assertThrows(IllegalArgumentException.class, () -> records.getObject(3).getLong(id));
+    assertEquals("d", records.getObject(3).getString(name));
+
+    JSONValueObject mutable = ((JSONValueObjectImmutable) records.getObject(0)).toMutable();
+    assertTrue(mutable.containsKey(id));
+    assertEquals(1, mutable.getLong(id));
+
+    StringBuilder sb = new StringBuilder("na").append("me");
+    assertTrue(records.getObject(0).containsKey(sb));
+    assertEquals(new JSONValueString("a"), records.getObject(0).get(sb));
+    assertEquals(new JSONValueString("a"), mutable.get(sb));
+  }
+
+  @Test
+  public void testDefaultValues() throws IOException, JSONParserException {
+    JSONValueObject obj =
+        (JSONValueObject)
+            JSONText.fromString(
+                    "{\"b\": true, \"l\": 12, \"d\": 1.5, \"s\": \"x\", \"a\": [], \"o\": {}}")
+                .parse()
+                .root();
+    JSONKey missing = new JSONKey("missing");
+
+    assertTrue(obj.getBoolean("b", false));
+    assertTrue(obj.getBoolean("missing", true));
+    assertTrue(obj.getBoolean(missing, true));
+    assertEquals(12, obj.getLong("l", -1));
+    assertEquals(-1, obj.getLong("missing", -1));
+    assertEquals(-1, obj.getLong(missing, -1));
+    assertEquals(1.5, obj.getDouble(new JSONKey("d"), 0.0));
+    assertEquals(0.5, obj.getDouble("missing", 0.5));
+    assertEquals("x", obj.getString("s", null));
+    assertNull(obj.getString("missing", null));
+    assertEquals("y", obj.getString(missing, "y"));
+    assertEquals(0, obj.getArray("a", null).size());
+    assertNull(obj.getArray(missing, null));
+    assertEquals(0, obj.getObject("o", null).size());
+    assertSame(obj, obj.getObject("missing", obj));
+
+    assertThrows(WrongValueTypeException.class, () -> obj.getLong("s", 0));
+    assertThrows(WrongValueTypeException.class, () -> obj.getString(new JSONKey("l"), ""));
+
+    assertEquals(new JSONValueString("x"), obj.find("s").orElseThrow());
+    assertEquals(new JSONValueString("x"), obj.find(new JSONKey("s")).orElseThrow());
+    assertTrue(obj.find("missing").isEmpty());
+    assertTrue(obj.find(missing).isEmpty());
+    assertTrue(((JSONValueObjectImmutable) obj).toMutable().find("missing").isEmpty());
+  }
 }
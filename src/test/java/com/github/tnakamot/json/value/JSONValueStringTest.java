@@ -22,6 +22,7 @@ import com.github.tnakamot.json.token.JSONToken;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -133,4 +134,24 @@ public class JSONValueStringTest {
         String.format(
             "End  : line %d, column %d", token.endLocation().line(), token.endLocation().column()));
   }
+
+  @Test
+  public void testEscape() {
+    JSONValueString val =
+        new JSONValueString("a\"\\/\b\f\n\r\t\u0000\u001f\u007f\u00e9\u3042\ud83d\ude00z");
+    String expected =
+        "\"a\\\"\\\\\\/\\b\\f\\n\\r\\t\\u0000\\u001F\\u007F\\u00E9\\u3042\\uD83D\\uDE00z\"";
+
+    assertEquals(expected, val.toTokenString());
+    assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), val.toTokenBytes());
+    assertArrayEquals(
+        "\"\"".getBytes(StandardCharsets.UTF_8), new JSONValueString("").toTokenBytes());
+  }
+
+  @Test
+  public void testTokenBytes() throws IOException, JSONParserException {
+    JSONValue val = JSONText.fromString("\"\u00e9\\u00e9\"").parse().root();
+    assertArrayEquals(
+        "\"\u00e9\\u00e9\"".getBytes(StandardCharsets.UTF_8), val.toTokenBytes());
+  }
 }
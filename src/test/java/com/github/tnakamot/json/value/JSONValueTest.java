@@ -16,8 +16,10 @@
 
 package com.github.tnakamot.json.value;
 
+import com.github.tnakamot.json.JSONText;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -78,4 +80,25 @@ public class JSONValueTest {
     assertThrows(IllegalArgumentException.class, () -> root.toTokenString("\n\r", "  "));
     assertThrows(IllegalArgumentException.class, () -> root.toTokenString("\n", "abc"));
   }
+
+  @Test
+  public void testRawText() throws Exception {
+    String text = " {\"key1\" : [ 1.0 , \"\\u00e9\u00e9\" ],\n \"key2\": { } } ";
+    JSONValueObject root = (JSONValueObject) JSONText.fromString(text).parse().root();
+
+    assertEquals(text.trim(), root.rawText().toString());
+    assertEquals("[ 1.0 , \"\\u00e9\u00e9\" ]", root.get("key1").rawText().toString());
+    assertEquals("{ }", root.get("key2").rawText().toString());
+    assertEquals("1.0", root.getArray("key1").get(0).rawText().toString());
+    assertArrayEquals(
+        "\"\\u00e9\u00e9\"".getBytes(StandardCharsets.UTF_8),
+        root.getArray("key1").get(1).rawBytes());
+
+    // Values created or modified by the application do not have raw text.
+    assertNull(new JSONValueString("abc").rawText());
+    assertNull(new JSONValueString("abc").rawBytes());
+    assertNull(new JSONValueArrayMutable().rawText());
+    assertNull(((JSONValueObjectImmutable) root).toMutable().rawText());
+    assertNull(((JSONValueObjectImmutable) root).with("key3", JSONValueNull.INSTANCE).rawText());
+  }
 }
@@ -0,0 +1,202 @@
+/*
+ *  Copyright (C) 2020 Takashi Nakamoto <nyakamoto@gmail.com>.
+ *
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License version 3 as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.tnakamot.json.value;
+
+import com.github.tnakamot.json.JSONText;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JSONWriterTest {
+  private static final String TEXT =
+      "{\"key1\": [1, 2.5e3, true, null, \"a\\\"b\"], \"key2\": {\"key3\": [], \"key4\": {}},"
+          + " \"key5\": [{\"key6\": \"\\u3042/\"}, [false]], \"key7\": -0}";
+
+  @Test
+  public void testWriteCompact() throws Exception {
+    JSONValue root = JSONText.fromString(TEXT).parse().root();
+
+    StringBuilder sb = new StringBuilder();
+    new JSONWriter(sb).write(root);
+    assertEquals(
+        "{\"key1\":[1,2.5e3,true,null,\"a\\\"b\"],\"key2\":{\"key3\":[],\"key4\":{}},"
+            + "\"key5\":[{\"key6\":\"\\u3042/\"},[false]],\"key7\":-0}",
+        sb.toString());
+    assertEquals(root.toTokenString(), sb.toString());
+  }
+
+  @Test
+  public void testWritePretty() throws Exception {
+    JSONValue root = JSONText.fromString(TEXT).parse().root();
+
+    StringWriter writer = new StringWriter();
+    root.writeTo(writer, "\n", "  ");
+    assertEquals(
+        "{\n"
+            + "  \"key1\": [1, 2.5e3, true, null, \"a\\\"b\"],\n"
+            + "  \"key2\": {\n"
+            + "    \"key3\": [ ],\n"
+            + "    \"key4\": { }\n"
+            + "  },\n"
+            + "  \"key5\": [\n"
+            + "    {\n"
+            + "      \"key6\": \"\\u3042/\"\n"
+            + "    },\n"
+            + "    [false]\n"
+            + "  ],\n"
+            + "  \"key7\": -0\n"
+            + "}",
+        writer.toString());
+    assertEquals(root.toTokenString("\n", "  "), writer.toString());
+  }
+
+  @Test
+  public void testWriteLongArray() throws IOException {
+    JSONValueArray array = new JSONValueArrayMutable();
+    for (int i = 0; i < 30; i++) {
+      array.add(new JSONValueNumber(i));
+    }
+
+    StringBuilder sb = new StringBuilder();
+    array.writeTo(sb, "\r\n", "\t");
+    assertTrue(sb.toString().startsWith("[\r\n\t0,\r\n\t1,\r\n"));
+    assertTrue(sb.toString().endsWith(",\r\n\t29\r\n]"));
+    assertEquals(array.toTokenString("\r\n", "\t"), sb.toString());
+
+    array.remove(29);
+    array.subList(10, 29).clear();
+    sb.setLength(0);
+    array.writeTo(sb, "\r\n", "\t");
+    assertEquals("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", sb.toString());
+  }
+
+  @Test
+  public void testWidth() throws Exception {
+    JSONValue root = JSONText.fromString("{\"key\": [1, \"abc\", true]}").parse().root();
+
+    // [1, "abc", true] is 16 characters.
+    StringBuilder sb = new StringBuilder();
+    new JSONWriter(sb, "\n", " ", 16).write(root);
+    assertEquals("{\n \"key\": [1, \"abc\", true]\n}", sb.toString());
+
+    sb.setLength(0);
+    new JSONWriter(sb, "\n", " ", 15).write(root);
+    assertEquals("{\n \"key\": [\n  1,\n  \"abc\",\n  true\n ]\n}", sb.toString());
+
+    sb.setLength(0);
+    new JSONWriter(sb, "\n", " ", 0).write(JSONText.fromString("[[], 1]").parse().root());
+    assertEquals("[\n [ ],\n 1\n]", sb.toString());
+
+    sb.setLength(0);
+    JSONValueArray escaped = new JSONValueArrayMutable();
+    escaped.add(new JSONValueString("\u00e9")); // encoded to 8 characters
+    new JSONWriter(sb, "\n", " ", 10).write(escaped);
+    assertEquals("[\"\\u00E9\"]", sb.toString());
+    sb.setLength(0);
+    new JSONWriter(sb, "\n", " ", 9).write(escaped);
+    assertEquals("[\n \"\\u00E9\"\n]", sb.toString());
+
+    assertThrows(IllegalArgumentException.class, () -> new JSONWriter(sb, "\n", " ", -1));
+  }
+
+  @Test
+  public void testVerbatim() throws Exception {
+    String text = "{ \"a\": [1.0, {\"b\" : \"\\u0041\"}], \"c\": 1E2 }";
+    JSONValueObjectImmutable root =
+        (JSONValueObjectImmutable) JSONText.fromString(text).parse().root();
+
+    StringBuilder sb = new StringBuilder();
+    JSONValueObjectImmutable modified = root.with("d", new JSONValueString("\u00e9"));
+    JSONWriter.verbatim(sb).write(modified);
+    assertEquals(
+        "{\"a\":[1.0, {\"b\" : \"\\u0041\"}],\"c\":1E2,\"d\":\"\\u00E9\"}", sb.toString());
+
+    sb.setLength(0);
+    JSONWriter.verbatim(sb).write(root);
+    assertEquals(text, sb.toString());
+  }
+
+  @Test
+  public void testWriteMutable() throws IOException {
+    JSONValueObject root = new JSONValueObjectMutable();
+    root.put("key1", "\u00e9\n/");
+    root.put("key2", new JSONValueArrayMutable());
+    ((JSONValueArray) root.get("key2")).add(JSONValueBoolean.TRUE);
+
+    StringBuilder sb = new StringBuilder();
+    root.writeTo(sb);
+    assertEquals("{\"key1\":\"\\u00E9\\n\\/\",\"key2\":[true]}", sb.toString());
+    assertEquals(root.toTokenString(), sb.toString());
+  }
+
+  @Test
+  public void testWriteMutableWithoutConversion() throws Exception {
+    String text = "{\"a\":{\"b\":[1,2]},\"c\":[{\"d\":null}]}";
+    JSONValueObjectImmutable immutable =
+        (JSONValueObjectImmutable) JSONText.fromString(text).parse().root();
+    JSONValueObjectMutable root = immutable.toMutable();
+    JSONValueArrayMutable c = (JSONValueArrayMutable) root.get("c");
+
+    assertEquals(text, root.toTokenString());
+    StringBuilder sb = new StringBuilder();
+    new JSONWriter(sb, "\n", "  ").write(root);
+    assertEquals(immutable.toTokenString("\n", "  "), sb.toString());
+    assertEquals(immutable, JSONBinaryCodec.decode(JSONBinaryCodec.encode(root)));
+
+    // Writing does not convert the inner immutable values to mutable ones.
+    assertSame(immutable.get("a"), root.storedMembers().get(new JSONValueString("a")));
+    assertSame(((JSONValueArray) immutable.get("c")).get(0), c.storedValues().get(0));
+  }
+
+  @Test
+  public void testWriteToOutputStream() throws Exception {
+    JSONValue root = JSONText.fromString("{\"\u3042\": [\"\u00e9\", 1]}").parse().root();
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    root.writeTo(out);
+    assertArrayEquals(root.toTokenBytes(), out.toByteArray());
+    assertEquals(
+        "{\"\u3042\":[\"\u00e9\",1]}", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+    out.reset();
+    root.writeTo(out, "\n", "    ");
+    assertArrayEquals(root.toTokenBytes("\n", "    "), out.toByteArray());
+  }
+
+  @Test
+  public void testMultipleValues() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    JSONWriter writer = new JSONWriter(sb);
+    writer.write(JSONValueNull.INSTANCE);
+    sb.append('\n');
+    writer.write(new JSONValueString("abc"));
+    assertEquals("null\n\"abc\"", sb.toString());
+  }
+
+  @Test
+  public void testInvalidFormat() {
+    StringBuilder sb = new StringBuilder();
+    assertThrows(IllegalArgumentException.class, () -> new JSONWriter(sb, "\n\r", "  "));
+    assertThrows(IllegalArgumentException.class, () -> new JSONWriter(sb, "\n", "abc"));
+    assertThrows(NullPointerException.class, () -> new JSONWriter(null));
+  }
+}